@@ -0,0 +1,114 @@
+package com.singlehandedmode;
+
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import net.runelite.api.EquipmentInventorySlot;
+import net.runelite.api.InventoryID;
+import net.runelite.api.MenuAction;
+import net.runelite.api.MenuEntry;
+import net.runelite.api.NPCComposition;
+import net.runelite.api.coords.WorldPoint;
+import net.runelite.api.events.ItemContainerChanged;
+
+/**
+ * Wires the click handling managers to the headless fakes, with menu and NPC data recorded in the jmh
+ * resources. Items come from the fixtures' items.tsv.
+ *
+ * The fakes are plain objects behind a proxy, so nothing records the calls made in the measured loop,
+ * and the values they return are already boxed. What a benchmark allocates is the plugin's own.
+ */
+final class BenchmarkFixture
+{
+    final HookStateManager hookState;
+    final EquipmentRestrictionManager equipmentManager;
+    final InteractionRestrictionManager interactionManager;
+    final AbleismGenerator ableismGenerator;
+
+    final MenuEntry[] menuEntries;
+    final NPCComposition[] npcCompositions;
+
+    /**
+     * @param hookEquipped whether the player is wearing a working hook
+     */
+    BenchmarkFixture(boolean hookEquipped)
+    {
+        // 1. Let Guice build the managers against the fakes, as the plugin does against the client
+        Injector injector = Guice.createInjector(new HeadlessModule());
+        FakeClient client = injector.getInstance(FakeClient.class);
+
+        hookState = injector.getInstance(HookStateManager.class);
+        equipmentManager = injector.getInstance(EquipmentRestrictionManager.class);
+        interactionManager = injector.getInstance(InteractionRestrictionManager.class);
+        ableismGenerator = injector.getInstance(AbleismGenerator.class);
+
+        // 2. Equipment: the hook, plus a shield and a two-handed weapon for the removal checks
+        FakeItemContainer equipment = client.container(InventoryID.EQUIPMENT, 14)
+                .set(EquipmentInventorySlot.GLOVES.getSlotIdx(), hookEquipped ? HookStateManager.PIRATE_HOOK_ID : -1, 1)
+                .set(EquipmentInventorySlot.SHIELD.getSlotIdx(), 1201, 1)
+                .set(EquipmentInventorySlot.WEAPON.getSlotIdx(), 11802, 1);
+        hookState.onItemContainerChanged(new ItemContainerChanged(InventoryID.EQUIPMENT.getId(), equipment.container()));
+
+        menuEntries = loadMenuEntries();
+        npcCompositions = loadNpcCompositions();
+    }
+
+    // --- Recorded Data ---
+
+    /**
+     * menu_events.tsv: option, target, menu action, identifier, item ID
+     */
+    private static MenuEntry[] loadMenuEntries()
+    {
+        List<MenuEntry> entries = new ArrayList<>();
+        for (String[] row : readTsv("menu_events.tsv"))
+        {
+            entries.add(new FakeMenuEntry(row[0], row[1], MenuAction.valueOf(row[2]),
+                    Integer.parseInt(row[3]), Integer.parseInt(row[4])).entry());
+        }
+        return entries.toArray(new MenuEntry[0]);
+    }
+
+    /**
+     * npc_names.tsv: NPC ID, name
+     */
+    private static NPCComposition[] loadNpcCompositions()
+    {
+        List<NPCComposition> npcs = new ArrayList<>();
+        for (String[] row : readTsv("npc_names.tsv"))
+        {
+            FakeNpc npc = new FakeNpc(npcs.size(), Integer.parseInt(row[0]), row[1], new WorldPoint(3222, 3218, 0));
+            npcs.add(npc.getComposition());
+        }
+        return npcs.toArray(new NPCComposition[0]);
+    }
+
+    private static List<String[]> readTsv(String resource)
+    {
+        InputStream in = BenchmarkFixture.class.getResourceAsStream(resource);
+        if (in == null) throw new IllegalStateException("Missing benchmark resource " + resource);
+
+        List<String[]> rows = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8)))
+        {
+            String line;
+            while ((line = reader.readLine()) != null)
+            {
+                if (line.isEmpty() || line.startsWith("#")) continue;
+                rows.add(line.split("\t"));
+            }
+        }
+        catch (IOException e)
+        {
+            throw new UncheckedIOException(e);
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,101 @@
+package com.singlehandedmode;
+
+import java.util.concurrent.TimeUnit;
+import net.runelite.api.MenuEntry;
+import net.runelite.api.NPCComposition;
+import net.runelite.api.events.MenuOptionClicked;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Throughput of the checks run on every menu click, and of NPC name classification.
+ *
+ * Each operation replays the next recorded menu event, cycling through menu_events.tsv so every
+ * branch is hit. Events are consumed when blocked, so each operation wraps the entry in a fresh
+ * {@link MenuOptionClicked}; {@link #newEvent} measures that on its own, subtract it from the rest.
+ * Run with {@code ./gradlew jmh}, which adds the GC profiler for allocations per operation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RestrictionBenchmark
+{
+    @Param({"false", "true"})
+    public boolean hookEquipped;
+
+    private BenchmarkFixture fixture;
+    private MenuEntry[] entries;
+    private NPCComposition[] npcs;
+    private int nextEntry;
+    private int nextNpc;
+
+    @Setup
+    public void setUp()
+    {
+        fixture = new BenchmarkFixture(hookEquipped);
+        entries = fixture.menuEntries;
+        npcs = fixture.npcCompositions;
+    }
+
+    @Benchmark
+    public MenuOptionClicked newEvent()
+    {
+        return nextEvent();
+    }
+
+    @Benchmark
+    public RestrictionRule equipmentCheckRestrictions()
+    {
+        return fixture.equipmentManager.checkRestrictions(nextEvent());
+    }
+
+    @Benchmark
+    public RestrictionRule equipmentCheckHookRemoval()
+    {
+        return fixture.equipmentManager.checkHookRemoval(nextEvent());
+    }
+
+    @Benchmark
+    public RestrictionRule interactionCheckRestrictions()
+    {
+        return fixture.interactionManager.checkRestrictions(nextEvent());
+    }
+
+    @Benchmark
+    public boolean captureClickIntent()
+    {
+        MenuOptionClicked event = nextEvent();
+        fixture.hookState.captureClickIntent(event);
+        return fixture.hookState.wasShieldJustRemoved();
+    }
+
+    /**
+     * Classifies NPC names by keyword, as done the first time each NPC composition is seen.
+     */
+    @Benchmark
+    public byte classifyNpcName()
+    {
+        NPCComposition npc = npcs[nextNpc];
+        if (++nextNpc == npcs.length) nextNpc = 0;
+        return fixture.ableismGenerator.classifyComposition(npc);
+    }
+
+    private MenuOptionClicked nextEvent()
+    {
+        MenuEntry entry = entries[nextEntry];
+        if (++nextEntry == entries.length) nextEntry = 0;
+        return new MenuOptionClicked(entry);
+    }
+}
@@ -5,17 +5,19 @@ import net.runelite.api.Client;
 import net.runelite.api.NPC;
 
 import javax.inject.Inject;
+import javax.inject.Singleton;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Random;
 import java.util.Set;
-import java.util.stream.Collectors;
-import java.util.stream.StreamSupport;
 
 import lombok.extern.slf4j.Slf4j;
 import net.runelite.api.NPCComposition;
 import net.runelite.api.coords.WorldPoint;
 
 @Slf4j
+@Singleton
 public class AbleismGenerator {
 
     @Inject
@@ -24,8 +26,28 @@ public class AbleismGenerator {
     @Inject
     SingleHandedModeConfig config;
 
+    @Inject
+    HookStateManager hookState;
+
+    @Inject
+    TickScheduler tickScheduler;
+
+    @Inject
+    PluginMetrics metrics;
+
+    @Inject
+    FrameGovernor governor;
+
     private final Random random = new Random();
-    private int textCooldown = 0; // Ticks until next possible comment
+
+    // NPCs that could comment, reused by makeRandomNpcSpeak
+    private final List<NPC> candidates = new ArrayList<>();
+
+    // Comment schedule, see reschedule()
+    private final TickScheduler.Timer commentTimer = new TickScheduler.Timer(this::onCommentDue);
+    private int level;
+    private int probabilityWindow;
+    private double logMissChance;
 
     // People being openly rude, pitying, or disgusted.
     private static final String[] ADULT_NO_HOOK_COMMENTS = {
@@ -90,45 +112,75 @@ public class AbleismGenerator {
             "monk", "priest", "clerk", "forester", "aristocrat", "thief"
     );
 
-    // ... imports ...
+    // Monster names that would otherwise match a human keyword (e.g. "Goblin Guard")
+    private static final String[] MONSTER_KEYWORDS = {"goblin", "zombie", "gnome"};
 
-    // ... imports ...
+    // NPC classifications, cached per composition ID
+    private static final byte UNCLASSIFIED = 0;
+    private static final byte NOT_HUMAN = 1;
+    private static final byte ADULT = 2;
+    private static final byte CHILD = 3;
 
-    public void maybeGenerateAbleistNpcComment(boolean isPiratesHookEquipped) {
-        if (!config.enableAbleism()) return;
+    // Indexed by composition ID. Composition IDs are small and dense, so a flat array
+    // is both smaller and faster than a map. Grown on demand.
+    private byte[] classifications = new byte[0];
 
-        if (textCooldown > 0) {
-            --textCooldown;
+    /**
+     * Recomputes the comment schedule from config. Call on startup and whenever
+     * {@code enableAbleism} or {@code ableismLevel} changes.
+     */
+    public void reschedule() {
+        if (!config.enableAbleism()) {
+            // No job at all while disabled
+            tickScheduler.cancel(commentTimer);
             return;
         }
 
         // 1. Calculate Window (Probability) using 1-100 scale
-        int level = Math.max(1, Math.min(100, config.ableismLevel()));
+        level = Math.max(1, Math.min(100, config.ableismLevel()));
 
         // Formula: 500 - (Level * 5)
         // Level 1:   495 ticks (~5 mins)
         // Level 80:  100 ticks (~60 secs)
         // Level 100: 0 ticks (Instant)
-        int probabilityWindow = 500 - (level * 5);
+        probabilityWindow = 500 - (level * 5);
 
         // Safety Clamp:
         // If Level 100, window becomes 0 -> Clamp to 1 (100% chance).
         if (probabilityWindow < 1) probabilityWindow = 1;
 
-        // 2. Roll the dice
-        // nextInt(1) always returns 0, guaranteeing a "hit" at Level 100.
-        if (random.nextInt(probabilityWindow) == 0) {
-            makeRandomNpcSpeak(isPiratesHookEquipped);
-
-            // 3. Dynamic Cooldown
-            // Level 80+: Disable safety cooldown to allow overlapping "mob" speech.
-            // Level <80: Keep safety buffer (50% of window) to pace comments out.
-            if (level >= 80) {
-                textCooldown = 0;
-            } else {
-                textCooldown = probabilityWindow / 2;
-            }
-        }
+        // ln(1 - p), reused for every sample at this level
+        logMissChance = Math.log1p(-1.0 / probabilityWindow);
+
+        tickScheduler.schedule(commentTimer, sampleTicksUntilHit());
+    }
+
+    public void shutDown() {
+        tickScheduler.cancel(commentTimer);
+    }
+
+    private void onCommentDue() {
+        // Skipped rather than delayed when shedding, so the schedule below stays the same
+        if (governor.allowsComment()) makeRandomNpcSpeak(hookState.isWearingFunctionalHook());
+
+        // Dynamic Cooldown
+        // Level 80+: Disable safety cooldown to allow overlapping "mob" speech.
+        // Level <80: Keep safety buffer (50% of window) to pace comments out.
+        int cooldown = level >= 80 ? 0 : probabilityWindow / 2;
+        tickScheduler.schedule(commentTimer, cooldown + sampleTicksUntilHit());
+    }
+
+    /**
+     * Samples how many 1-in-{@code probabilityWindow} rolls it takes to get a hit,
+     * i.e. a geometric distribution. This has the same distribution as rolling once
+     * per tick, without having to roll on every tick.
+     */
+    private int sampleTicksUntilHit() {
+        if (probabilityWindow <= 1) return 1;
+
+        // 1 - nextDouble() is in (0, 1], so the log is always finite
+        double u = 1.0 - random.nextDouble();
+        return 1 + (int) (Math.log(u) / logMissChance);
     }
 
     public void makeRandomNpcSpeak(boolean isPiratesHookEquipped) {
@@ -138,30 +190,30 @@ public class AbleismGenerator {
         if (playerLoc == null) return;
 
         // 2. Use WorldView (replacing deprecated getNpcs)
-        // WorldView.npcs() returns an Iterable, so we wrap it in StreamSupport
-        List<NPC> candidates = StreamSupport.stream(client.getTopLevelWorldView().npcs().spliterator(), false)
-                .filter(npc -> {
-                    // Null Safety
-                    if (npc == null || npc.getName() == null) return false;
+        // Collected into a reused list, this runs on game ticks. Classifying is a byte cache lookup
+        // after the first sighting of each composition, so it stays here rather than on the lane.
+        for (NPC npc : client.getTopLevelWorldView().npcs()) {
+            // Null Safety
+            if (npc == null || npc.getName() == null) continue;
 
-                    // Distance Check (Reduced to 10)
-                    if (npc.getWorldLocation().distanceTo(playerLoc) > 10) return false;
+            // Distance Check (Reduced to 10)
+            if (npc.getWorldLocation().distanceTo(playerLoc) > 10) continue;
 
-                    // If their overhead cycle is in the future, they are busy.
-                    if (npc.getOverheadCycle() > 0) return false;
+            // If their overhead cycle is in the future, they are busy.
+            if (npc.getOverheadCycle() > 0) continue;
 
-                    // Logic Check (Is it a Human/Child?)
-                    return isHumanOrChild(npc);
-                })
-                .collect(Collectors.toList());
+            // Logic Check (Is it a Human/Child?)
+            if (classify(npc) != NOT_HUMAN) candidates.add(npc);
+        }
 
         if (candidates.isEmpty()) return;
 
         // 3. Pick a random target
         NPC speaker = candidates.get(random.nextInt(candidates.size()));
+        candidates.clear();
 
-        // 4. Determine Child vs Adult
-        boolean isChild = checkNameMatch(speaker, CHILD_KEYWORDS);
+        // 4. Determine Child vs Adult (cached by the filter above)
+        boolean isChild = classify(speaker) == CHILD;
 
         // 5. Select Dialogue based on Hook status
         String dialogue;
@@ -178,31 +230,55 @@ public class AbleismGenerator {
         // 6. Apply Text
         speaker.setOverheadText(dialogue);
         speaker.setOverheadCycle(150);
+        metrics.recordNpcComment();
+    }
+
+    /**
+     * Returns the cached classification for this NPC's composition, classifying it on first sight.
+     */
+    private byte classify(NPC npc) {
+        // Use the transformed composition, as that is what NPC.getName() reports
+        NPCComposition comp = npc.getTransformedComposition();
+        if (comp == null) return NOT_HUMAN;
+
+        int id = comp.getId();
+        if (id < 0) return classifyComposition(comp);
+
+        if (id >= classifications.length) {
+            classifications = Arrays.copyOf(classifications, Math.max(id + 1, classifications.length * 2));
+        }
+
+        byte cached = classifications[id];
+        if (cached == UNCLASSIFIED) {
+            cached = classifyComposition(comp);
+            classifications[id] = cached;
+        }
+        return cached;
     }
 
-    private boolean isHumanOrChild(NPC npc) {
-        NPCComposition comp = npc.getComposition();
-        if (comp == null || !comp.isInteractible()) return false;
+    // Package-private for the benchmarks
+    byte classifyComposition(NPCComposition comp) {
+        if (!comp.isInteractible() || comp.getName() == null) return NOT_HUMAN;
+
+        String name = comp.getName().toLowerCase();
 
-        // Check Child List
-        if (checkNameMatch(npc, CHILD_KEYWORDS)) return true;
+        // Check Child List first (High Priority)
+        if (checkNameMatch(name, CHILD_KEYWORDS)) return CHILD;
 
         // Check Adult List
-        if (checkNameMatch(npc, HUMAN_KEYWORDS)) return true;
+        if (checkNameMatch(name, HUMAN_KEYWORDS)) return ADULT;
 
-        return false;
+        return NOT_HUMAN;
     }
 
     /**
-     * Returns true if the NPC's name contains any of the keywords (Case-Insensitive).
+     * Returns true if the lower-cased name contains any of the keywords.
      */
-    private boolean checkNameMatch(NPC npc, Set<String> keywords) {
-        String name = npc.getName().toLowerCase();
-
-        // Quick "Monster" Safety Check (Optional but recommended)
+    private boolean checkNameMatch(String name, Set<String> keywords) {
+        // Quick "Monster" Safety Check
         // Prevents "Goblin Guard" from triggering as "Guard"
-        if (name.contains("goblin") || name.contains("zombie") || name.contains("gnome")) {
-            return false;
+        for (String monster : MONSTER_KEYWORDS) {
+            if (name.contains(monster)) return false;
         }
 
         for (String keyword : keywords) {
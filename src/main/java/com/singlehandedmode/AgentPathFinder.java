@@ -1,9 +1,6 @@
 package com.singlehandedmode;
 
-import java.util.ArrayDeque;
-import java.util.HashSet;
-import java.util.Queue;
-import java.util.Set;
+import java.util.Arrays;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 import net.runelite.api.Client;
@@ -16,16 +13,61 @@ import net.runelite.api.coords.WorldPoint;
 public class AgentPathFinder
 {
     private final Client client;
+    private final PluginProfiler profiler;
+    private final PluginMetrics metrics;
     private static final int MAX_DEPTH = 20;
+    private static final int SCENE_SIZE = 104;
+
+    // Cardinal Directions
+    private static final int[][] DIRECTIONS = {{0, 1}, {0, -1}, {-1, 0}, {1, 0}};
+
+    // Search state, reused between searches. Tiles are indexed x * SCENE_SIZE + y. A tile is visited
+    // when its stamp is the current search's generation, so nothing needs clearing between searches.
+    private final int[] queue = new int[SCENE_SIZE * SCENE_SIZE];
+    private final int[] parent = new int[SCENE_SIZE * SCENE_SIZE];
+    private final int[] depth = new int[SCENE_SIZE * SCENE_SIZE];
+    private final int[] visited = new int[SCENE_SIZE * SCENE_SIZE];
+    private int generation;
+
+    // Stats from the last search, for PathSearchEvent
+    private int nodesExpanded;
+    private int solutionDepth;
 
     @Inject
-    public AgentPathFinder(Client client)
+    public AgentPathFinder(Client client, PluginProfiler profiler, PluginMetrics metrics)
     {
         this.client = client;
+        this.profiler = profiler;
+        this.metrics = metrics;
     }
 
     public WorldPoint findNextStep(WorldPoint start, WorldPoint target)
     {
+        long startTime = profiler.start();
+        PathSearchEvent searchEvent = new PathSearchEvent();
+        searchEvent.begin();
+
+        WorldPoint step = search(start, target);
+
+        metrics.recordPathSearch(nodesExpanded);
+
+        searchEvent.end();
+        if (searchEvent.shouldCommit())
+        {
+            searchEvent.nodesExpanded = nodesExpanded;
+            searchEvent.depth = solutionDepth;
+            searchEvent.found = step != null;
+            searchEvent.commit();
+        }
+        profiler.stop(PluginProfiler.Section.FIND_NEXT_STEP, startTime);
+        return step;
+    }
+
+    private WorldPoint search(WorldPoint start, WorldPoint target)
+    {
+        nodesExpanded = 0;
+        solutionDepth = -1;
+
         CollisionData[] collisionMaps = client.getCollisionMaps();
         if (collisionMaps == null) return null;
 
@@ -41,48 +83,63 @@ public class AgentPathFinder
         int targetX = targetLp.getSceneX();
         int targetY = targetLp.getSceneY();
 
-        Queue<Node> queue = new ArrayDeque<>();
-        Set<Integer> visited = new HashSet<>();
+        if (++generation == 0)
+        {
+            // Wrapped around, stale stamps could match again
+            Arrays.fill(visited, 0);
+            generation = 1;
+        }
 
-        queue.add(new Node(startX, startY, null));
-        visited.add((startX << 16) | startY);
+        int head = 0;
+        int tail = 0;
+        int startTile = startX * SCENE_SIZE + startY;
+        queue[tail++] = startTile;
+        visited[startTile] = generation;
+        parent[startTile] = -1;
+        depth[startTile] = 0;
 
-        Node solution = null;
+        int solution = -1;
 
-        while (!queue.isEmpty())
+        while (head < tail)
         {
-            Node current = queue.poll();
+            int current = queue[head++];
+            int currentX = current / SCENE_SIZE;
+            int currentY = current % SCENE_SIZE;
+            ++nodesExpanded;
 
             // Success Conditions
-            if (current.x == targetX && current.y == targetY) { solution = current; break; }
-            if (Math.abs(current.x - targetX) <= 1 && Math.abs(current.y - targetY) <= 1) { solution = current; break; }
+            if (currentX == targetX && currentY == targetY) { solution = current; break; }
+            if (Math.abs(currentX - targetX) <= 1 && Math.abs(currentY - targetY) <= 1) { solution = current; break; }
 
-            if (getPathLength(current) >= MAX_DEPTH) continue;
+            if (depth[current] >= MAX_DEPTH) continue;
 
-            // Cardinal Directions
-            int[][] directions = {{0, 1}, {0, -1}, {-1, 0}, {1, 0}};
-            for (int[] dir : directions)
+            for (int[] dir : DIRECTIONS)
             {
-                int nextX = current.x + dir[0];
-                int nextY = current.y + dir[1];
+                int nextX = currentX + dir[0];
+                int nextY = currentY + dir[1];
 
-                if (nextX < 0 || nextY < 0 || nextX >= 104 || nextY >= 104) continue;
-                if (visited.contains((nextX << 16) | nextY)) continue;
+                if (nextX < 0 || nextY < 0 || nextX >= SCENE_SIZE || nextY >= SCENE_SIZE) continue;
+                int next = nextX * SCENE_SIZE + nextY;
+                if (visited[next] == generation) continue;
 
-                if (canMove(flags, current.x, current.y, dir[0], dir[1]))
+                if (canMove(flags, currentX, currentY, dir[0], dir[1]))
                 {
-                    visited.add((nextX << 16) | nextY);
-                    queue.add(new Node(nextX, nextY, current));
+                    visited[next] = generation;
+                    parent[next] = current;
+                    depth[next] = depth[current] + 1;
+                    queue[tail++] = next;
                 }
             }
         }
 
-        if (solution != null)
+        if (solution != -1)
         {
+            solutionDepth = depth[solution];
+
             // Backtrack to first step
-            Node step = solution;
-            while (step.parent != null && step.parent.parent != null) step = step.parent;
-            return WorldPoint.fromScene(client, step.x, step.y, plane);
+            int step = solution;
+            while (parent[step] != -1 && parent[parent[step]] != -1) step = parent[step];
+            return WorldPoint.fromScene(client, step / SCENE_SIZE, step % SCENE_SIZE, plane);
         }
         return null;
     }
@@ -113,7 +170,4 @@ public class AgentPathFinder
 
         return (nextFlag & CollisionDataFlag.BLOCK_MOVEMENT_FULL) == 0;
     }
-
-    private static class Node { int x, y; Node parent; Node(int x, int y, Node parent) { this.x = x; this.y = y; this.parent = parent; } }
-    private int getPathLength(Node node) { int count = 0; while (node.parent != null) { node = node.parent; count++; } return count; }
 }
\ No newline at end of file
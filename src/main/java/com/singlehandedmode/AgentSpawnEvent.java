@@ -0,0 +1,28 @@
+package com.singlehandedmode;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event for each insurance agent spawn, including loading and merging its model.
+ */
+@Name("com.singlehandedmode.AgentSpawn")
+@Label("Agent Spawn")
+@Category({"RuneLite", "Single-Handed Mode"})
+@Description("The insurance agent being spawned and its model loaded")
+@Enabled(false)
+@StackTrace(false)
+public class AgentSpawnEvent extends Event
+{
+    @Label("NPC ID")
+    int npcId;
+
+    @Label("Model Parts")
+    @Description("Number of model parts loaded and merged, or 0 if the model couldn't be loaded")
+    int modelParts;
+}
@@ -0,0 +1,160 @@
+package com.singlehandedmode;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import lombok.extern.slf4j.Slf4j;
+import net.runelite.client.callback.ClientThread;
+
+/**
+ * The plugin's own worker thread, for work that doesn't need the client, mostly writing files.
+ *
+ * Work is given immutable inputs captured on the client thread (copies of state) and its result comes back
+ * through {@link ClientThread#invokeLater}, so the client thread only applies results. A result is dropped
+ * there if a newer request was made on the same {@link Slot}, if it is more than the slot's max age in ticks
+ * old, or if the plugin was shut down since it was requested.
+ *
+ * Tasks run one at a time in submission order, so state only the lane touches needs no locking.
+ * The thread exits after a while idle and is started again by the next task.
+ */
+@Slf4j
+@Singleton
+public class BackgroundLane
+{
+    private static final long IDLE_SECONDS = 30;
+
+    // How long shutting down waits for queued writes, so a stuck disk can't hang the client
+    private static final long FLUSH_SECONDS = 5;
+
+    private final ClientThread clientThread;
+    private final TickScheduler tickScheduler;
+    private final Executor executor;
+
+    // Bumped on shut down, so results requested before it are dropped. Client thread only.
+    private int generation;
+
+    /**
+     * Somewhere to deliver results of one kind of request. Only the latest request's result is applied.
+     */
+    public static final class Slot<T>
+    {
+        private final int maxAgeTicks;
+        private final Consumer<T> apply;
+        private int sequence;
+
+        /**
+         * @param maxAgeTicks ticks after the request that its result is still applied
+         * @param apply       runs on the client thread with a result that isn't stale, which may be null
+         */
+        public Slot(int maxAgeTicks, Consumer<T> apply)
+        {
+            this.maxAgeTicks = maxAgeTicks;
+            this.apply = apply;
+        }
+    }
+
+    @Inject
+    public BackgroundLane(ClientThread clientThread, TickScheduler tickScheduler)
+    {
+        this(clientThread, tickScheduler, newExecutor());
+    }
+
+    // Package-private so headless runs can run work inline
+    BackgroundLane(ClientThread clientThread, TickScheduler tickScheduler, Executor executor)
+    {
+        this.clientThread = clientThread;
+        this.tickScheduler = tickScheduler;
+        this.executor = executor;
+    }
+
+    private static Executor newExecutor()
+    {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, IDLE_SECONDS, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), r ->
+        {
+            Thread thread = new Thread(r, "single-handed-mode-lane");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * Runs the work on the lane and applies its result through the slot. Call from the client thread.
+     */
+    public <T> void submit(Slot<T> slot, Supplier<T> work)
+    {
+        int sequence = ++slot.sequence;
+        int requestGeneration = generation;
+        long requestTick = tickScheduler.getCurrentTick();
+
+        execute(() ->
+        {
+            T result = work.get();
+            clientThread.invokeLater(() -> deliver(slot, sequence, requestGeneration, requestTick, result));
+        });
+    }
+
+    /**
+     * Runs the task on the lane, after everything submitted before it.
+     */
+    public void execute(Runnable task)
+    {
+        executor.execute(() ->
+        {
+            try
+            {
+                task.run();
+            }
+            catch (RuntimeException e)
+            {
+                log.warn("Background task failed", e);
+            }
+        });
+    }
+
+    /**
+     * Drops the results of everything requested so far. Queued tasks still run, so pending writes finish.
+     * Call from the client thread.
+     */
+    public void shutDown()
+    {
+        ++generation;
+    }
+
+    /**
+     * Waits for everything queued so far to run, so writes are on disk when the plugin stops. Never call
+     * from the lane or the client thread.
+     */
+    public void flush()
+    {
+        CountDownLatch done = new CountDownLatch(1);
+        executor.execute(done::countDown);
+        try
+        {
+            if (!done.await(FLUSH_SECONDS, TimeUnit.SECONDS)) log.warn("Gave up waiting for background writes");
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private <T> void deliver(Slot<T> slot, int sequence, int requestGeneration, long requestTick, T result)
+    {
+        // Superseded, the newer request's result is still to come
+        if (sequence != slot.sequence) return;
+
+        if (requestGeneration != generation) return;
+        if (tickScheduler.getCurrentTick() - requestTick > slot.maxAgeTicks) return;
+
+        slot.apply.accept(result);
+    }
+}
@@ -0,0 +1,306 @@
+package com.singlehandedmode;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import lombok.extern.slf4j.Slf4j;
+import net.runelite.client.RuneLite;
+
+/**
+ * Counts how often each (rule, ID) pair blocks a click, in fixed memory however many distinct IDs are seen.
+ *
+ * A count-min sketch estimates the count of any key (never under, occasionally over), and a small
+ * heavy-hitters table keeps the {@link #TOP_K} keys with the highest estimates. Keys pack the rule,
+ * what kind of thing was clicked and its ID: an item ID, an NPC's definition ID (not its index, which
+ * changes every spawn) or an object ID.
+ *
+ * Persisted between sessions in the RuneLite directory. Only use from the client thread.
+ */
+@Slf4j
+@Singleton
+public class BlockedActionSketch
+{
+    public static final int TOP_K = 16;
+
+    // What a key's ID refers to
+    public static final int ITEM = 0;
+    public static final int OBJECT = 1;
+    public static final int NPC = 2;
+    private static final int KINDS = 3;
+
+    private static final int DEPTH = 4;
+    private static final int WIDTH_BITS = 10;
+    private static final int WIDTH = 1 << WIDTH_BITS;
+
+    // Odd multipliers giving each row an independent hash
+    private static final long[] ROW_SEEDS = {
+            0x9E3779B97F4A7C15L, 0xC2B2AE3D27D4EB4FL, 0x165667B19E3779F9L, 0xD6E8FEB86659FD93L
+    };
+
+    private static final int MAGIC = 0x53484D42; // "SHMB"
+    // Version 1 keyed NPCs by index, those keys can't be carried over
+    private static final byte VERSION = 2;
+    private static final File SKETCH_DIR = new File(RuneLite.RUNELITE_DIR, "single-handed-mode");
+    private static final String SKETCH_NAME = "blocked.sketch";
+
+    private final BackgroundLane lane;
+
+    private final int[] counters = new int[DEPTH * WIDTH];
+
+    // Heavy hitters, unordered
+    private final long[] topKeys = new long[TOP_K];
+    private final int[] topCounts = new int[TOP_K];
+    private int topSize;
+
+    // Bumped whenever the heavy hitters change, so their labels are only built again then
+    private int version;
+
+    private boolean isDirty;
+
+    @Inject
+    public BlockedActionSketch(BackgroundLane lane)
+    {
+        this.lane = lane;
+    }
+
+    public static long key(RestrictionRule rule, int kind, int id)
+    {
+        return ((long) rule.ordinal() << 34) | ((long) kind << 32) | (id & 0xFFFFFFFFL);
+    }
+
+    public static RestrictionRule ruleOf(long key)
+    {
+        return RestrictionRule.values()[(int) (key >>> 34)];
+    }
+
+    public static int kindOf(long key)
+    {
+        return (int) (key >>> 32) & 0x3;
+    }
+
+    public static int idOf(long key)
+    {
+        return (int) key;
+    }
+
+    public void add(RestrictionRule rule, int kind, int id)
+    {
+        long key = key(rule, kind, id);
+
+        // 1. Conservative update: only raise the counters that are at the current minimum,
+        // which keeps the over-estimates from collisions down
+        int estimate = estimate(key) + 1;
+        for (int row = 0; row < DEPTH; ++row)
+        {
+            int index = index(row, key);
+            if (counters[index] < estimate) counters[index] = estimate;
+        }
+
+        // 2. Track it as a heavy hitter if it's already one, there's room, or it beats the smallest
+        int smallest = -1;
+        for (int i = 0; i < topSize; ++i)
+        {
+            if (topKeys[i] == key)
+            {
+                topCounts[i] = estimate;
+                ++version;
+                isDirty = true;
+                return;
+            }
+            if (smallest < 0 || topCounts[i] < topCounts[smallest]) smallest = i;
+        }
+
+        if (topSize < TOP_K)
+        {
+            topKeys[topSize] = key;
+            topCounts[topSize] = estimate;
+            ++topSize;
+            ++version;
+        }
+        else if (estimate > topCounts[smallest])
+        {
+            topKeys[smallest] = key;
+            topCounts[smallest] = estimate;
+            ++version;
+        }
+        isDirty = true;
+    }
+
+    public int estimate(long key)
+    {
+        int min = Integer.MAX_VALUE;
+        for (int row = 0; row < DEPTH; ++row)
+        {
+            min = Math.min(min, counters[index(row, key)]);
+        }
+        return min;
+    }
+
+    /**
+     * Changes whenever the heavy hitters or their counts do.
+     */
+    public int getVersion()
+    {
+        return version;
+    }
+
+    /**
+     * Copies the heavy hitters into the arrays, highest count first. Returns how many were copied.
+     */
+    public int copyTop(long[] keys, int[] counts)
+    {
+        int n = Math.min(topSize, Math.min(keys.length, counts.length));
+        System.arraycopy(topKeys, 0, keys, 0, n);
+        System.arraycopy(topCounts, 0, counts, 0, n);
+
+        // Insertion sort, n is tiny
+        for (int i = 1; i < n; ++i)
+        {
+            long key = keys[i];
+            int count = counts[i];
+            int j = i - 1;
+            while (j >= 0 && counts[j] < count)
+            {
+                keys[j + 1] = keys[j];
+                counts[j + 1] = counts[j];
+                --j;
+            }
+            keys[j + 1] = key;
+            counts[j + 1] = count;
+        }
+        return n;
+    }
+
+    // --- Persistence ---
+
+    /**
+     * Loads the saved sketch synchronously, if there is one. A file that doesn't check out is
+     * ignored as a whole, the sketch then starts empty.
+     */
+    public void load()
+    {
+        Path path = sketchPath();
+        if (!Files.exists(path)) return;
+
+        // Read everything before replacing the sketch, so a bad file can't leave it half loaded
+        int[] loadedCounters = new int[counters.length];
+        long[] loadedKeys = new long[TOP_K];
+        int[] loadedCounts = new int[TOP_K];
+        int loadedSize;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path))))
+        {
+            if (in.readInt() != MAGIC || in.readByte() != VERSION
+                    || in.readInt() != DEPTH || in.readInt() != WIDTH)
+            {
+                log.warn("Ignoring blocked action sketch with an unknown format");
+                return;
+            }
+
+            for (int i = 0; i < loadedCounters.length; ++i)
+            {
+                loadedCounters[i] = in.readInt();
+            }
+
+            loadedSize = in.readInt();
+            if (loadedSize < 0 || loadedSize > TOP_K)
+            {
+                log.warn("Ignoring blocked action sketch with {} heavy hitters", loadedSize);
+                return;
+            }
+            for (int i = 0; i < loadedSize; ++i)
+            {
+                loadedKeys[i] = in.readLong();
+                loadedCounts[i] = in.readInt();
+                if (!isValidKey(loadedKeys[i]))
+                {
+                    log.warn("Ignoring blocked action sketch with an unknown rule or kind in key {}", loadedKeys[i]);
+                    return;
+                }
+            }
+        }
+        catch (IOException e)
+        {
+            log.warn("Unable to read blocked action sketch", e);
+            return;
+        }
+
+        System.arraycopy(loadedCounters, 0, counters, 0, counters.length);
+        System.arraycopy(loadedKeys, 0, topKeys, 0, TOP_K);
+        System.arraycopy(loadedCounts, 0, topCounts, 0, TOP_K);
+        topSize = loadedSize;
+        ++version;
+    }
+
+    /**
+     * Writes the sketch in the background if anything changed since the last save.
+     */
+    public void save()
+    {
+        if (!isDirty) return;
+        isDirty = false;
+
+        int[] counterCopy = counters.clone();
+        long[] keyCopy = topKeys.clone();
+        int[] countCopy = topCounts.clone();
+        int size = topSize;
+
+        lane.execute(() ->
+        {
+            Path path = sketchPath();
+            Path tmp = path.resolveSibling(SKETCH_NAME + ".tmp");
+            try
+            {
+                Files.createDirectories(SKETCH_DIR.toPath());
+                try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp))))
+                {
+                    out.writeInt(MAGIC);
+                    out.writeByte(VERSION);
+                    out.writeInt(DEPTH);
+                    out.writeInt(WIDTH);
+                    for (int counter : counterCopy)
+                    {
+                        out.writeInt(counter);
+                    }
+
+                    out.writeInt(size);
+                    for (int i = 0; i < size; ++i)
+                    {
+                        out.writeLong(keyCopy[i]);
+                        out.writeInt(countCopy[i]);
+                    }
+                }
+                Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            }
+            catch (IOException e)
+            {
+                log.warn("Unable to save blocked action sketch", e);
+            }
+        });
+    }
+
+    private static boolean isValidKey(long key)
+    {
+        long rule = key >>> 34;
+        return rule < RestrictionRule.values().length && kindOf(key) < KINDS;
+    }
+
+    private static int index(int row, long key)
+    {
+        // Multiply-shift hashing, the top bits of the product are the best mixed
+        long h = (key ^ (key >>> 29)) * ROW_SEEDS[row];
+        return row * WIDTH + (int) (h >>> (64 - WIDTH_BITS));
+    }
+
+    private static Path sketchPath()
+    {
+        return new File(SKETCH_DIR, SKETCH_NAME).toPath();
+    }
+}
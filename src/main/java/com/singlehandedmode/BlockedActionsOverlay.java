@@ -0,0 +1,98 @@
+package com.singlehandedmode;
+
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Graphics2D;
+import javax.inject.Inject;
+import net.runelite.api.Client;
+import net.runelite.client.ui.overlay.Overlay;
+import net.runelite.client.ui.overlay.OverlayPosition;
+import net.runelite.client.ui.overlay.components.LineComponent;
+import net.runelite.client.ui.overlay.components.PanelComponent;
+import net.runelite.client.ui.overlay.components.TitleComponent;
+
+/**
+ * Ranked table of the most often blocked actions, from {@link BlockedActionSketch}.
+ * Only registered while enabled in config.
+ */
+public class BlockedActionsOverlay extends Overlay
+{
+    private final Client client;
+    private final BlockedActionSketch sketch;
+    private final PanelComponent panelComponent = new PanelComponent();
+
+    // Reused for each copy of the heavy hitters
+    private final long[] keys = new long[BlockedActionSketch.TOP_K];
+    private final int[] counts = new int[BlockedActionSketch.TOP_K];
+
+    // Sketch version the panel's rows were built for. The rows look up definitions, so they're only
+    // built again when the table changes, not every frame.
+    private int builtVersion = -1;
+
+    @Inject
+    public BlockedActionsOverlay(Client client, BlockedActionSketch sketch)
+    {
+        this.client = client;
+        this.sketch = sketch;
+
+        setPosition(OverlayPosition.TOP_RIGHT);
+        panelComponent.setPreferredSize(new Dimension(260, 0));
+    }
+
+    @Override
+    public Dimension render(Graphics2D graphics)
+    {
+        if (sketch.getVersion() != builtVersion) buildRows();
+        return panelComponent.render(graphics);
+    }
+
+    private void buildRows()
+    {
+        builtVersion = sketch.getVersion();
+        panelComponent.getChildren().clear();
+
+        // --- TITLE ---
+        panelComponent.getChildren().add(TitleComponent.builder()
+                .text("Most Blocked Actions")
+                .color(Color.ORANGE)
+                .build());
+
+        // --- RANKING ---
+        int n = sketch.copyTop(keys, counts);
+        if (n == 0)
+        {
+            panelComponent.getChildren().add(LineComponent.builder()
+                    .left("Nothing blocked yet.")
+                    .build());
+        }
+
+        for (int i = 0; i < n; ++i)
+        {
+            panelComponent.getChildren().add(LineComponent.builder()
+                    .left((i + 1) + ". " + describe(keys[i]))
+                    .right(Integer.toString(counts[i]))
+                    .build());
+        }
+    }
+
+    private String describe(long key)
+    {
+        RestrictionRule rule = BlockedActionSketch.ruleOf(key);
+        int id = BlockedActionSketch.idOf(key);
+
+        String target;
+        switch (BlockedActionSketch.kindOf(key))
+        {
+            case BlockedActionSketch.ITEM:
+                target = client.getItemDefinition(id).getName();
+                break;
+            case BlockedActionSketch.NPC:
+                target = client.getNpcDefinition(id).getName();
+                break;
+            default:
+                target = client.getObjectDefinition(id).getName();
+                break;
+        }
+        return rule.getDisplayName() + ": " + target;
+    }
+}
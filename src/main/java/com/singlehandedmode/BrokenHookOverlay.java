@@ -12,21 +12,21 @@ import net.runelite.client.util.ImageUtil;
 public class BrokenHookOverlay extends WidgetItemOverlay
 {
     private final DurabilityManager durabilityManager;
-    private final BufferedImage brokenHookImage;
+    private final PluginProfiler profiler;
+    // Loaded the first time a broken hook is drawn
+    private BufferedImage brokenHookImage;
 
     // Defines which Item IDs trigger the overlay
     private static final int PIRATE_HOOK_ID = ItemID.PIRATEHOOK;
     // If you are using the Brimhaven cosmetic override or another variant, add that ID too.
 
     @Inject
-    public BrokenHookOverlay(DurabilityManager durabilityManager)
+    public BrokenHookOverlay(DurabilityManager durabilityManager, PluginProfiler profiler)
     {
         this.durabilityManager = durabilityManager;
+        this.profiler = profiler;
 
-        // 1. Load the custom image from resources
-        this.brokenHookImage = ImageUtil.loadImageResource(getClass(), "/broken_pirates_hook_32x32.png");
-
-        // 2. Tell RuneLite where to draw this
+        // Tell RuneLite where to draw this
         showOnInventory();
         showOnBank();
         showOnEquipment(); // Draws over the equipment slot if you have the stats tab open
@@ -34,6 +34,13 @@ public class BrokenHookOverlay extends WidgetItemOverlay
 
     @Override
     public void renderItemOverlay(Graphics2D graphics, int itemId, WidgetItem widgetItem)
+    {
+        long start = profiler.start();
+        drawBrokenHook(graphics, itemId, widgetItem);
+        profiler.stop(PluginProfiler.Section.BROKEN_HOOK_OVERLAY, start);
+    }
+
+    private void drawBrokenHook(Graphics2D graphics, int itemId, WidgetItem widgetItem)
     {
         // 1. Check if this is the hook
         if (itemId != PIRATE_HOOK_ID) return;
@@ -41,7 +48,13 @@ public class BrokenHookOverlay extends WidgetItemOverlay
         // 2. Check if it is actually broken
         if (!durabilityManager.isHookBroken()) return;
 
-        // 3. Draw the custom icon
+        // 3. Load the custom image from resources
+        if (brokenHookImage == null)
+        {
+            brokenHookImage = ImageUtil.loadImageResource(getClass(), "/broken_pirates_hook_32x32.png");
+        }
+
+        // 4. Draw the custom icon
         Rectangle bounds = widgetItem.getCanvasBounds();
 
         // Note: The original icon is still drawn *underneath*.
@@ -4,61 +4,100 @@ import javax.inject.Inject;
 import javax.inject.Singleton;
 import java.awt.Color;
 import net.runelite.api.ChatMessageType;
-import net.runelite.api.Client;
 import net.runelite.api.MenuEntry;
 import net.runelite.api.events.ChatMessage;
+import net.runelite.api.events.GameTick;
 import net.runelite.api.events.MenuEntryAdded;
 import net.runelite.client.eventbus.Subscribe;
 import net.runelite.client.util.ColorUtil;
-import net.runelite.client.util.Text;
 
+/**
+ * Rewrites the hook's menu targets and examine text to show its state.
+ *
+ * The rules live in a {@link TextRewriter} and are rebuilt when the state they show changes, which is
+ * checked once a tick. The event handlers only look them up. The plugin only subscribes
+ * {@link #onMenuEntryAdded} while the hook is broken, the only time there's a target to rewrite.
+ */
 @Singleton
 public class BrokenHookTextOverride
 {
+    // The default examine text for the hook
+    private static final String HOOK_EXAMINE = "You should see the shark...";
+    private static final String BROKEN_EXAMINE = "More broken than a pre-rebalance blowpipe.";
+    private static final String BROKEN_SUFFIX = ColorUtil.wrapWithColorTag(" (Broken)", Color.RED);
+
     @Inject
     private DurabilityManager durabilityManager;
 
+    @Inject
+    private SingleHandedModeConfig config;
+
+    @Inject
+    private PluginProfiler profiler;
+
+    private final TextRewriter rewriter = new TextRewriter();
+
+    // State the rules were last built for
+    private boolean isBuilt;
+    private boolean builtBroken;
+    private int builtPercent;
+
     @Subscribe
-    public void onMenuEntryAdded(MenuEntryAdded event)
+    public void onGameTick(GameTick event)
     {
-        // 1. Quick Exit: Only override if broken
-        if (!durabilityManager.isHookBroken())
-        {
-            return;
-        }
+        boolean isBroken = durabilityManager.isHookBroken();
+        int percent = isBroken ? 0 : durabilityPercent();
+        if (isBuilt && isBroken == builtBroken && percent == builtPercent) return;
 
-        // 2. Check Target: Is this the hook?
-        // use removeTags to ignore existing color codes
-        String target = Text.removeTags(event.getTarget());
+        isBuilt = true;
+        builtBroken = isBroken;
+        builtPercent = percent;
 
-        if (target != null && target.equals("Pirate's hook"))
-        {
-            MenuEntry entry = event.getMenuEntry();
+        // 1. Menu targets, wherever the hook shows up
+        rewriter.setTargetSuffix(HookStateManager.PIRATE_HOOK_ID, isBroken ? BROKEN_SUFFIX : null);
 
-            // 3. Override: Append red "(Broken)" text
-            String brokenSuffix = ColorUtil.wrapWithColorTag(" (Broken)", Color.RED);
-            entry.setTarget(event.getTarget() + brokenSuffix);
-        }
+        // 2. Examine text
+        rewriter.setMessage(ChatMessageType.ITEM_EXAMINE, HOOK_EXAMINE,
+                isBroken ? BROKEN_EXAMINE : HOOK_EXAMINE + " (" + percent + "% durability)");
+    }
+
+    public void onMenuEntryAdded(MenuEntryAdded event)
+    {
+        long start = profiler.start();
+        MenuEntry entry = event.getMenuEntry();
+        String target = rewriter.rewriteTarget(itemId(entry), event.getTarget());
+        if (target != null) entry.setTarget(target);
+        profiler.stop(PluginProfiler.Section.BROKEN_HOOK_MENU_ENTRY, start);
     }
 
     @Subscribe
     public void onChatMessage(ChatMessage event)
     {
-        // Only override Examine text
-        if (event.getType() != ChatMessageType.ITEM_EXAMINE)
-        {
-            return;
-        }
+        String message = rewriter.rewriteMessage(event.getType(), event.getMessage());
+        if (message != null) event.getMessageNode().setValue(message);
+    }
 
-        if (durabilityManager.isHookBroken())
-        {
-            String message = Text.removeTags(event.getMessage());
+    private int durabilityPercent()
+    {
+        int durabilityTicks = config.hookDurabilityTicks();
+        if (durabilityTicks <= 0) return 0;
+        return (int) ((long) durabilityManager.getCurrentDurability() * 100 / durabilityTicks);
+    }
 
-            // The default examine text for the hook is "You should see the shark..."
-            if (message.contains("You should see the shark..."))
-            {
-                event.getMessageNode().setValue("More broken than a pre-rebalance blowpipe.");
-            }
+    private static int itemId(MenuEntry entry)
+    {
+        // Ground items have no item ID, their identifier is the item
+        switch (entry.getType())
+        {
+            case GROUND_ITEM_FIRST_OPTION:
+            case GROUND_ITEM_SECOND_OPTION:
+            case GROUND_ITEM_THIRD_OPTION:
+            case GROUND_ITEM_FOURTH_OPTION:
+            case GROUND_ITEM_FIFTH_OPTION:
+            case EXAMINE_ITEM_GROUND:
+                return entry.getIdentifier();
+            default:
+                return entry.getItemId();
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,119 @@
+package com.singlehandedmode;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import lombok.Getter;
+import net.runelite.api.Client;
+import net.runelite.api.events.MenuOptionClicked;
+import net.runelite.client.util.Text;
+
+/**
+ * Opt-in trace of how each menu click was decided, kept in a preallocated ring of records.
+ *
+ * Callers check {@link #isEnabled()} before {@link #record}, so while tracing is off a click
+ * costs that one branch. Only use from the client thread.
+ */
+@Singleton
+public class DecisionTrace
+{
+    public static final int CAPACITY = 64;
+
+    public enum Outcome { ALLOWED, BLOCKED, CONSUMED_ELSEWHERE }
+
+    /**
+     * One traced click. Records are reused as the ring wraps, so don't hold on to them.
+     */
+    @Getter
+    public static final class Record
+    {
+        private long time;
+        private int tick;
+        private String option;
+        private String target;
+        private int itemId;
+        private boolean hookEquipped;
+        private boolean hookBroken;
+        private boolean hookJustEquipped;
+        private Outcome outcome;
+        private RestrictionRule rule;
+        private String configKey;
+    }
+
+    private final Client client;
+    private final HookStateManager hookState;
+    private final DurabilityManager durabilityManager;
+
+    private final Record[] records = new Record[CAPACITY];
+    private int head;
+    private int size;
+
+    @Getter
+    private boolean enabled;
+
+    @Inject
+    public DecisionTrace(Client client, HookStateManager hookState, DurabilityManager durabilityManager)
+    {
+        this.client = client;
+        this.hookState = hookState;
+        this.durabilityManager = durabilityManager;
+
+        for (int i = 0; i < CAPACITY; ++i)
+        {
+            records[i] = new Record();
+        }
+    }
+
+    /**
+     * Starts or stops tracing. Stopping clears the trace.
+     */
+    public void setEnabled(boolean enabled)
+    {
+        this.enabled = enabled;
+        if (!enabled)
+        {
+            head = 0;
+            size = 0;
+        }
+    }
+
+    /**
+     * Records a click after the restriction checks have run.
+     *
+     * @param rule the rule that blocked it, or null
+     * @param consumedBefore whether another handler had already consumed the click before the checks
+     */
+    public void record(MenuOptionClicked event, RestrictionRule rule, boolean consumedBefore)
+    {
+        Record record = records[head];
+        head = (head + 1) % CAPACITY;
+        if (size < CAPACITY) ++size;
+
+        record.time = System.currentTimeMillis();
+        record.tick = client.getTickCount();
+        record.option = Text.removeTags(event.getMenuOption()).toLowerCase();
+        record.target = Text.removeTags(event.getMenuTarget()).toLowerCase();
+        record.itemId = event.getItemId();
+        record.hookEquipped = hookState.isPiratesHookEquipped();
+        record.hookBroken = durabilityManager.isHookBroken();
+        record.hookJustEquipped = hookState.wasHookJustEquipped();
+        record.rule = rule;
+        record.configKey = rule != null ? rule.getConfigKey() : null;
+
+        if (rule != null) record.outcome = Outcome.BLOCKED;
+        else if (consumedBefore || event.isConsumed()) record.outcome = Outcome.CONSUMED_ELSEWHERE;
+        else record.outcome = Outcome.ALLOWED;
+    }
+
+    public int size()
+    {
+        return size;
+    }
+
+    /**
+     * Returns a recent record, 0 being the newest.
+     */
+    public Record get(int age)
+    {
+        return records[(head - 1 - age + CAPACITY) % CAPACITY];
+    }
+}
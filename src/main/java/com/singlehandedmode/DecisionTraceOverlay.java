@@ -0,0 +1,92 @@
+package com.singlehandedmode;
+
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Graphics2D;
+import javax.inject.Inject;
+import net.runelite.client.ui.overlay.Overlay;
+import net.runelite.client.ui.overlay.OverlayPosition;
+import net.runelite.client.ui.overlay.components.LineComponent;
+import net.runelite.client.ui.overlay.components.PanelComponent;
+import net.runelite.client.ui.overlay.components.TitleComponent;
+
+/**
+ * Shows the most recent clicks from {@link DecisionTrace} and why each was allowed or blocked.
+ * Only registered while tracing is enabled.
+ */
+public class DecisionTraceOverlay extends Overlay
+{
+    private static final int SHOWN_RECORDS = 8;
+
+    private final DecisionTrace trace;
+    private final PanelComponent panelComponent = new PanelComponent();
+
+    @Inject
+    public DecisionTraceOverlay(DecisionTrace trace)
+    {
+        this.trace = trace;
+
+        setPosition(OverlayPosition.TOP_RIGHT);
+        panelComponent.setPreferredSize(new Dimension(320, 0));
+    }
+
+    @Override
+    public Dimension render(Graphics2D graphics)
+    {
+        panelComponent.getChildren().clear();
+
+        // --- TITLE ---
+        panelComponent.getChildren().add(TitleComponent.builder()
+                .text("Restriction Trace")
+                .color(Color.ORANGE)
+                .build());
+
+        if (trace.size() == 0)
+        {
+            panelComponent.getChildren().add(LineComponent.builder()
+                    .left("Click something to trace it.")
+                    .build());
+        }
+
+        // --- RECORDS (Newest First) ---
+        int shown = Math.min(SHOWN_RECORDS, trace.size());
+        for (int age = 0; age < shown; ++age)
+        {
+            DecisionTrace.Record record = trace.get(age);
+
+            panelComponent.getChildren().add(LineComponent.builder()
+                    .left("[" + record.getTick() + "] " + record.getOption() + " " + record.getTarget())
+                    .right(record.getOutcome().name())
+                    .rightColor(outcomeColor(record.getOutcome()))
+                    .build());
+
+            String hook = record.isHookBroken() ? "broken"
+                    : record.isHookEquipped() ? "worn"
+                    : record.isHookJustEquipped() ? "equipping" : "off";
+            String reason = record.getRule() == null ? "" : record.getRule().getDisplayName()
+                    + (record.getConfigKey() == null ? " (always on)" : " (" + record.getConfigKey() + ")");
+
+            panelComponent.getChildren().add(LineComponent.builder()
+                    .left("  item " + record.getItemId() + ", hook " + hook)
+                    .right(reason)
+                    .leftColor(Color.LIGHT_GRAY)
+                    .rightColor(Color.LIGHT_GRAY)
+                    .build());
+        }
+
+        return panelComponent.render(graphics);
+    }
+
+    private static Color outcomeColor(DecisionTrace.Outcome outcome)
+    {
+        switch (outcome)
+        {
+            case BLOCKED:
+                return Color.RED;
+            case CONSUMED_ELSEWHERE:
+                return Color.YELLOW;
+            default:
+                return Color.GREEN;
+        }
+    }
+}
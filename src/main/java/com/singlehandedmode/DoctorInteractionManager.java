@@ -1,12 +1,16 @@
 package com.singlehandedmode;
 
 import javax.inject.Inject;
+import javax.inject.Provider;
 import net.runelite.api.Client;
 import net.runelite.api.events.MenuEntryAdded;
 import net.runelite.api.events.MenuOptionClicked;
 import net.runelite.client.util.Text;
 import net.runelite.client.eventbus.Subscribe;
 
+/**
+ * Offers a new hook at the doctor. Only subscribed while the hook is broken and the repair paid for.
+ */
 public class DoctorInteractionManager
 {
     @Inject
@@ -15,11 +19,21 @@ public class DoctorInteractionManager
     private DurabilityManager durabilityManager;
     @Inject
     private SingleHandedModeConfig config;
+    // Only built if a dialogue is shown
     @Inject
-    private FakeDialogueManager dialogueManager;
+    private Provider<FakeDialogueManager> dialogueManager;
+    @Inject
+    private PluginProfiler profiler;
 
     @Subscribe
     public void onMenuEntryAdded(MenuEntryAdded event)
+    {
+        long start = profiler.start();
+        offerProsthetic(event);
+        profiler.stop(PluginProfiler.Section.DOCTOR_MENU_ENTRY, start);
+    }
+
+    private void offerProsthetic(MenuEntryAdded event)
     {
         if (!durabilityManager.isHookBroken() || durabilityManager.hasUnpaidDebt()) return;
 
@@ -84,7 +98,7 @@ public class DoctorInteractionManager
 //                    " hours. Try not to break it again, okay?";
 //
 //            // 3. Trigger the Cinematic Dialogue
-//            dialogueManager.openNpcDialogue(doctorId, "Surgeon General Tafani ", text, () ->
+//            dialogueManager.get().openNpcDialogue(doctorId, "Surgeon General Tafani ", text, () ->
 //            {
 //                // This runs when the user clicks "Continue"
 //                client.getLocalPlayer().setAnimation(862); // Cheer
@@ -0,0 +1,531 @@
+package com.singlehandedmode;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import lombok.extern.slf4j.Slf4j;
+import net.runelite.api.ChatMessageType;
+import net.runelite.api.Client;
+import net.runelite.client.RuneLite;
+import net.runelite.client.callback.ClientThread;
+
+/**
+ * Bounded history of hook wear, debt, blocked clicks and payments.
+ *
+ * Samples are taken every {@link #SAMPLE_TICKS} ticks into the first tier. Every tier is a fixed-size
+ * ring of primitive arrays, and each coarser tier is fed by averaging (wear, debt) or taking the last
+ * value (running totals) of a block of samples from the tier below. The oldest samples are overwritten,
+ * so memory stays constant however long the session runs:
+ *
+ * <pre>
+ *   Tier 0:  6 second samples, last 2 hours
+ *   Tier 1:  1 minute samples, last 2 days
+ *   Tier 2:  1 hour samples,   last 90 days
+ * </pre>
+ *
+ * Exports are copied on the client thread and written on the background lane. The rings are saved the
+ * same way on logout and shutdown, and loaded back on the first startup, so history spans sessions.
+ * Blocked clicks are only counted per session, so the total at the last save is kept with the rings
+ * and the session's count added to it.
+ */
+@Slf4j
+@Singleton
+public class DurabilityHistory
+{
+    public static final int SAMPLE_TICKS = 10;
+
+    // Columns of each sample
+    private static final int WEAR = 0;
+    private static final int DEBT = 1;
+    private static final int BLOCKED_CLICKS = 2;
+    private static final int LIFETIME_PAID = 3;
+    private static final int CHANNELS = 4;
+
+    // Running totals are downsampled by taking the last value, the rest are averaged
+    private static final boolean[] IS_RUNNING_TOTAL = {false, false, true, true};
+    private static final String CSV_HEADER = "tier,time_ms,wear_ticks,debt_gp,blocked_clicks,lifetime_paid_gp";
+
+    private static final int BINARY_MAGIC = 0x53484D48; // "SHMH"
+    private static final byte BINARY_VERSION = 1;
+
+    private static final int STATE_MAGIC = 0x53484D54; // "SHMT"
+    private static final byte STATE_VERSION = 2;
+    private static final String STATE_NAME = "history.state";
+
+    private static final File EXPORT_DIR = new File(RuneLite.RUNELITE_DIR, "single-handed-mode");
+
+    private final Client client;
+    private final ClientThread clientThread;
+    private final BackgroundLane lane;
+    private final TickScheduler tickScheduler;
+    private final DurabilityManager durabilityManager;
+    private final PluginMetrics metrics;
+
+    private final Tier[] tiers = {
+            new Tier(SAMPLE_TICKS, 1, 1200),
+            new Tier(SAMPLE_TICKS * 10, 10, 2880),
+            new Tier(SAMPLE_TICKS * 600, 60, 2160),
+    };
+
+    private final TickScheduler.Timer sampleTimer = new TickScheduler.Timer(this::onSampleDue);
+    private final long[] sample = new long[CHANNELS];
+
+    private boolean isLoaded;
+
+    // Blocked clicks before this session, see getBlockedClicks()
+    private long blockedClicksBase;
+
+    @Inject
+    public DurabilityHistory(Client client, ClientThread clientThread, BackgroundLane lane,
+                             TickScheduler tickScheduler, DurabilityManager durabilityManager, PluginMetrics metrics)
+    {
+        this.client = client;
+        this.clientThread = clientThread;
+        this.lane = lane;
+        this.tickScheduler = tickScheduler;
+        this.durabilityManager = durabilityManager;
+        this.metrics = metrics;
+    }
+
+    /**
+     * Reads the saved rings synchronously, the first time. After that the rings in memory are newer than the file.
+     */
+    public void load()
+    {
+        if (isLoaded) return;
+        isLoaded = true;
+        read();
+    }
+
+    /**
+     * Starts sampling. Call from the client thread.
+     */
+    public void startUp()
+    {
+        tickScheduler.schedule(sampleTimer, SAMPLE_TICKS);
+    }
+
+    /**
+     * Stops sampling. Call from the client thread.
+     */
+    public void shutDown()
+    {
+        tickScheduler.cancel(sampleTimer);
+    }
+
+    /**
+     * Writes the rings and any partly collected blocks in the background. Call from the client thread, or
+     * from the plugin's shutDown once no more ticks reach us.
+     */
+    public void save()
+    {
+        // 1. Copy on the client thread
+        long[][] rows = new long[tiers.length][];
+        long[][] pending = new long[tiers.length][];
+        int[] pendingCounts = new int[tiers.length];
+        for (int i = 0; i < tiers.length; ++i)
+        {
+            rows[i] = tiers[i].copyRows();
+            pending[i] = tiers[i].pending.clone();
+            pendingCounts[i] = tiers[i].pendingCount;
+        }
+        long blockedClicks = getBlockedClicks();
+
+        // 2. Write in the background, replacing the old file in one step
+        lane.execute(() ->
+        {
+            Path path = statePath();
+            Path tmp = path.resolveSibling(STATE_NAME + ".tmp");
+            try
+            {
+                Files.createDirectories(EXPORT_DIR.toPath());
+                try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp))))
+                {
+                    out.writeInt(STATE_MAGIC);
+                    out.writeByte(STATE_VERSION);
+                    out.writeByte(CHANNELS);
+                    out.writeByte(tiers.length);
+                    out.writeLong(blockedClicks);
+
+                    long[] previous = new long[CHANNELS + 1];
+                    for (int tier = 0; tier < tiers.length; ++tier)
+                    {
+                        out.writeInt(tiers[tier].ticksPerSample);
+                        out.writeInt(tiers[tier].capacity);
+                        writeRows(out, rows[tier], previous);
+
+                        out.writeInt(pendingCounts[tier]);
+                        for (long value : pending[tier])
+                        {
+                            out.writeLong(value);
+                        }
+                    }
+                }
+                Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            }
+            catch (IOException e)
+            {
+                log.warn("Unable to save hook history", e);
+            }
+        });
+    }
+
+    /**
+     * Reads the saved rings, if there are any. A file that doesn't match the current tiers is ignored,
+     * the history then starts empty.
+     */
+    private void read()
+    {
+        Path path = statePath();
+        if (!Files.exists(path)) return;
+
+        // Read everything before touching the rings, so a bad file can't leave them half loaded
+        long[][] rows = new long[tiers.length][];
+        long[][] pending = new long[tiers.length][CHANNELS];
+        int[] pendingCounts = new int[tiers.length];
+        long blockedClicks;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path))))
+        {
+            if (in.readInt() != STATE_MAGIC || in.readByte() != STATE_VERSION
+                    || in.readByte() != CHANNELS || in.readByte() != tiers.length)
+            {
+                log.warn("Ignoring hook history with an unknown format");
+                return;
+            }
+
+            blockedClicks = in.readLong();
+            if (blockedClicks < 0)
+            {
+                log.warn("Ignoring hook history with {} blocked clicks", blockedClicks);
+                return;
+            }
+
+            long[] previous = new long[CHANNELS + 1];
+            for (int tier = 0; tier < tiers.length; ++tier)
+            {
+                Tier expected = tiers[tier];
+                if (in.readInt() != expected.ticksPerSample || in.readInt() != expected.capacity)
+                {
+                    log.warn("Ignoring hook history saved with different tiers");
+                    return;
+                }
+
+                int rowCount = in.readInt();
+                if (rowCount < 0 || rowCount > expected.capacity)
+                {
+                    log.warn("Ignoring hook history with {} rows in tier {}", rowCount, tier);
+                    return;
+                }
+                rows[tier] = readRows(in, rowCount, previous);
+
+                pendingCounts[tier] = in.readInt();
+                if (pendingCounts[tier] < 0 || pendingCounts[tier] >= expected.samplesPerRow)
+                {
+                    log.warn("Ignoring hook history with {} pending samples in tier {}", pendingCounts[tier], tier);
+                    return;
+                }
+                for (int channel = 0; channel < CHANNELS; ++channel)
+                {
+                    pending[tier][channel] = in.readLong();
+                }
+            }
+        }
+        catch (IOException e)
+        {
+            log.warn("Unable to read hook history", e);
+            return;
+        }
+
+        for (int i = 0; i < tiers.length; ++i)
+        {
+            tiers[i].restore(rows[i], pending[i], pendingCounts[i]);
+        }
+        blockedClicksBase = blockedClicks;
+    }
+
+    /**
+     * Blocked clicks over every saved session and this one.
+     */
+    private long getBlockedClicks()
+    {
+        return blockedClicksBase + metrics.getClicksBlocked();
+    }
+
+    /**
+     * Writes the whole history to a file in the background, as CSV or the compact binary format.
+     * Call from the client thread.
+     */
+    public void export(boolean binary)
+    {
+        // 1. Copy on the client thread, the rings keep changing while we write
+        long[][] rows = new long[tiers.length][];
+        int[] ticksPerSample = new int[tiers.length];
+        for (int i = 0; i < tiers.length; ++i)
+        {
+            rows[i] = tiers[i].copyRows();
+            ticksPerSample[i] = tiers[i].ticksPerSample;
+        }
+
+        File file = new File(EXPORT_DIR, "history-" + System.currentTimeMillis() + (binary ? ".bin" : ".csv"));
+
+        // 2. Write in the background
+        lane.execute(() ->
+        {
+            String message;
+            try
+            {
+                Files.createDirectories(EXPORT_DIR.toPath());
+                if (binary) writeBinary(file, rows, ticksPerSample);
+                else writeCsv(file, rows);
+                message = "Hook history exported to " + file.getAbsolutePath();
+            }
+            catch (IOException e)
+            {
+                log.warn("Unable to export hook history", e);
+                message = "Unable to export hook history: " + e.getMessage();
+            }
+
+            String chatMessage = message;
+            clientThread.invokeLater(() ->
+                    client.addChatMessage(ChatMessageType.GAMEMESSAGE, "", chatMessage, null));
+        });
+    }
+
+    private void onSampleDue()
+    {
+        sample[WEAR] = durabilityManager.getWearTicks();
+        sample[DEBT] = durabilityManager.getTotalRepairCost();
+        sample[BLOCKED_CLICKS] = getBlockedClicks();
+        sample[LIFETIME_PAID] = durabilityManager.getLifetimePaid();
+
+        // Each tier passes a sample down once it has collected a full block
+        long time = System.currentTimeMillis();
+        long[] values = sample;
+        for (Tier tier : tiers)
+        {
+            values = tier.add(time, values);
+            if (values == null) break;
+        }
+
+        tickScheduler.schedule(sampleTimer, SAMPLE_TICKS);
+    }
+
+    // --- Export Helpers (Lane Thread) ---
+
+    private static void writeCsv(File file, long[][] rows) throws IOException
+    {
+        try (Writer out = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8))
+        {
+            out.write(CSV_HEADER);
+            out.write('\n');
+
+            StringBuilder line = new StringBuilder(64);
+            for (int tier = 0; tier < rows.length; ++tier)
+            {
+                long[] tierRows = rows[tier];
+                for (int row = 0; row < tierRows.length; row += CHANNELS + 1)
+                {
+                    line.setLength(0);
+                    line.append(tier);
+                    for (int column = 0; column <= CHANNELS; ++column)
+                    {
+                        line.append(',').append(tierRows[row + column]);
+                    }
+                    line.append('\n');
+                    out.append(line);
+                }
+            }
+        }
+    }
+
+    /**
+     * Header, then for each tier its sample interval, row count and rows. Every column is stored as
+     * a zig-zag varint delta from the previous row, so slowly changing values take a byte or two.
+     */
+    private static void writeBinary(File file, long[][] rows, int[] ticksPerSample) throws IOException
+    {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file.toPath()))))
+        {
+            out.writeInt(BINARY_MAGIC);
+            out.writeByte(BINARY_VERSION);
+            out.writeByte(CHANNELS);
+            out.writeByte(rows.length);
+
+            long[] previous = new long[CHANNELS + 1];
+            for (int tier = 0; tier < rows.length; ++tier)
+            {
+                out.writeInt(ticksPerSample[tier]);
+                writeRows(out, rows[tier], previous);
+            }
+        }
+    }
+
+    /**
+     * Row count, then the rows with every column as a zig-zag varint delta from the previous row.
+     */
+    private static void writeRows(DataOutputStream out, long[] rows, long[] previous) throws IOException
+    {
+        out.writeInt(rows.length / (CHANNELS + 1));
+
+        Arrays.fill(previous, 0);
+        for (int row = 0; row < rows.length; row += CHANNELS + 1)
+        {
+            for (int column = 0; column <= CHANNELS; ++column)
+            {
+                long value = rows[row + column];
+                writeVarLong(out, value - previous[column]);
+                previous[column] = value;
+            }
+        }
+    }
+
+    private static long[] readRows(InputStream in, int rowCount, long[] previous) throws IOException
+    {
+        long[] rows = new long[rowCount * (CHANNELS + 1)];
+
+        Arrays.fill(previous, 0);
+        for (int row = 0; row < rows.length; row += CHANNELS + 1)
+        {
+            for (int column = 0; column <= CHANNELS; ++column)
+            {
+                previous[column] += readVarLong(in);
+                rows[row + column] = previous[column];
+            }
+        }
+        return rows;
+    }
+
+    private static void writeVarLong(OutputStream out, long value) throws IOException
+    {
+        long v = (value << 1) ^ (value >> 63);
+        while ((v & ~0x7FL) != 0)
+        {
+            out.write((int) ((v & 0x7F) | 0x80));
+            v >>>= 7;
+        }
+        out.write((int) v);
+    }
+
+    private static long readVarLong(InputStream in) throws IOException
+    {
+        long v = 0;
+        for (int shift = 0; shift < 64; shift += 7)
+        {
+            int b = in.read();
+            if (b < 0) throw new IOException("Hook history ends mid value");
+            v |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return (v >>> 1) ^ -(v & 1);
+        }
+        throw new IOException("Hook history has an overlong value");
+    }
+
+    private static Path statePath()
+    {
+        return new File(EXPORT_DIR, STATE_NAME).toPath();
+    }
+
+    /**
+     * One resolution of history: a ring of timestamps and sample values.
+     */
+    private static final class Tier
+    {
+        private final int ticksPerSample;
+        private final int samplesPerRow;
+        private final int capacity;
+
+        private final long[] times;
+        private final long[] values;
+        private int head;
+        private int size;
+
+        // Samples from the finer tier not yet folded into a row
+        private final long[] pending = new long[CHANNELS];
+        private int pendingCount;
+
+        // The last row added, passed on to the next tier
+        private final long[] lastRow = new long[CHANNELS];
+
+        private Tier(int ticksPerSample, int samplesPerRow, int capacity)
+        {
+            this.ticksPerSample = ticksPerSample;
+            this.samplesPerRow = samplesPerRow;
+            this.capacity = capacity;
+            this.times = new long[capacity];
+            this.values = new long[capacity * CHANNELS];
+        }
+
+        /**
+         * Adds a sample from the finer tier. Returns this tier's new row once a block is complete, else null.
+         * The returned array is reused on the next call.
+         */
+        private long[] add(long time, long[] sample)
+        {
+            for (int channel = 0; channel < CHANNELS; ++channel)
+            {
+                pending[channel] = IS_RUNNING_TOTAL[channel] ? sample[channel] : pending[channel] + sample[channel];
+            }
+            if (++pendingCount < samplesPerRow) return null;
+
+            int offset = head * CHANNELS;
+            for (int channel = 0; channel < CHANNELS; ++channel)
+            {
+                long value = IS_RUNNING_TOTAL[channel] ? pending[channel] : pending[channel] / samplesPerRow;
+                values[offset + channel] = value;
+                lastRow[channel] = value;
+                pending[channel] = 0;
+            }
+            times[head] = time;
+            pendingCount = 0;
+
+            head = (head + 1) % capacity;
+            if (size < capacity) ++size;
+            return lastRow;
+        }
+
+        /**
+         * Copies the rows oldest first, each as the time followed by the channel values.
+         */
+        private long[] copyRows()
+        {
+            long[] rows = new long[size * (CHANNELS + 1)];
+            int start = (head - size + capacity) % capacity;
+            for (int i = 0; i < size; ++i)
+            {
+                int index = (start + i) % capacity;
+                rows[i * (CHANNELS + 1)] = times[index];
+                System.arraycopy(values, index * CHANNELS, rows, i * (CHANNELS + 1) + 1, CHANNELS);
+            }
+            return rows;
+        }
+
+        /**
+         * Replaces the ring with rows in the {@link #copyRows()} layout, and the partly collected block.
+         */
+        private void restore(long[] rows, long[] pendingValues, int pendingValuesCount)
+        {
+            size = rows.length / (CHANNELS + 1);
+            for (int i = 0; i < size; ++i)
+            {
+                times[i] = rows[i * (CHANNELS + 1)];
+                System.arraycopy(rows, i * (CHANNELS + 1) + 1, values, i * CHANNELS, CHANNELS);
+            }
+            head = size % capacity;
+
+            System.arraycopy(pendingValues, 0, pending, 0, CHANNELS);
+            pendingCount = pendingValuesCount;
+        }
+    }
+}
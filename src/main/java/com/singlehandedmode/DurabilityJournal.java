@@ -0,0 +1,382 @@
+package com.singlehandedmode;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import lombok.extern.slf4j.Slf4j;
+import net.runelite.client.RuneLite;
+
+/**
+ * Append-only journal of hook wear and debt, stored in the RuneLite directory with one file per
+ * RuneScape account, as the config it replaced was kept per profile.
+ *
+ * The file is a header followed by records. Each record is a type byte, a length byte,
+ * the four fields as zig-zag varints and a CRC32. A SNAPSHOT record holds absolute values
+ * and a DELTA record holds changes, so replaying the file in order rebuilds the state.
+ * A torn or corrupt tail (e.g. from a crash mid-write) ends the replay at the last good record.
+ *
+ * Two clients on the same account can have the journal open at once. Every write takes a lock on a
+ * sibling lock file and opens the journal afresh, so an append never goes to a file the other client
+ * has just compacted away, and compaction replays the file rather than writing our own view of it.
+ *
+ * All file access after replay happens on the background lane, in submission order.
+ */
+@Slf4j
+@Singleton
+public class DurabilityJournal
+{
+    public static final int WEAR = 0;
+    public static final int DEBT = 1;
+    public static final int LIFETIME_WORN = 2;
+    public static final int LIFETIME_PAID = 3;
+    public static final int FIELDS = 4;
+
+    private static final File JOURNAL_DIR = new File(RuneLite.RUNELITE_DIR, "single-handed-mode");
+    private static final String JOURNAL_PREFIX = "durability-";
+    private static final String JOURNAL_SUFFIX = ".journal";
+    private static final String LOCK_SUFFIX = ".lock";
+    private static final String TMP_SUFFIX = ".tmp";
+
+    private static final int MAGIC = 0x53484D4A; // "SHMJ"
+    private static final byte VERSION = 1;
+    private static final int HEADER_SIZE = 5;
+
+    private static final byte RECORD_SNAPSHOT = 1;
+    private static final byte RECORD_DELTA = 2;
+    private static final int MAX_PAYLOAD = FIELDS * 10; // 10 bytes per varint worst case
+    private static final int MAX_RECORD = 2 + MAX_PAYLOAD + 4;
+
+    // Rewrite the journal as a single snapshot once it grows past this
+    private static final long COMPACT_THRESHOLD_BYTES = 32 * 1024;
+
+    private final BackgroundLane lane;
+    private final PluginMetrics metrics;
+
+    // --- Lane thread state ---
+    private final ByteBuffer writeBuffer = ByteBuffer.allocate(MAX_RECORD);
+    private final CRC32 crc = new CRC32();
+
+    // The open account's journal and its lock file, null while closed
+    private Path path;
+    private FileChannel lockChannel;
+
+    @Inject
+    public DurabilityJournal(BackgroundLane lane, PluginMetrics metrics)
+    {
+        this.lane = lane;
+        this.metrics = metrics;
+    }
+
+    /**
+     * Reads the account's journal synchronously. Returns the replayed state, or null if there is no usable journal.
+     */
+    public long[] replay(String profileKey)
+    {
+        return read(journalPath(profileKey));
+    }
+
+    private static long[] read(Path path)
+    {
+        if (!Files.exists(path)) return null;
+
+        ByteBuffer buf;
+        try
+        {
+            buf = ByteBuffer.wrap(Files.readAllBytes(path));
+        }
+        catch (IOException e)
+        {
+            log.warn("Unable to read durability journal", e);
+            return null;
+        }
+
+        if (buf.remaining() < HEADER_SIZE || buf.getInt() != MAGIC || buf.get() != VERSION)
+        {
+            log.warn("Ignoring durability journal with an unknown header");
+            return null;
+        }
+
+        long[] state = new long[FIELDS];
+        boolean hasSnapshot = false;
+        int records = 0;
+        while (buf.hasRemaining())
+        {
+            byte type = readRecord(buf, state);
+            if (type == 0)
+            {
+                log.warn("Durability journal has a corrupt tail, replayed {} records", records);
+                break;
+            }
+            hasSnapshot |= type == RECORD_SNAPSHOT;
+            ++records;
+        }
+
+        return hasSnapshot ? state : null;
+    }
+
+    /**
+     * Starts a fresh journal for the account holding the given state, replacing whatever was there.
+     * Closes the journal that was open, if any.
+     */
+    public void open(String profileKey, long[] state)
+    {
+        long[] copy = state.clone();
+        lane.execute(() ->
+        {
+            closeOnLane();
+            try
+            {
+                Files.createDirectories(JOURNAL_DIR.toPath());
+                Path journal = journalPath(profileKey);
+                lockChannel = FileChannel.open(journal.resolveSibling(journal.getFileName() + LOCK_SUFFIX),
+                        StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+                path = journal;
+
+                try (FileLock lock = lockChannel.lock())
+                {
+                    writeSnapshot(copy);
+                }
+            }
+            catch (IOException e)
+            {
+                log.warn("Unable to open durability journal", e);
+            }
+        });
+    }
+
+    /**
+     * Appends a delta record. Written to the OS on the lane, but not fsync'd until {@link #sync()}.
+     */
+    public void append(long wear, long debt, long lifetimeWorn, long lifetimePaid)
+    {
+        lane.execute(() ->
+        {
+            if (path == null) return;
+
+            try (FileLock lock = lockChannel.lock())
+            {
+                DurabilitySaveEvent saveEvent = new DurabilitySaveEvent();
+                saveEvent.begin();
+                long size;
+                try (FileChannel out = FileChannel.open(path, StandardOpenOption.WRITE, StandardOpenOption.APPEND))
+                {
+                    int bytes = writeRecord(out, RECORD_DELTA, wear, debt, lifetimeWorn, lifetimePaid);
+                    size = out.size();
+                    commitSaveEvent(saveEvent, "Append", bytes);
+                }
+                metrics.recordJournalWrite(PluginMetrics.JournalOperation.APPEND);
+
+                if (size > COMPACT_THRESHOLD_BYTES) compact();
+            }
+            catch (IOException e)
+            {
+                log.warn("Unable to append to durability journal", e);
+            }
+        });
+    }
+
+    /**
+     * Forces everything appended so far to disk.
+     */
+    public void sync()
+    {
+        lane.execute(() ->
+        {
+            if (path == null) return;
+            try (FileLock lock = lockChannel.lock();
+                 FileChannel out = FileChannel.open(path, StandardOpenOption.WRITE))
+            {
+                DurabilitySaveEvent saveEvent = new DurabilitySaveEvent();
+                saveEvent.begin();
+                out.force(false);
+                commitSaveEvent(saveEvent, "Sync", 0);
+                metrics.recordJournalWrite(PluginMetrics.JournalOperation.SYNC);
+            }
+            catch (IOException e)
+            {
+                log.warn("Unable to sync durability journal", e);
+            }
+        });
+    }
+
+    public void close()
+    {
+        lane.execute(this::closeOnLane);
+    }
+
+    // --- Lane Thread Helpers ---
+
+    private void closeOnLane()
+    {
+        // Appends are closed as they're written, only the lock file is held open
+        path = null;
+        if (lockChannel == null) return;
+        try
+        {
+            lockChannel.close();
+        }
+        catch (IOException e)
+        {
+            log.warn("Unable to close durability journal", e);
+        }
+        lockChannel = null;
+    }
+
+    /**
+     * Rewrites the journal as a single snapshot of what it replays to, including other clients' appends.
+     * Call holding the lock.
+     */
+    private void compact() throws IOException
+    {
+        long[] state = read(path);
+        if (state == null)
+        {
+            log.warn("Not compacting an unreadable durability journal");
+            return;
+        }
+        writeSnapshot(state);
+    }
+
+    /**
+     * Atomically replaces the journal with a header and a single snapshot. Call holding the lock.
+     */
+    private void writeSnapshot(long[] state) throws IOException
+    {
+        DurabilitySaveEvent saveEvent = new DurabilitySaveEvent();
+        saveEvent.begin();
+
+        Path tmp = path.resolveSibling(path.getFileName() + TMP_SUFFIX);
+        int bytes;
+
+        try (FileChannel out = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING))
+        {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            header.putInt(MAGIC).put(VERSION).flip();
+            writeFully(out, header);
+
+            bytes = HEADER_SIZE + writeRecord(out, RECORD_SNAPSHOT, state[WEAR], state[DEBT], state[LIFETIME_WORN], state[LIFETIME_PAID]);
+            out.force(false);
+        }
+
+        Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        commitSaveEvent(saveEvent, "Compact", bytes);
+        metrics.recordJournalWrite(PluginMetrics.JournalOperation.COMPACT);
+    }
+
+    private static void commitSaveEvent(DurabilitySaveEvent saveEvent, String operation, int bytes)
+    {
+        saveEvent.end();
+        if (saveEvent.shouldCommit())
+        {
+            saveEvent.operation = operation;
+            saveEvent.bytes = bytes;
+            saveEvent.commit();
+        }
+    }
+
+    /**
+     * Writes one record, returning its size in bytes.
+     */
+    private int writeRecord(FileChannel out, byte type, long wear, long debt, long lifetimeWorn, long lifetimePaid) throws IOException
+    {
+        writeBuffer.clear();
+        writeBuffer.put(type);
+        writeBuffer.put((byte) 0); // Length, filled in below
+        putVarLong(writeBuffer, wear);
+        putVarLong(writeBuffer, debt);
+        putVarLong(writeBuffer, lifetimeWorn);
+        putVarLong(writeBuffer, lifetimePaid);
+
+        int length = writeBuffer.position() - 2;
+        writeBuffer.put(1, (byte) length);
+
+        crc.reset();
+        crc.update(writeBuffer.array(), 0, writeBuffer.position());
+        writeBuffer.putInt((int) crc.getValue());
+
+        writeBuffer.flip();
+        int bytes = writeBuffer.remaining();
+        writeFully(out, writeBuffer);
+        return bytes;
+    }
+
+    private static void writeFully(FileChannel out, ByteBuffer buf) throws IOException
+    {
+        while (buf.hasRemaining()) out.write(buf);
+    }
+
+    /**
+     * Reads one record into state. Returns the record type, or 0 if the record is truncated or corrupt.
+     */
+    private static byte readRecord(ByteBuffer buf, long[] state)
+    {
+        int start = buf.position();
+        if (buf.remaining() < 2) return 0;
+
+        byte type = buf.get();
+        int length = buf.get() & 0xFF;
+        if ((type != RECORD_SNAPSHOT && type != RECORD_DELTA) || length > MAX_PAYLOAD || buf.remaining() < length + 4)
+        {
+            return 0;
+        }
+
+        CRC32 check = new CRC32();
+        check.update(buf.array(), start, 2 + length);
+        buf.position(start + 2 + length);
+        if (buf.getInt() != (int) check.getValue()) return 0;
+
+        buf.position(start + 2);
+        for (int i = 0; i < FIELDS; ++i)
+        {
+            long value = getVarLong(buf);
+            state[i] = type == RECORD_SNAPSHOT ? value : state[i] + value;
+        }
+        buf.position(start + 2 + length + 4);
+        return type;
+    }
+
+    private static void putVarLong(ByteBuffer buf, long value)
+    {
+        // Zig-zag so small negative deltas (repairs, payments) stay small
+        long v = (value << 1) ^ (value >> 63);
+        while ((v & ~0x7FL) != 0)
+        {
+            buf.put((byte) ((v & 0x7F) | 0x80));
+            v >>>= 7;
+        }
+        buf.put((byte) v);
+    }
+
+    private static long getVarLong(ByteBuffer buf)
+    {
+        long v = 0;
+        int shift = 0;
+        byte b;
+        do
+        {
+            b = buf.get();
+            v |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        }
+        while ((b & 0x80) != 0 && shift < 64);
+        return (v >>> 1) ^ -(v & 1);
+    }
+
+    // Package-private for the tests
+    static Path journalPath(String profileKey)
+    {
+        // Profile keys are meant to be file-safe already, but it's a file name
+        String name = profileKey.replaceAll("[^A-Za-z0-9_-]", "_");
+        return new File(JOURNAL_DIR, JOURNAL_PREFIX + name + JOURNAL_SUFFIX).toPath();
+    }
+}
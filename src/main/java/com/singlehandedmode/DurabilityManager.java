@@ -1,9 +1,9 @@
 package com.singlehandedmode;
 
+import java.nio.MappedByteBuffer;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 
-import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import net.runelite.api.ChatMessageType;
 import net.runelite.api.Client;
@@ -17,73 +17,228 @@ public class DurabilityManager
 
     private final Client client;
     private final ConfigManager configManager;
+    private final DurabilityJournal journal;
+    private final SharedDurabilityState sharedState;
+    private final BackgroundLane lane;
     private final SingleHandedModeConfig config;
     private final HookStateManager hookState;
+    private final TickScheduler tickScheduler;
+    private final WearRateTable wearRates;
 
-    @Getter
-    private int wearTicks;
-    private int penaltyDebt;
-    private boolean isBroken = false;
+    // Batch journal appends rather than writing every tick
+    private final TickScheduler.Timer saveTimer = new TickScheduler.Timer(this::onSaveDue);
 
-    // Lifetime stats
-    @Getter
-    private long lifetimeWorn;
-    @Getter
-    private long lifetimePaid;
+    // The moment wear reaches the configured durability, while worn
+    private final TickScheduler.Timer breakTimer = new TickScheduler.Timer(this::onBreakDue);
+
+    // Wear, debt and lifetime stats on the scheduler's tick clock. See HookLedger.
+    // Empty until an account's saved state is loaded, see loadSavedState().
+    private final HookLedger ledger = new HookLedger(0, 0, 0, 0, Integer.MAX_VALUE);
+
+    // RuneScape profile the ledger holds, null until the first is known
+    private String profileKey;
+
+    // Local player's animation, which sets wearRate
+    private int currentAnimation = -1;
+
+    // Fraction of a tick of wear not yet added to the shared counter
+    private int sharedWearRemainder;
+
+    // Values as of the last journal append, so we only write what changed
+    private int savedWearTicks;
+    private int savedPenaltyDebt;
+    private long savedLifetimeWorn;
+    private long savedLifetimePaid;
+
+    // Shared state sequence number as of the last read
+    private long sharedSequence = -1;
+
+    // Shared file mapped and seeded on the lane. However long another client takes to seed it, the result
+    // is still used, only a newer request or shutting down drops it.
+    private final BackgroundLane.Slot<MappedByteBuffer> sharedSlot =
+            new BackgroundLane.Slot<>(Integer.MAX_VALUE, this::onSharedStateMapped);
 
     @Inject
-    public DurabilityManager(Client client, ConfigManager configManager, SingleHandedModeConfig config, HookStateManager hookState)
+    public DurabilityManager(Client client, ConfigManager configManager, DurabilityJournal journal,
+                             SharedDurabilityState sharedState, BackgroundLane lane, SingleHandedModeConfig config,
+                             HookStateManager hookState, TickScheduler tickScheduler, WearRateTable wearRates)
     {
         this.client = client;
         this.configManager = configManager;
+        this.journal = journal;
+        this.sharedState = sharedState;
+        this.lane = lane;
         this.config = config;
         this.hookState = hookState;
-
-        // Load initial state
-        this.wearTicks = config.currentWearTicks();
-        this.penaltyDebt = config.accumulatedDebt();
-        this.isBroken = wearTicks >= config.hookDurabilityTicks();
-        this.lifetimeWorn = config.lifetimeWorn();
-        this.lifetimePaid = config.lifetimePaid();
+        this.tickScheduler = tickScheduler;
+        this.wearRates = wearRates;
     }
 
     public void onGameTick()
     {
-        if (hookState.isPiratesHookEquipped())
+        // Local wear is computed on demand, only the shared counters need ticking
+        if (sharedState.isOpen()) onSharedGameTick();
+    }
+
+    /**
+     * Loads the account's saved state and opens its journal. Call from the plugin's startUp, so handlers
+     * never see the ledger unloaded.
+     */
+    public void load()
+    {
+        // Loaded here rather than on injection, so a plugin that is never enabled doesn't read it. Before
+        // the first login there's no account yet, see onProfileChanged().
+        String key = configManager.getRSProfileKey();
+        if (key != null && !key.equals(profileKey)) loadSavedState(key);
+
+        // Start from a compacted journal holding the current state
+        openJournal();
+    }
+
+    /**
+     * Starts the clock and the timers. Call from the client thread after {@link #load()}.
+     */
+    public void startUp()
+    {
+        updateSegment();
+        tickScheduler.schedule(saveTimer, TICKS_PER_SAVE);
+        updateSharedState();
+    }
+
+    /**
+     * Stops the timers. Call from the client thread.
+     */
+    public void shutDown()
+    {
+        tickScheduler.cancel(saveTimer);
+        tickScheduler.cancel(breakTimer);
+    }
+
+    /**
+     * Writes the final state and closes the journal. Call from the plugin's shutDown, once no more ticks
+     * reach us.
+     */
+    public void close()
+    {
+        // Continue locally from the shared values next time
+        if (sharedState.isOpen())
         {
-            ++wearTicks;
-            ++lifetimeWorn;
-            if (isBroken) {
-                double increase = config.penaltyPerSecond() * 0.6;
-                penaltyDebt += (int) Math.ceil(increase);
-            } else {
-                checkBrokenState();
-            }
+            pullSharedState();
+            sharedState.close();
+            openJournal();
         }
-        // Don't spam the config system with writes every tick
-        if (client.getTickCount() % TICKS_PER_SAVE == 0) saveProgress();
+
+        // Stop the clock, no ticks pass while the plugin is off
+        ledger.pause(tickScheduler.getCurrentTick());
+
+        saveProgress(true);
+        journal.close();
     }
 
-    public void shutDown()
+    /**
+     * Call when the RuneScape profile changes, i.e. on logging in to an account. Saves the last
+     * account's state and loads this one's.
+     */
+    public void onProfileChanged()
+    {
+        String key = configManager.getRSProfileKey();
+        if (key == null || key.equals(profileKey)) return;
+
+        saveProgress(true);
+        loadSavedState(key);
+        updateSegment();
+        openJournal();
+
+        // The shared counters win while they're open
+        sharedSequence = -1;
+        if (sharedState.isOpen()) pullSharedState();
+    }
+
+    /**
+     * Call when the pirate's hook is equipped or removed.
+     */
+    public void onHookEquippedChanged()
     {
-        saveProgress();
+        updateSegment();
+    }
+
+    /**
+     * Call when the local player's animation changes.
+     */
+    public void onAnimationChanged(int animationId)
+    {
+        currentAnimation = animationId;
+        if (currentWearRate() != ledger.getWearRate()) updateSegment();
+    }
+
+    /**
+     * Call when the durability, wear or penalty config changes.
+     */
+    public void onRatesChanged()
+    {
+        updateSegment();
+    }
+
+    /**
+     * Opens or closes the shared multi-client state to match config. Opening finishes on a later client
+     * tick, once the lane has mapped the file, see onSharedStateMapped().
+     */
+    public void updateSharedState()
+    {
+        if (config.sharedDurabilityState() == sharedState.isOpen()) return;
+
+        if (!config.sharedDurabilityState())
+        {
+            closeSharedState();
+            return;
+        }
+
+        // Make sure our own state is on disk before handing over to the shared file
+        ledger.fold(tickScheduler.getCurrentTick());
+        saveProgress(true);
+
+        long[] seed = new long[SharedDurabilityState.LIFETIME_PAID + 1];
+        seed[SharedDurabilityState.WEAR] = getWearTicks() | (isHookBroken() ? SharedDurabilityState.BROKEN_FLAG : 0);
+        seed[SharedDurabilityState.DEBT] = getTotalRepairCost();
+        seed[SharedDurabilityState.LIFETIME_WORN] = getLifetimeWorn();
+        seed[SharedDurabilityState.LIFETIME_PAID] = getLifetimePaid();
+
+        lane.submit(sharedSlot, () -> sharedState.map(seed));
+    }
+
+    public void onLogout()
+    {
+        saveProgress(true);
     }
 
     // --- Data Accessors for UI ---
 
-    public int getCurrentDurability() { return Math.max(0, config.hookDurabilityTicks() - wearTicks); }
-    public boolean isHookBroken() { return isBroken; }
-    public boolean hasUnpaidDebt() { return penaltyDebt > 0; }
-    public int getTotalRepairCost() { return penaltyDebt; }
+    public int getWearTicks() { return ledger.getWearTicks(tickScheduler.getCurrentTick()); }
+    public long getLifetimeWorn() { return ledger.getLifetimeWorn(tickScheduler.getCurrentTick()); }
+    public long getLifetimePaid() { return ledger.getLifetimePaid(); }
+    public int getCurrentDurability() { return Math.max(0, config.hookDurabilityTicks() - getWearTicks()); }
+    public boolean isHookBroken() { return ledger.isBroken(); }
+    public boolean hasUnpaidDebt() { return getTotalRepairCost() > 0; }
+    public int getTotalRepairCost() { return ledger.getDebt(tickScheduler.getCurrentTick()); }
+
+    /**
+     * Whether dropping a pile of this many coins pays off the debt.
+     */
+    public boolean acceptsPayment(long coins)
+    {
+        return ledger.acceptsPayment(tickScheduler.getCurrentTick(), coins);
+    }
 
     public int getAccruedCost()
     {
-        if (hasUnpaidDebt()) return penaltyDebt;
+        int debt = getTotalRepairCost();
+        if (debt > 0) return debt;
 
         double maxTicks = config.hookDurabilityTicks();
         if (maxTicks == 0) return 0;
 
-        double percentWorn = (double) wearTicks / maxTicks;
+        // Same double rounding as before the lazy clock, so the shown cost doesn't shift by a coin
+        double percentWorn = getWearTicks() / maxTicks;
         if (percentWorn > 1.0) percentWorn = 1.0;
 
         return (int) (percentWorn * config.repairCost());
@@ -92,37 +247,232 @@ public class DurabilityManager
     // --- Actions ---
 
     public void settleDebt() {
-        lifetimePaid += penaltyDebt;
-        penaltyDebt = 0;
-        saveProgress();
+        if (sharedState.isOpen())
+        {
+            long paid = sharedState.getAndSet(SharedDurabilityState.DEBT, 0);
+            sharedState.add(SharedDurabilityState.LIFETIME_PAID, paid);
+            pullSharedState();
+        }
+        else
+        {
+            ledger.settle(tickScheduler.getCurrentTick());
+            saveProgress(true);
+        }
         client.addChatMessage(ChatMessageType.GAMEMESSAGE, "", "<col=00ff00>Payment accepted. Debt cleared.", null);
     }
 
     public void repairHook()
     {
-        wearTicks = 0;
-        isBroken = false;
-        saveProgress();
+        if (sharedState.isOpen())
+        {
+            // Clears the wear and the broken flag in one write
+            sharedState.getAndSet(SharedDurabilityState.WEAR, 0);
+            pullSharedState();
+        }
+        else
+        {
+            ledger.repair(tickScheduler.getCurrentTick());
+            updateSegment();
+            saveProgress(true);
+        }
         client.addChatMessage(ChatMessageType.GAMEMESSAGE, "", "<col=00ff00>Your pirate's hook has been repaired!", null);
     }
 
-    private void checkBrokenState()
+    // --- Lazy Clock ---
+
+    /**
+     * Starts a new segment with the current equipped state, penalty rate and break time.
+     */
+    private void updateSegment()
     {
-        boolean newBrokenState = wearTicks >= config.hookDurabilityTicks();
-        if (newBrokenState && !isBroken)
+        // The shared counters are ticked explicitly, see onSharedGameTick()
+        long ticksUntilBreak = ledger.startSegment(tickScheduler.getCurrentTick(),
+                !sharedState.isOpen() && hookState.isPiratesHookEquipped(),
+                currentWearRate(), penaltyPerTick(), config.hookDurabilityTicks());
+
+        if (ticksUntilBreak > 0)
         {
-            client.addChatMessage(ChatMessageType.GAMEMESSAGE, "", "<col=ff0000>Your pirate's hook has broken!", null);
-            penaltyDebt += config.repairCost();
-            saveProgress();
+            tickScheduler.schedule(breakTimer, (int) Math.min(Integer.MAX_VALUE, ticksUntilBreak));
         }
-        isBroken = newBrokenState;
+        else
+        {
+            tickScheduler.cancel(breakTimer);
+        }
+    }
+
+    private void onBreakDue()
+    {
+        client.addChatMessage(ChatMessageType.GAMEMESSAGE, "", "<col=ff0000>Your pirate's hook has broken!", null);
+        ledger.breakHook(tickScheduler.getCurrentTick(), config.repairCost());
+        updateSegment();
+        saveProgress(true);
+    }
+
+    private int currentWearRate()
+    {
+        return config.activityWeightedWear() ? wearRates.getRate(currentAnimation) : WearRateTable.ONE;
+    }
+
+    /**
+     * ceil(penaltyPerSecond * 0.6) in exact integer math.
+     */
+    private int penaltyPerTick()
+    {
+        return (int) Math.floorDiv(3L * config.penaltyPerSecond() + 4, 5);
+    }
+
+    // --- Shared State ---
+
+    private void onSharedGameTick()
+    {
+        if (hookState.isPiratesHookEquipped())
+        {
+            // Only whole ticks of wear are shared, the remainder carries to the next tick
+            sharedWearRemainder += ledger.getWearRate();
+            int wholeTicks = sharedWearRemainder >> WearRateTable.FRACTION_BITS;
+            sharedWearRemainder &= WearRateTable.ONE - 1;
+
+            long wear = (wholeTicks > 0
+                    ? sharedState.add(SharedDurabilityState.WEAR, wholeTicks)
+                    : sharedState.get(SharedDurabilityState.WEAR)) & SharedDurabilityState.WEAR_MASK;
+            sharedState.add(SharedDurabilityState.LIFETIME_WORN, 1);
+
+            if (ledger.isBroken())
+            {
+                sharedState.add(SharedDurabilityState.DEBT, ledger.getPenaltyPerTick());
+            }
+            // Only the client that flips the flag charges for the break
+            else if (wear >= config.hookDurabilityTicks()
+                    && sharedState.setBits(SharedDurabilityState.WEAR, SharedDurabilityState.BROKEN_FLAG))
+            {
+                client.addChatMessage(ChatMessageType.GAMEMESSAGE, "", "<col=ff0000>Your pirate's hook has broken!", null);
+                sharedState.add(SharedDurabilityState.DEBT, config.repairCost());
+            }
+        }
+
+        pullSharedState();
+    }
+
+    /**
+     * Re-reads the shared counters if any client has changed them since we last looked.
+     */
+    private void pullSharedState()
+    {
+        long sequence = sharedState.getSequence();
+        if (sequence == sharedSequence) return;
+        sharedSequence = sequence;
+
+        long wear = sharedState.get(SharedDurabilityState.WEAR);
+        ledger.load(wear & SharedDurabilityState.WEAR_MASK,
+                (int) sharedState.get(SharedDurabilityState.DEBT),
+                sharedState.get(SharedDurabilityState.LIFETIME_WORN),
+                sharedState.get(SharedDurabilityState.LIFETIME_PAID),
+                (wear & SharedDurabilityState.BROKEN_FLAG) != 0);
+    }
+
+    private void onSharedStateMapped(MappedByteBuffer mapped)
+    {
+        // Failed, or turned off again while it was being mapped
+        if (mapped == null || !config.sharedDurabilityState() || sharedState.isOpen()) return;
+
+        sharedState.attach(mapped);
+        sharedSequence = -1;
+        pullSharedState();
+        // Stops the local clock, the shared counters are ticked instead
+        updateSegment();
+    }
+
+    private void closeSharedState()
+    {
+        if (!sharedState.isOpen()) return;
+
+        pullSharedState();
+        sharedState.close();
+
+        // Continue locally from the shared values
+        updateSegment();
+        openJournal();
+    }
+
+    // --- Persistence ---
+
+    private void loadSavedState(String key)
+    {
+        profileKey = key;
+        int durabilityTicks = config.hookDurabilityTicks();
+
+        // Load initial state from the account's journal
+        long[] state = journal.replay(key);
+        if (state != null)
+        {
+            ledger.load(state[DurabilityJournal.WEAR], (int) state[DurabilityJournal.DEBT],
+                    state[DurabilityJournal.LIFETIME_WORN], state[DurabilityJournal.LIFETIME_PAID],
+                    state[DurabilityJournal.WEAR] >= durabilityTicks);
+        }
+        else
+        {
+            // No journal yet, carry over the state from older versions that saved to config. That was one
+            // state for the whole RuneLite profile, so only the first account to load it gets it.
+            int wearTicks = config.currentWearTicks();
+            ledger.load(wearTicks, config.accumulatedDebt(), config.lifetimeWorn(), config.lifetimePaid(),
+                    wearTicks >= durabilityTicks);
+            for (String legacyKey : new String[]{"currentWearTicks", "accumulatedDebt", "lifetimeWorn", "lifetimePaid"})
+            {
+                configManager.unsetConfiguration(SingleHandedModeConfig.GROUP, legacyKey);
+            }
+        }
+    }
+
+    private void openJournal()
+    {
+        if (profileKey == null) return;
+        journal.open(profileKey, snapshot());
+        markSaved();
+    }
+
+    private void onSaveDue()
+    {
+        saveProgress(false);
+        tickScheduler.schedule(saveTimer, TICKS_PER_SAVE);
+    }
+
+    /**
+     * Appends whatever changed since the last save to the journal.
+     * Key events (break, payment, repair, logout) also sync it to disk.
+     */
+    private void saveProgress(boolean sync)
+    {
+        // The shared file is the store of record while it's open
+        if (sharedState.isOpen()) return;
+
+        int wear = getWearTicks();
+        int debt = getTotalRepairCost();
+        long worn = getLifetimeWorn();
+        long paid = getLifetimePaid();
+        if (wear != savedWearTicks || debt != savedPenaltyDebt
+                || worn != savedLifetimeWorn || paid != savedLifetimePaid)
+        {
+            journal.append(
+                    (long) wear - savedWearTicks,
+                    (long) debt - savedPenaltyDebt,
+                    worn - savedLifetimeWorn,
+                    paid - savedLifetimePaid);
+            markSaved();
+        }
+
+        if (sync) journal.sync();
+    }
+
+    private void markSaved()
+    {
+        savedWearTicks = getWearTicks();
+        savedPenaltyDebt = getTotalRepairCost();
+        savedLifetimeWorn = getLifetimeWorn();
+        savedLifetimePaid = getLifetimePaid();
     }
 
-    private void saveProgress()
+    private long[] snapshot()
     {
-        configManager.setConfiguration(SingleHandedModeConfig.GROUP, "currentWearTicks", wearTicks);
-        configManager.setConfiguration(SingleHandedModeConfig.GROUP, "accumulatedDebt", penaltyDebt);
-        configManager.setConfiguration(SingleHandedModeConfig.GROUP, "lifetimeWorn", lifetimeWorn);
-        configManager.setConfiguration(SingleHandedModeConfig.GROUP, "lifetimePaid", lifetimePaid);
+        return new long[]{getWearTicks(), getTotalRepairCost(), getLifetimeWorn(), getLifetimePaid()};
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,30 @@
+package com.singlehandedmode;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event for each durability journal write, sync or compaction.
+ */
+@Name("com.singlehandedmode.DurabilitySave")
+@Label("Durability Save")
+@Category({"RuneLite", "Single-Handed Mode"})
+@Description("A write to the durability journal")
+@Enabled(false)
+@StackTrace(false)
+public class DurabilitySaveEvent extends Event
+{
+    @Label("Operation")
+    @Description("Append, Sync or Compact")
+    String operation;
+
+    @Label("Bytes")
+    @DataAmount
+    int bytes;
+}
@@ -18,26 +18,57 @@ public class DurabilityStatsOverlay extends Overlay
     private final HookStateManager hookStateManager;
     private final DurabilityManager durabilityManager;
     private final SingleHandedModeConfig config;
+    private final PluginProfiler profiler;
+    private final FrameGovernor governor;
     private final PanelComponent panelComponent = new PanelComponent();
 
+    // Built once and updated in place, render runs every frame
+    private final TitleComponent titleLine = TitleComponent.builder()
+            .text("Insurance Policy")
+            .color(Color.ORANGE)
+            .build();
+    private final LineComponent statusLine = LineComponent.builder().left("Status:").build();
+    private final LineComponent coverageLine = LineComponent.builder().left("Coverage:").build();
+    private final LineComponent costLine = LineComponent.builder().build();
+    private final LineComponent wornLine = LineComponent.builder().left("Lifetime Worn:").build();
+    private final LineComponent paidLine = LineComponent.builder().left("Lifetime Paid:").build();
+    private boolean isShowingCost;
+
+    private final FormattedText coverageText = new FormattedText(DurabilityStatsOverlay::formatClock);
+    private final FormattedText costText = new FormattedText(DurabilityStatsOverlay::formatGp);
+    private final FormattedText wornText = new FormattedText(DurabilityStatsOverlay::formatDuration);
+    private final FormattedText paidText = new FormattedText(DurabilityStatsOverlay::formatGp);
+
     // Fields for smooth interpolation
     private int lastTick = -1;
     private long lastTickTime = 0;
 
     @Inject
-    public DurabilityStatsOverlay(Client client, HookStateManager hookStateManager, DurabilityManager durabilityManager, SingleHandedModeConfig config)
+    public DurabilityStatsOverlay(Client client, HookStateManager hookStateManager, DurabilityManager durabilityManager, SingleHandedModeConfig config,
+                                  PluginProfiler profiler, FrameGovernor governor)
     {
         this.client = client;
         this.hookStateManager = hookStateManager;
         this.durabilityManager = durabilityManager;
         this.config = config;
+        this.profiler = profiler;
+        this.governor = governor;
 
         setPosition(OverlayPosition.TOP_LEFT);
         panelComponent.setPreferredSize(new Dimension(220, 0));
+        layoutPanel(false);
     }
 
     @Override
     public Dimension render(Graphics2D graphics)
+    {
+        long start = profiler.start();
+        Dimension dimension = renderPanel(graphics);
+        profiler.stop(PluginProfiler.Section.STATS_OVERLAY, start);
+        return dimension;
+    }
+
+    private Dimension renderPanel(Graphics2D graphics)
     {
         // 1. Config & State Check
         if (!config.showStatsPanel())
@@ -45,71 +76,58 @@ public class DurabilityStatsOverlay extends Overlay
             return null;
         }
 
-        panelComponent.getChildren().clear();
-
-        // --- TITLE ---
-        panelComponent.getChildren().add(TitleComponent.builder()
-                .text("Insurance Policy")
-                .color(Color.ORANGE)
-                .build());
+        // Drawn every frame, but refreshed less often when the client is struggling
+        if (governor.isOverlayRefreshDue()) updatePanel();
+        return panelComponent.render(graphics);
+    }
 
+    /**
+     * Updates the lines in place. Strings are only built when the value they show changes.
+     */
+    void updatePanel()
+    {
         // --- STATUS ---
         boolean isBroken = durabilityManager.isHookBroken();
-        panelComponent.getChildren().add(LineComponent.builder()
-                .left("Status:")
-                .right(isBroken ? "BROKEN" : "Active")
-                .rightColor(isBroken ? Color.RED : Color.GREEN)
-                .build());
+        statusLine.setRight(isBroken ? "BROKEN" : "Active");
+        statusLine.setRightColor(isBroken ? Color.RED : Color.GREEN);
 
         // --- TIME REMAINING (Smooth) ---
-        panelComponent.getChildren().add(LineComponent.builder()
-                .left("Coverage:")
-                .right(getSmoothTimeRemaining()) // Call local helper
-                .build());
+        coverageLine.setRight(coverageText.get(getSmoothSecondsRemaining()));
 
         // --- CURRENT COST ---
         int cost = durabilityManager.getAccruedCost();
+        if (cost > 0 != isShowingCost) layoutPanel(cost > 0);
         if (cost > 0)
         {
-            panelComponent.getChildren().add(LineComponent.builder()
-                    .left(isBroken ? "Late Fees:" : "Deductible:")
-                    .right(formatGp(cost))
-                    .rightColor(isBroken ? Color.RED : Color.WHITE)
-                    .build());
+            costLine.setLeft(isBroken ? "Late Fees:" : "Deductible:");
+            costLine.setRight(costText.get(cost));
+            costLine.setRightColor(isBroken ? Color.RED : Color.WHITE);
         }
 
         // --- LIFETIME STATS ---
-        panelComponent.getChildren().add(LineComponent.builder()
-                .left("Lifetime Worn:")
-                .right(getLifetimeTimeWorn())
-                .build());
-        panelComponent.getChildren().add(LineComponent.builder()
-                .left("Lifetime Paid:")
-                .right(formatGp(durabilityManager.getLifetimePaid()))
-                .build());
-
-        return panelComponent.render(graphics);
+        // 0.6 sec per tick, shown to the minute
+        wornLine.setRight(wornText.get(durabilityManager.getLifetimeWorn() * 60 / 100 / 60));
+        paidLine.setRight(paidText.get(durabilityManager.getLifetimePaid()));
     }
 
-    public String getLifetimeTimeWorn()
+    private void layoutPanel(boolean showCost)
     {
-        // Assuming you track 'totalWearTicks' as a long in config too
-        long totalSeconds = durabilityManager.getLifetimeWorn() * 60 / 100; // 0.6 sec per tick
-
-        long days = totalSeconds / 86400;
-        long hours = (totalSeconds % 86400) / 3600;
-        long mins = (totalSeconds % 3600) / 60;
+        isShowingCost = showCost;
 
-        if (days > 0) return String.format("%dd %dh %dm", days, hours, mins);
-        if (hours > 0) return String.format("%dh %dm", hours, mins);
-        return String.format("%dm", mins);
+        panelComponent.getChildren().clear();
+        panelComponent.getChildren().add(titleLine);
+        panelComponent.getChildren().add(statusLine);
+        panelComponent.getChildren().add(coverageLine);
+        if (showCost) panelComponent.getChildren().add(costLine);
+        panelComponent.getChildren().add(wornLine);
+        panelComponent.getChildren().add(paidLine);
     }
 
     /**
-     * Calculates smooth time remaining by comparing current time vs last tick time.
+     * Calculates smooth seconds remaining by comparing current time vs last tick time.
      * Logic is fully self-contained here.
      */
-    private String getSmoothTimeRemaining()
+    private long getSmoothSecondsRemaining()
     {
         // 1. Get base duration from manager (in Ticks)
         long ticksLeft = durabilityManager.getCurrentDurability();
@@ -138,10 +156,24 @@ public class DurabilityStatsOverlay extends Overlay
         }
         // ELSE: We are paused. Do not subtract 'elapsed'. baseMillis remains static.
 
-        if (baseMillis <= 0) return "00:00";
+        return Math.max(0, baseMillis / 1000);
+    }
+
+    // --- Formatting ---
+
+    private static String formatDuration(long totalMinutes)
+    {
+        long days = totalMinutes / 1440;
+        long hours = (totalMinutes % 1440) / 60;
+        long mins = totalMinutes % 60;
 
-        // 3. Format
-        long totalSeconds = baseMillis / 1000;
+        if (days > 0) return String.format("%dd %dh %dm", days, hours, mins);
+        if (hours > 0) return String.format("%dh %dm", hours, mins);
+        return String.format("%dm", mins);
+    }
+
+    private static String formatClock(long totalSeconds)
+    {
         long hours = totalSeconds / 3600;
         long remainder = totalSeconds % 3600;
         long mins = remainder / 60;
@@ -155,7 +187,7 @@ public class DurabilityStatsOverlay extends Overlay
         return String.format("%02d:%02d", mins, secs);
     }
 
-    private String formatGp(long number)
+    private static String formatGp(long number)
     {
         return String.format("%,d gp", number);
     }
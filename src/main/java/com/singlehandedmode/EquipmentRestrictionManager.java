@@ -42,48 +42,49 @@ public class EquipmentRestrictionManager
             "torag's hammers", "macuahuitl", "claws", "boxing", "knuckles"
     );
 
-    public void checkRestrictions(MenuOptionClicked event)
+    /**
+     * Blocks equipping items that break the rules. Returns the rule that blocked it, or null if allowed.
+     */
+    public RestrictionRule checkRestrictions(MenuOptionClicked event)
     {
         String option = Text.removeTags(event.getMenuOption()).toLowerCase();
 
         if (!option.equals("wield") && !option.equals("wear") && !option.equals("equip") && !option.equals("hold"))
         {
-            return;
+            return null;
         }
 
         int itemId = event.getItemId();
-        if (itemId == -1) return;
+        if (itemId == -1) return null;
 
 
         if (itemId == ItemID.PIRATEHOOK && durabilityManager.isHookBroken())
         {
-            blockEvent(event, "The broken hook simply slides off your arm.");
-            return;
+            return blockEvent(event, RestrictionRule.BROKEN_HOOK, "The broken hook simply slides off your arm.");
         }
         // -------------------------------------
 
         int equipmentSlot = getEquipmentSlot(itemId);
-        if (equipmentSlot == -1) return;
+        if (equipmentSlot == -1) return null;
 
         boolean isHookEquipped = hookState.isWearingFunctionalHook() || hookState.wasHookJustEquipped();
 
         if (isHookEquipped)
         {
-            checkHookEquippedRestrictions(event, itemId, equipmentSlot);
+            return checkHookEquippedRestrictions(event, itemId, equipmentSlot);
         }
         else
         {
-            checkNoHookRestrictions(event, itemId, equipmentSlot);
+            return checkNoHookRestrictions(event, itemId, equipmentSlot);
         }
     }
 
-    private void checkNoHookRestrictions(MenuOptionClicked event, int itemId, int slot)
+    private RestrictionRule checkNoHookRestrictions(MenuOptionClicked event, int itemId, int slot)
     {
         // 1. Disable Shield Slot
         if (config.disableShieldsNoHook() && slot == EquipmentInventorySlot.SHIELD.getSlotIdx())
         {
-            blockEvent(event, "You need a prosthetic to hold an offhand item.");
-            return;
+            return blockEvent(event, RestrictionRule.SHIELD_NO_HOOK, "You need a prosthetic to hold an offhand item.");
         }
 
         // 2. Disable 2H Weapons
@@ -91,19 +92,20 @@ public class EquipmentRestrictionManager
         {
             if (isTwoHanded(itemId))
             {
-                blockEvent(event, "You can't wield a two-handed weapon with one hand!");
+                return blockEvent(event, RestrictionRule.TWO_HANDED_NO_HOOK, "You can't wield a two-handed weapon with one hand!");
             }
         }
+        return null;
     }
 
-    private void checkHookEquippedRestrictions(MenuOptionClicked event, int itemId, int slot)
+    private RestrictionRule checkHookEquippedRestrictions(MenuOptionClicked event, int itemId, int slot)
     {
         // 1. Disable Gripped Offhands
         if (config.disableGrippedOffhands() && slot == EquipmentInventorySlot.SHIELD.getSlotIdx())
         {
             if (nameContainsKeyword(itemId, BANNED_OFFHAND_KEYWORDS))
             {
-                blockEvent(event, "You cannot grip that item with a hook (no fingers!).");
+                return blockEvent(event, RestrictionRule.GRIPPED_OFFHAND, "You cannot grip that item with a hook (no fingers!).");
             }
         }
 
@@ -112,7 +114,7 @@ public class EquipmentRestrictionManager
         {
             if (nameContainsKeyword(itemId, DUAL_WIELD_KEYWORDS))
             {
-                blockEvent(event, "You can't dual-wield weapons with a hook!");
+                return blockEvent(event, RestrictionRule.DUAL_WIELD, "You can't dual-wield weapons with a hook!");
             }
         }
 
@@ -124,9 +126,10 @@ public class EquipmentRestrictionManager
 
             if (isBow)
             {
-                blockEvent(event, "You cannot draw a bowstring with a hook.");
+                return blockEvent(event, RestrictionRule.BOW, "You cannot draw a bowstring with a hook.");
             }
         }
+        return null;
     }
 
     // --- Helpers ---
@@ -137,10 +140,11 @@ public class EquipmentRestrictionManager
         return stats != null && stats.getEquipment() != null && stats.getEquipment().isTwoHanded();
     }
 
-    private void blockEvent(MenuOptionClicked event, String message)
+    private RestrictionRule blockEvent(MenuOptionClicked event, RestrictionRule rule, String message)
     {
         event.consume();
         client.addChatMessage(ChatMessageType.GAMEMESSAGE, "", "<col=ff0000>" + message, null);
+        return rule;
     }
 
     private int getEquipmentSlot(int itemId)
@@ -155,22 +159,30 @@ public class EquipmentRestrictionManager
         String name = def.getName().toLowerCase();
         if (keywords == BANNED_OFFHAND_KEYWORDS && name.contains("shield")) return false;
 
-        return keywords.stream().anyMatch(name::contains);
+        for (String keyword : keywords)
+        {
+            if (name.contains(keyword)) return true;
+        }
+        return false;
     }
 
     // --- Hook Removal Logic ---
 
-    public void checkHookRemoval(MenuOptionClicked event)
+    /**
+     * Blocks removing the hook while it's holding something. Returns the rule that blocked it, or null if allowed.
+     */
+    public RestrictionRule checkHookRemoval(MenuOptionClicked event)
     {
-        if (!hookState.isWearingFunctionalHook()) return;
+        if (!hookState.isWearingFunctionalHook()) return null;
 
         if (isHookRemovalInteraction(event))
         {
             if (isHoldingIllegalItem())
             {
-                blockEvent(event, "You cannot remove your hook while you're using it to hold something.");
+                return blockEvent(event, RestrictionRule.HOOK_REMOVAL, "You cannot remove your hook while you're using it to hold something.");
             }
         }
+        return null;
     }
 
     private boolean isHookRemovalInteraction(MenuOptionClicked event)
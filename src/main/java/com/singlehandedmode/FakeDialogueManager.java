@@ -1,9 +1,16 @@
 package com.singlehandedmode;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 import net.runelite.api.Client;
 import net.runelite.api.FontID;
+import net.runelite.api.FontTypeFace;
 import net.runelite.api.ScriptID;
 import net.runelite.api.widgets.JavaScriptCallback;
 import net.runelite.api.widgets.Widget;
@@ -11,122 +18,173 @@ import net.runelite.api.widgets.WidgetInfo;
 import net.runelite.api.widgets.WidgetModelType;
 import net.runelite.api.widgets.WidgetPositionMode;
 import net.runelite.api.widgets.WidgetSizeMode;
-import net.runelite.api.widgets.WidgetTextAlignment;
 import net.runelite.api.widgets.WidgetType;
 import net.runelite.client.callback.ClientThread;
 
+/**
+ * Shows scripted NPC dialogues in the chatbox.
+ *
+ * The widgets are built the first time a dialogue opens and kept, hidden while no dialogue is open.
+ * Each page only changes their text, chathead and visibility. They are built again if something else
+ * clears the chatbox. Text is wrapped to the body's width when it is queued, using the font's character
+ * widths, and a page that runs over the body is split into several.
+ */
 @Singleton
 public class FakeDialogueManager
 {
+    // Script 175: OpenChatBoxWidget
+    private static final int OPEN_CHATBOX_SCRIPT = 175;
+    private static final int TALKING_ANIMATION = 567; // Standard "Talking" animation
+
+    private static final int BODY_WIDTH = 380;
+    private static final int LINES_PER_PAGE = 4;
+    public static final int MAX_OPTIONS = 5;
+
+    // Our children of the chatbox, in the order they're created
+    private static final int HEAD = 0;
+    private static final int NAME = 1;
+    private static final int BODY = 2;
+    private static final int CONTINUE = 3;
+    private static final int CLICK_CATCHER = 4;
+    private static final int FIRST_OPTION = 5;
+    private static final int WIDGET_COUNT = FIRST_OPTION + MAX_OPTIONS;
+
+    /**
+     * A script of pages, played in order. Build one and pass it to {@link #openDialogue}.
+     */
+    public static final class Dialogue
+    {
+        private final List<Page> pages = new ArrayList<>();
+
+        public Dialogue npc(int npcId, String name, String text)
+        {
+            return npc(npcId, name, text, TALKING_ANIMATION);
+        }
+
+        public Dialogue npc(int npcId, String name, String text, int animationId)
+        {
+            pages.add(new Page(npcId, name, text, animationId, null, null));
+            return this;
+        }
+
+        /**
+         * Asks the player to pick one of the choices. The chosen one's dialogue plays, then the rest of this one.
+         */
+        public Dialogue options(String title, Choice... choices)
+        {
+            if (choices.length == 0 || choices.length > MAX_OPTIONS)
+            {
+                throw new IllegalArgumentException("Between 1 and " + MAX_OPTIONS + " choices, got " + choices.length);
+            }
+            pages.add(new Page(-1, title, null, -1, choices, null));
+            return this;
+        }
+
+        /**
+         * Runs the action when the dialogue gets this far, on the client thread.
+         */
+        public Dialogue then(Runnable action)
+        {
+            if (action != null) pages.add(new Page(-1, null, null, -1, null, action));
+            return this;
+        }
+    }
+
+    public static final class Choice
+    {
+        private final String text;
+        private final Dialogue then;
+
+        public Choice(String text, Dialogue then)
+        {
+            this.text = text;
+            this.then = then;
+        }
+    }
+
+    // One of a text page, an options page or an action
+    private static final class Page
+    {
+        private final int npcId;
+        private final String title;
+        private final String text;
+        private final int animationId;
+        private final Choice[] choices;
+        private final Runnable action;
+
+        Page(int npcId, String title, String text, int animationId, Choice[] choices, Runnable action)
+        {
+            this.npcId = npcId;
+            this.title = title;
+            this.text = text;
+            this.animationId = animationId;
+            this.choices = choices;
+            this.action = action;
+        }
+    }
+
     private final Client client;
     private final ClientThread clientThread;
 
+    // The widget tree, and where in the chatbox's children it starts
+    private Widget chatbox;
+    private final Widget[] widgets = new Widget[WIDGET_COUNT];
+    private int firstChild;
+
+    private final JavaScriptCallback continueListener = ev -> onContinue();
+    private final JavaScriptCallback[] optionListeners = new JavaScriptCallback[MAX_OPTIONS];
+
+    // Pages still to show, already wrapped
+    private final Deque<Page> queue = new ArrayDeque<>();
+    private Page page;
+
     // Track if our fake dialogue is open so we can close it properly
     private boolean isDialogueOpen = false;
-    private Runnable onContinueCallback = null;
+
+    // Widths of the body font's ASCII characters, -1 until measured
+    private FontTypeFace metricsFont;
+    private final int[] charWidths = new int[128];
 
     @Inject
     public FakeDialogueManager(Client client, ClientThread clientThread)
     {
         this.client = client;
         this.clientThread = clientThread;
+
+        for (int i = 0; i < MAX_OPTIONS; ++i)
+        {
+            int option = i;
+            optionListeners[i] = ev -> onChoose(option);
+        }
     }
 
     public void openNpcDialogue(int npcId, String title, String text, Runnable onContinue)
+    {
+        openDialogue(new Dialogue().npc(npcId, title, text).then(onContinue));
+    }
+
+    /**
+     * Plays the dialogue, replacing any that is open.
+     */
+    public void openDialogue(Dialogue dialogue)
     {
         clientThread.invokeLater(() ->
         {
             // 1. Get the Chatbox Container
-            Widget chatbox = client.getWidget(WidgetInfo.CHATBOX_CONTAINER);
-            if (chatbox == null || chatbox.isHidden()) return;
-
-            // 2. Open the Chatbox input layer (Clears the chat log temporarily)
-            // Script 175: OpenChatBoxWidget
-            client.runScript(175, 1, 1, 0, 0, 0, -1, "");
-
-            // 3. Clear any existing children to be safe
-            chatbox.deleteAllChildren();
-
-            // 4. Create the UI Structure
-            // A. The NPC Head Model
-            Widget head = chatbox.createChild(-1, WidgetType.MODEL);
-            head.setModelId(npcId); // NPC ID works for Chatheads usually
-            head.setModelType(WidgetModelType.NPC_CHATHEAD);
-            head.setAnimationId(567); // Standard "Talking" animation
-            head.setOriginalX(4);
-            head.setOriginalY(4);
-            head.setOriginalWidth(32);
-            head.setOriginalHeight(32);
-            head.setXPositionMode(WidgetPositionMode.ABSOLUTE_LEFT);
-            head.setYPositionMode(WidgetPositionMode.ABSOLUTE_TOP);
-            head.setWidthMode(WidgetSizeMode.ABSOLUTE);
-            head.setHeightMode(WidgetSizeMode.ABSOLUTE);
-            head.setRotationX(40); // Standard Angle
-            head.setRotationZ(1880); // Standard Rotation
-            head.setModelZoom(796); // Zoom in on face
-            head.revalidate();
-
-            // B. The Title (NPC Name)
-            Widget nameWidget = chatbox.createChild(-1, WidgetType.TEXT);
-            nameWidget.setText(title);
-            nameWidget.setFontId(FontID.QUILL_8);
-            nameWidget.setTextColor(0x800000); // Dark Red/Brown
-            nameWidget.setOriginalX(44);
-            nameWidget.setOriginalY(6);
-            nameWidget.setOriginalWidth(400);
-            nameWidget.setOriginalHeight(12);
-            nameWidget.setXPositionMode(WidgetPositionMode.ABSOLUTE_LEFT);
-            nameWidget.setYPositionMode(WidgetPositionMode.ABSOLUTE_TOP);
-            nameWidget.setTextShadowed(true);
-            nameWidget.revalidate();
-
-            // C. The Body Text
-            Widget textWidget = chatbox.createChild(-1, WidgetType.TEXT);
-            textWidget.setText(text);
-            textWidget.setFontId(FontID.QUILL_8);
-            textWidget.setTextColor(0x000000); // Black
-            textWidget.setOriginalX(44);
-            textWidget.setOriginalY(22);
-            textWidget.setOriginalWidth(380);
-            textWidget.setOriginalHeight(60);
-            textWidget.setXPositionMode(WidgetPositionMode.ABSOLUTE_LEFT);
-            textWidget.setYPositionMode(WidgetPositionMode.ABSOLUTE_TOP);
-            textWidget.setTextShadowed(false);
-            textWidget.revalidate();
-
-            // D. "Click here to continue"
-            Widget continueWidget = chatbox.createChild(-1, WidgetType.TEXT);
-            continueWidget.setText("Click here to continue");
-            continueWidget.setFontId(FontID.QUILL_8);
-            continueWidget.setTextColor(0x0000FF); // Blue
-            continueWidget.setOriginalX(44);
-            continueWidget.setOriginalY(85);
-            continueWidget.setOriginalWidth(400);
-            continueWidget.setOriginalHeight(12);
-            continueWidget.setXPositionMode(WidgetPositionMode.ABSOLUTE_LEFT);
-            continueWidget.setYPositionMode(WidgetPositionMode.ABSOLUTE_TOP);
-            continueWidget.setTextShadowed(true);
-
-            // 5. INTERACTION (The Click Listener)
-            // We put a big invisible box over the whole chatbox to catch the click
-            Widget clickCatcher = chatbox.createChild(-1, WidgetType.RECTANGLE);
-            clickCatcher.setOriginalWidth(519);
-            clickCatcher.setOriginalHeight(165);
-            clickCatcher.setFilled(true);
-            clickCatcher.setOpacity(255); // Invisible
-            clickCatcher.setHasListener(true);
-
-            // This is the Magic: Client-side event listener
-            clickCatcher.setOnOpListener((JavaScriptCallback) ev ->
-            {
-                closeDialogue();
-                if (onContinue != null) onContinue.run();
-            });
-
-            clickCatcher.revalidate();
+            Widget current = client.getWidget(WidgetInfo.CHATBOX_CONTAINER);
+            if (current == null || current.isHidden()) return;
 
+            // 2. Open the Chatbox input layer (Clears the chat log temporarily). Before looking for our
+            // widgets, as the script may rebuild the chatbox's children.
+            if (!isDialogueOpen) client.runScript(OPEN_CHATBOX_SCRIPT, 1, 1, 0, 0, 0, -1, "");
+            if (current != chatbox || !isTreeIntact()) buildTree(current);
             isDialogueOpen = true;
-            this.onContinueCallback = onContinue;
+            setListeners(true);
+
+            // 3. Queue the pages and show the first
+            queue.clear();
+            queueFirst(dialogue);
+            showNext();
         });
     }
 
@@ -134,19 +192,291 @@ public class FakeDialogueManager
     {
         if (!isDialogueOpen) return;
 
-        clientThread.invokeLater(() ->
+        clientThread.invokeLater(this::close);
+    }
+
+    // --- Widgets ---
+
+    private boolean isTreeIntact()
+    {
+        // Something else cleared the chatbox, or built its own children in place of ours
+        Widget[] children = chatbox.getDynamicChildren();
+        if (children == null || children.length < firstChild + WIDGET_COUNT) return false;
+        for (int i = 0; i < WIDGET_COUNT; ++i)
+        {
+            if (children[firstChild + i] != widgets[i]) return false;
+        }
+        return true;
+    }
+
+    private void buildTree(Widget chatbox)
+    {
+        this.chatbox = chatbox;
+        Widget[] children = chatbox.getDynamicChildren();
+        firstChild = children != null ? children.length : 0;
+
+        // A. The NPC Head Model
+        Widget head = chatbox.createChild(-1, WidgetType.MODEL);
+        head.setModelType(WidgetModelType.NPC_CHATHEAD);
+        head.setRotationX(40); // Standard Angle
+        head.setRotationZ(1880); // Standard Rotation
+        head.setModelZoom(796); // Zoom in on face
+        place(head, 4, 4, 32, 32);
+        widgets[HEAD] = head;
+
+        // B. The Title (NPC Name)
+        widgets[NAME] = createText(chatbox, 0x800000, 44, 6, 400, 12, true); // Dark Red/Brown
+
+        // C. The Body Text
+        widgets[BODY] = createText(chatbox, 0x000000, 44, 22, BODY_WIDTH, 60, false); // Black
+
+        // D. "Click here to continue"
+        widgets[CONTINUE] = createText(chatbox, 0x0000FF, 44, 85, 400, 12, true); // Blue
+        widgets[CONTINUE].setText("Click here to continue");
+
+        // E. A big invisible box over the whole chatbox to catch the click
+        Widget clickCatcher = chatbox.createChild(-1, WidgetType.RECTANGLE);
+        clickCatcher.setFilled(true);
+        clickCatcher.setOpacity(255); // Invisible
+        clickCatcher.setHasListener(true);
+        place(clickCatcher, 0, 0, 519, 165);
+        widgets[CLICK_CATCHER] = clickCatcher;
+
+        // F. The options, on top of the click catcher
+        for (int i = 0; i < MAX_OPTIONS; ++i)
+        {
+            Widget option = createText(chatbox, 0x000000, 44, 22 + i * 14, 400, 14, false);
+            option.setHasListener(true);
+            widgets[FIRST_OPTION + i] = option;
+        }
+
+        for (Widget widget : widgets)
+        {
+            widget.setHidden(true);
+            widget.revalidate();
+        }
+    }
+
+    private static Widget createText(Widget chatbox, int color, int x, int y, int width, int height, boolean shadowed)
+    {
+        Widget widget = chatbox.createChild(-1, WidgetType.TEXT);
+        widget.setFontId(FontID.QUILL_8);
+        widget.setTextColor(color);
+        widget.setTextShadowed(shadowed);
+        place(widget, x, y, width, height);
+        return widget;
+    }
+
+    private static void place(Widget widget, int x, int y, int width, int height)
+    {
+        widget.setOriginalX(x);
+        widget.setOriginalY(y);
+        widget.setOriginalWidth(width);
+        widget.setOriginalHeight(height);
+        widget.setXPositionMode(WidgetPositionMode.ABSOLUTE_LEFT);
+        widget.setYPositionMode(WidgetPositionMode.ABSOLUTE_TOP);
+        widget.setWidthMode(WidgetSizeMode.ABSOLUTE);
+        widget.setHeightMode(WidgetSizeMode.ABSOLUTE);
+    }
+
+    private void setListeners(boolean enabled)
+    {
+        // Only held while a dialogue is open, so a closed dialogue keeps no callbacks alive in the client
+        if (enabled) widgets[CLICK_CATCHER].setOnOpListener(continueListener);
+        else widgets[CLICK_CATCHER].setOnOpListener((Object[]) null);
+
+        for (int i = 0; i < MAX_OPTIONS; ++i)
         {
-            // Reset the chatbox to normal
-            // Script: RestoreChatBox
-            client.runScript(ScriptID.CHAT_PROMPT_INIT, 0, "");
+            if (enabled) widgets[FIRST_OPTION + i].setOnOpListener(optionListeners[i]);
+            else widgets[FIRST_OPTION + i].setOnOpListener((Object[]) null);
+        }
+    }
+
+    // --- Pages ---
+
+    private void onContinue()
+    {
+        if (!isDialogueOpen || page == null || page.choices != null) return;
+        showNext();
+    }
 
-            Widget chatbox = client.getWidget(WidgetInfo.CHATBOX_CONTAINER);
-            if (chatbox != null)
+    private void onChoose(int option)
+    {
+        if (!isDialogueOpen || page == null || page.choices == null || option >= page.choices.length) return;
+        queueFirst(page.choices[option].then);
+        showNext();
+    }
+
+    /**
+     * Puts the dialogue's pages at the front of the queue, wrapping their text.
+     */
+    private void queueFirst(Dialogue dialogue)
+    {
+        List<Page> pages = new ArrayList<>();
+        for (Page scripted : dialogue.pages)
+        {
+            if (scripted.text == null)
             {
-                chatbox.deleteAllChildren();
-                chatbox.revalidate();
+                pages.add(scripted);
+                continue;
             }
-            isDialogueOpen = false;
-        });
+            for (String text : wrap(scripted.text))
+            {
+                pages.add(new Page(scripted.npcId, scripted.title, text, scripted.animationId, null, null));
+            }
+        }
+
+        for (int i = pages.size() - 1; i >= 0; --i)
+        {
+            queue.addFirst(pages.get(i));
+        }
+    }
+
+    private void showNext()
+    {
+        // Actions run as they're reached
+        Page next = queue.poll();
+        while (next != null && next.action != null)
+        {
+            next.action.run();
+            next = queue.poll();
+        }
+
+        if (next == null)
+        {
+            close();
+            return;
+        }
+
+        Page previous = page;
+        page = next;
+
+        boolean isOptions = next.choices != null;
+        widgets[NAME].setText(next.title);
+        widgets[NAME].setHidden(false);
+
+        widgets[HEAD].setHidden(isOptions);
+        widgets[BODY].setHidden(isOptions);
+        widgets[CONTINUE].setHidden(isOptions);
+        widgets[CLICK_CATCHER].setHidden(isOptions);
+        for (int i = 0; i < MAX_OPTIONS; ++i)
+        {
+            Widget option = widgets[FIRST_OPTION + i];
+            boolean isShown = isOptions && i < next.choices.length;
+            if (isShown) option.setText(next.choices[i].text);
+            option.setHidden(!isShown);
+        }
+
+        if (isOptions) return;
+
+        widgets[BODY].setText(next.text);
+        if (previous == null || previous.npcId != next.npcId) widgets[HEAD].setModelId(next.npcId); // NPC ID works for Chatheads usually
+        widgets[HEAD].setAnimationId(next.animationId);
+    }
+
+    private void close()
+    {
+        if (!isDialogueOpen) return;
+
+        // Reset the chatbox to normal
+        // Script: RestoreChatBox
+        client.runScript(ScriptID.CHAT_PROMPT_INIT, 0, "");
+
+        queue.clear();
+        page = null;
+        isDialogueOpen = false;
+
+        if (isTreeIntact())
+        {
+            setListeners(false);
+            for (Widget widget : widgets)
+            {
+                widget.setHidden(true);
+            }
+            chatbox.revalidate();
+        }
+    }
+
+    // --- Wrapping ---
+
+    /**
+     * Splits the text into lines that fit the body, joined by {@code <br>}, and into pages of
+     * {@link #LINES_PER_PAGE} lines. Tags take no width. Without a font the client wraps it instead.
+     */
+    private List<String> wrap(String text)
+    {
+        FontTypeFace font = widgets[BODY].getFont();
+        if (font == null) return Collections.singletonList(text);
+        if (font != metricsFont)
+        {
+            metricsFont = font;
+            Arrays.fill(charWidths, -1);
+        }
+
+        List<String> pages = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        int spaceWidth = charWidth(' ');
+        int lines = 1;
+        int lineWidth = 0;
+        boolean isLineStarted = false;
+
+        for (String word : text.split(" "))
+        {
+            int width = textWidth(word);
+            if (isLineStarted && lineWidth + spaceWidth + width > BODY_WIDTH)
+            {
+                if (++lines > LINES_PER_PAGE)
+                {
+                    pages.add(current.toString());
+                    current.setLength(0);
+                    lines = 1;
+                }
+                else
+                {
+                    current.append("<br>");
+                }
+                lineWidth = 0;
+                isLineStarted = false;
+            }
+
+            if (isLineStarted)
+            {
+                current.append(' ');
+                lineWidth += spaceWidth;
+            }
+            current.append(word);
+            lineWidth += width;
+            isLineStarted = true;
+        }
+
+        pages.add(current.toString());
+        return pages;
+    }
+
+    private int textWidth(String word)
+    {
+        int width = 0;
+        for (int i = 0; i < word.length(); ++i)
+        {
+            char c = word.charAt(i);
+            if (c == '<')
+            {
+                int end = word.indexOf('>', i);
+                if (end >= 0)
+                {
+                    i = end;
+                    continue;
+                }
+            }
+            width += charWidth(c);
+        }
+        return width;
+    }
+
+    private int charWidth(char c)
+    {
+        if (c >= charWidths.length) return metricsFont.getTextWidth(String.valueOf(c));
+        if (charWidths[c] < 0) charWidths[c] = metricsFont.getTextWidth(String.valueOf(c));
+        return charWidths[c];
     }
 }
\ No newline at end of file
@@ -0,0 +1,29 @@
+package com.singlehandedmode;
+
+import java.util.function.LongFunction;
+
+/**
+ * The text last formatted for a value, so code that runs every frame only builds a new string when the
+ * value it shows changes.
+ */
+final class FormattedText
+{
+    private final LongFunction<String> format;
+    private long value;
+    private String text;
+
+    FormattedText(LongFunction<String> format)
+    {
+        this.format = format;
+    }
+
+    String get(long value)
+    {
+        if (text == null || value != this.value)
+        {
+            this.value = value;
+            text = format.apply(value);
+        }
+        return text;
+    }
+}
@@ -0,0 +1,228 @@
+package com.singlehandedmode;
+
+import com.google.common.primitives.Ints;
+import java.util.function.LongSupplier;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import net.runelite.api.Constants;
+import net.runelite.api.events.BeforeRender;
+import net.runelite.api.events.GameTick;
+import net.runelite.client.config.ConfigManager;
+import net.runelite.client.eventbus.Subscribe;
+import net.runelite.client.events.ConfigChanged;
+import net.runelite.client.events.FocusChanged;
+
+/**
+ * Sheds cosmetic work when the client is struggling, so it doesn't compete with the game for frame time.
+ *
+ * Frame time and tick jitter are smoothed and checked once a tick. The frame budget is ~30 fps, or a little
+ * slower than the frame rate the user has limited the client to, so a client that is meant to draw slowly
+ * isn't taken as struggling. While either is over budget the level steps down one at a time, and steps back
+ * up once both have been fine for a while:
+ *
+ * <pre>
+ *   FULL                  everything as normal
+ *   COARSE_INTERPOLATION  the agent's walk is drawn in fewer steps
+ *   FEWER_COMMENTS        only every other NPC comment is made
+ *   SLOW_OVERLAYS         the stats panel and shield blockers refresh a few times a second
+ * </pre>
+ *
+ * While the client is unfocused or minimized all of it is suspended. Restrictions are never shed, only the
+ * subsystems that ask the governor are affected.
+ */
+@Slf4j
+@Singleton
+public class FrameGovernor
+{
+    public enum Level { FULL, COARSE_INTERPOLATION, FEWER_COMMENTS, SLOW_OVERLAYS }
+
+    // Under ~30 fps, or a quarter under the frame rate limit if that's lower, or ticks more than a quarter
+    // tick off
+    private static final long FRAME_BUDGET_NANOS = 33_000_000L;
+    private static final long JITTER_BUDGET_NANOS = Constants.GAME_TICK_LENGTH * 1_000_000L / 4;
+
+    // Longer gaps are a load or a stall, not a slow frame or tick, and restart the measurement
+    private static final long MAX_FRAME_NANOS = 1_000_000_000L;
+    private static final long MAX_TICK_NANOS = 3L * Constants.GAME_TICK_LENGTH * 1_000_000L;
+
+    // Step down quickly, step up slowly, so the level doesn't flap
+    private static final int STEP_DOWN_TICKS = 3;
+    private static final int STEP_UP_TICKS = 50;
+
+    public static final int FULL_INTERPOLATION_STEPS = 16;
+    public static final int COARSE_INTERPOLATION_STEPS = 4;
+    private static final int OVERLAY_REFRESH_FRAMES = 10;
+
+    // Where the FPS Control and GPU plugins keep their frame rate limits
+    private static final String FPS_CONTROL_GROUP = "fpscontrol";
+    private static final String GPU_GROUP = "gpu";
+
+    private final ConfigManager configManager;
+    private final LongSupplier nanoTime;
+
+    @Getter
+    private Level level = Level.FULL;
+    @Getter
+    private boolean suspended;
+
+    // Smoothed measurements, see onBeforeRender() and onGameTick()
+    private long lastFrameTime;
+    private long frameNanos;
+    private long lastTickTime;
+    private long jitterNanos;
+
+    private long frameBudgetNanos = FRAME_BUDGET_NANOS;
+    private int overBudgetTicks;
+    private int underBudgetTicks;
+    private int frame;
+    private int commentsDue;
+
+    @Inject
+    public FrameGovernor(ConfigManager configManager)
+    {
+        this(configManager, System::nanoTime);
+    }
+
+    // Package-private so headless runs can keep time by the game tick instead of the wall clock
+    FrameGovernor(ConfigManager configManager, LongSupplier nanoTime)
+    {
+        this.configManager = configManager;
+        this.nanoTime = nanoTime;
+    }
+
+    /**
+     * Starts again from full, with the current frame rate limit. Call before registering.
+     */
+    public void startUp()
+    {
+        level = Level.FULL;
+        suspended = false;
+        lastFrameTime = 0;
+        frameNanos = 0;
+        lastTickTime = 0;
+        jitterNanos = 0;
+        overBudgetTicks = 0;
+        underBudgetTicks = 0;
+        updateFrameBudget();
+    }
+
+    @Subscribe
+    public void onConfigChanged(ConfigChanged event)
+    {
+        if (event.getGroup().equals(FPS_CONTROL_GROUP) || event.getGroup().equals(GPU_GROUP))
+        {
+            updateFrameBudget();
+        }
+    }
+
+    private void updateFrameBudget()
+    {
+        int limit = 0;
+        if (Boolean.parseBoolean(configManager.getConfiguration(FPS_CONTROL_GROUP, "limitFps")))
+        {
+            limit = parseFps(configManager.getConfiguration(FPS_CONTROL_GROUP, "maxFps"));
+        }
+
+        int gpuTarget = parseFps(configManager.getConfiguration(GPU_GROUP, "fpsTarget"));
+        if (gpuTarget > 0 && (limit == 0 || gpuTarget < limit)) limit = gpuTarget;
+
+        frameBudgetNanos = limit > 0 ? Math.max(FRAME_BUDGET_NANOS, 1_000_000_000L / limit * 5 / 4) : FRAME_BUDGET_NANOS;
+    }
+
+    private static int parseFps(String value)
+    {
+        Integer fps = value != null ? Ints.tryParse(value) : null;
+        return fps != null && fps > 0 ? fps : 0;
+    }
+
+    @Subscribe
+    public void onFocusChanged(FocusChanged event)
+    {
+        suspended = !event.isFocused();
+
+        // Unfocused clients run at a lower frame rate, which says nothing about how we're doing
+        lastFrameTime = 0;
+        lastTickTime = 0;
+    }
+
+    @Subscribe
+    public void onBeforeRender(BeforeRender event)
+    {
+        ++frame;
+
+        long now = nanoTime.getAsLong();
+        long interval = now - lastFrameTime;
+        lastFrameTime = now;
+        if (interval > MAX_FRAME_NANOS) return;
+
+        frameNanos += (interval - frameNanos) >> 3;
+    }
+
+    @Subscribe
+    public void onGameTick(GameTick event)
+    {
+        long now = nanoTime.getAsLong();
+        long interval = now - lastTickTime;
+        lastTickTime = now;
+        if (interval > MAX_TICK_NANOS || suspended) return;
+
+        jitterNanos += (Math.abs(interval - Constants.GAME_TICK_LENGTH * 1_000_000L) - jitterNanos) >> 2;
+
+        if (frameNanos > frameBudgetNanos || jitterNanos > JITTER_BUDGET_NANOS)
+        {
+            underBudgetTicks = 0;
+            if (++overBudgetTicks >= STEP_DOWN_TICKS && level.ordinal() < Level.values().length - 1)
+            {
+                setLevel(Level.values()[level.ordinal() + 1]);
+            }
+        }
+        else
+        {
+            overBudgetTicks = 0;
+            if (++underBudgetTicks >= STEP_UP_TICKS && level != Level.FULL)
+            {
+                setLevel(Level.values()[level.ordinal() - 1]);
+            }
+        }
+    }
+
+    private void setLevel(Level level)
+    {
+        log.debug("Cosmetic level {} -> {} (frame {} ms, tick jitter {} ms)", this.level, level,
+                frameNanos / 1_000_000, jitterNanos / 1_000_000);
+        this.level = level;
+        overBudgetTicks = 0;
+        underBudgetTicks = 0;
+    }
+
+    // --- Shedding ---
+
+    /**
+     * Steps the agent's walk between two tiles is drawn in, or 0 to not draw it at all.
+     */
+    public int getInterpolationSteps()
+    {
+        if (suspended) return 0;
+        return level.compareTo(Level.COARSE_INTERPOLATION) >= 0 ? COARSE_INTERPOLATION_STEPS : FULL_INTERPOLATION_STEPS;
+    }
+
+    /**
+     * Whether to make the NPC comment that's due. Call once per comment.
+     */
+    public boolean allowsComment()
+    {
+        if (suspended) return false;
+        return level.compareTo(Level.FEWER_COMMENTS) < 0 || (++commentsDue & 1) == 0;
+    }
+
+    /**
+     * Whether overlays should recompute what they show this frame, rather than draw what they have.
+     */
+    public boolean isOverlayRefreshDue()
+    {
+        if (suspended) return false;
+        return level.compareTo(Level.SLOW_OVERLAYS) < 0 || frame % OVERLAY_REFRESH_FRAMES == 0;
+    }
+}
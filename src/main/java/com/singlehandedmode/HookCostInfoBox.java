@@ -11,6 +11,9 @@ public class HookCostInfoBox extends InfoBox
 {
     private final DurabilityManager durabilityManager;
 
+    // This handles "100K", "10M" formatting automatically
+    private final FormattedText costText = new FormattedText(QuantityFormatter::quantityToStackSize);
+
     public HookCostInfoBox(BufferedImage image, Plugin plugin, DurabilityManager durabilityManager)
     {
         super(image, plugin);
@@ -21,9 +24,7 @@ public class HookCostInfoBox extends InfoBox
     @Override
     public String getText()
     {
-        int cost = durabilityManager.getAccruedCost();
-        // This handles "100K", "10M" formatting automatically
-        return QuantityFormatter.quantityToStackSize(cost);
+        return costText.get(durabilityManager.getAccruedCost());
     }
 
     @Override
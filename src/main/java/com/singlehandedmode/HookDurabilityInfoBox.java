@@ -9,6 +9,7 @@ import net.runelite.client.ui.overlay.infobox.InfoBoxPriority;
 public class HookDurabilityInfoBox extends InfoBox
 {
     private final DurabilityManager durabilityManager;
+    private final FormattedText timeRemaining = new FormattedText(HookDurabilityInfoBox::formatTimeRemaining);
 
     public HookDurabilityInfoBox(BufferedImage image, Plugin plugin, DurabilityManager durabilityManager)
     {
@@ -25,8 +26,12 @@ public class HookDurabilityInfoBox extends InfoBox
 
     public String getTimeRemaining()
     {
-        int ticksLeft = durabilityManager.getCurrentDurability();
+        // Called every frame, only formatted when the durability changes
+        return timeRemaining.get(durabilityManager.getCurrentDurability());
+    }
 
+    private static String formatTimeRemaining(long ticksLeft)
+    {
         // 1 tick = 0.6 seconds
         double totalSeconds = ticksLeft * 0.6;
 
@@ -0,0 +1,174 @@
+package com.singlehandedmode;
+
+/**
+ * The hook's wear, debt and lifetime totals, kept as a lazy clock.
+ *
+ * While the hook is worn, wear grows by the wear rate per tick, lifetime worn by one per tick and a broken
+ * hook's debt by the penalty per tick. These are computed on demand from the start of the current segment
+ * instead of being counted every tick. Anything that changes those rates starts a new segment.
+ *
+ * Plain accounting with no client types, so {@link DurabilityManager} and the economy simulator share it.
+ * Ticks are whatever counter the caller keeps, they only have to be passed in increasing order. Wear is
+ * fixed-point ({@link WearRateTable#ONE} per tick), so partial ticks carry over between segments.
+ *
+ * Only whole ticks of wear are saved, so a partial tick is dropped whenever the ledger is reloaded, e.g.
+ * on the next login. That is under one tick per reload, and only with activity-weighted wear on.
+ */
+public final class HookLedger
+{
+    // Values as of segmentStartTick
+    private long wearFixed;
+    private int penaltyDebt;
+    private boolean broken;
+    private long lifetimeWorn;
+    private long lifetimePaid;
+
+    private long segmentStartTick;
+    private boolean segmentWorn;
+    private int wearRate = WearRateTable.ONE;
+    private int penaltyPerTick;
+
+    public HookLedger(int wearTicks, int penaltyDebt, long lifetimeWorn, long lifetimePaid, int durabilityTicks)
+    {
+        load(wearTicks, penaltyDebt, lifetimeWorn, lifetimePaid, wearTicks >= durabilityTicks);
+    }
+
+    // --- Reading ---
+
+    public int getWearTicks(long now)
+    {
+        return (int) ((wearFixed + getSegmentTicks(now) * wearRate) >> WearRateTable.FRACTION_BITS);
+    }
+
+    public long getLifetimeWorn(long now)
+    {
+        return lifetimeWorn + getSegmentTicks(now);
+    }
+
+    public long getLifetimePaid()
+    {
+        return lifetimePaid;
+    }
+
+    public boolean isBroken()
+    {
+        return broken;
+    }
+
+    public int getDebt(long now)
+    {
+        // A segment only accrues debt once the hook is broken
+        return broken ? (int) (penaltyDebt + getSegmentTicks(now) * penaltyPerTick) : penaltyDebt;
+    }
+
+    /**
+     * Whether a pile of this many coins pays off the debt. Payment is only taken for a broken hook.
+     */
+    public boolean acceptsPayment(long now, long coins)
+    {
+        int debt = getDebt(now);
+        return broken && debt > 0 && coins >= debt;
+    }
+
+    public int getWearRate()
+    {
+        return wearRate;
+    }
+
+    public int getPenaltyPerTick()
+    {
+        return penaltyPerTick;
+    }
+
+    // --- Changes ---
+
+    /**
+     * Moves everything accrued in the current segment into the base values and restarts it from now.
+     */
+    public void fold(long now)
+    {
+        long ticks = getSegmentTicks(now);
+        wearFixed += ticks * wearRate;
+        lifetimeWorn += ticks;
+        if (broken) penaltyDebt += ticks * penaltyPerTick;
+        segmentStartTick = now;
+    }
+
+    /**
+     * Starts a new segment from now with the given rates.
+     *
+     * @return ticks until the hook breaks if nothing else changes, at least 1, or -1 if it won't break
+     */
+    public long startSegment(long now, boolean worn, int wearRate, int penaltyPerTick, int durabilityTicks)
+    {
+        fold(now);
+        this.segmentWorn = worn;
+        this.wearRate = wearRate;
+        this.penaltyPerTick = penaltyPerTick;
+
+        if (!worn || broken || wearRate <= 0) return -1;
+
+        // Breaks on the tick wear reaches durability, or the next tick if it's already past it
+        long remaining = ((long) durabilityTicks << WearRateTable.FRACTION_BITS) - wearFixed;
+        return Math.max(1, (remaining + wearRate - 1) / wearRate);
+    }
+
+    /**
+     * Stops the clock from now until the next segment starts.
+     */
+    public void pause(long now)
+    {
+        fold(now);
+        segmentWorn = false;
+    }
+
+    /**
+     * Breaks the hook now, charging the repair cost. The caller starts a new segment for the penalty.
+     */
+    public void breakHook(long now, int repairCost)
+    {
+        fold(now);
+        penaltyDebt += repairCost;
+        broken = true;
+    }
+
+    /**
+     * Clears the debt as of now. Returns the amount paid.
+     */
+    public int settle(long now)
+    {
+        fold(now);
+        int paid = penaltyDebt;
+        lifetimePaid += paid;
+        penaltyDebt = 0;
+        return paid;
+    }
+
+    /**
+     * Fixes the hook as of now. The caller starts a new segment for the next break.
+     */
+    public void repair(long now)
+    {
+        fold(now);
+        wearFixed = 0;
+        broken = false;
+    }
+
+    /**
+     * Replaces all values, e.g. with counters kept elsewhere. Doesn't touch the current segment.
+     * Any partial tick of wear is dropped, wear restarts on a whole tick.
+     */
+    public void load(long wearTicks, int penaltyDebt, long lifetimeWorn, long lifetimePaid, boolean broken)
+    {
+        this.wearFixed = wearTicks << WearRateTable.FRACTION_BITS;
+        this.penaltyDebt = penaltyDebt;
+        this.lifetimeWorn = lifetimeWorn;
+        this.lifetimePaid = lifetimePaid;
+        this.broken = broken;
+    }
+
+    private long getSegmentTicks(long now)
+    {
+        return segmentWorn ? now - segmentStartTick : 0;
+    }
+}
@@ -30,6 +30,9 @@ public class HookStateManager
     @Inject
     private DurabilityManager durabilityManager;
 
+    @Inject
+    private TickScheduler tickScheduler;
+
     @Getter
     private boolean isPiratesHookEquipped = false;
 
@@ -38,9 +41,10 @@ public class HookStateManager
         return isPiratesHookEquipped && !durabilityManager.isHookBroken();
     }
 
-    // Transient tick tracking
-    private int lastShieldRemovalTick = -1;
-    private int lastHookEquipTick = -1;
+    // Transient same-tick intent, cleared at the start of the next tick
+    private boolean shieldJustRemoved = false;
+    private boolean hookJustEquipped = false;
+    private final TickScheduler.Timer clickIntentExpiry = new TickScheduler.Timer(this::clearClickIntent);
 
     public void onGameTick()
     {
@@ -59,6 +63,7 @@ public class HookStateManager
             {
                 isPiratesHookEquipped = newState;
                 log.debug("Hook state changed: " + isPiratesHookEquipped);
+                durabilityManager.onHookEquippedChanged();
             }
         }
     }
@@ -68,27 +73,33 @@ public class HookStateManager
      */
     public void captureClickIntent(MenuOptionClicked event)
     {
-        int currentTick = client.getTickCount();
-
         if (isShieldRemovalInteraction(event))
         {
-            lastShieldRemovalTick = currentTick;
+            shieldJustRemoved = true;
+            tickScheduler.schedule(clickIntentExpiry, 1);
         }
 
         if (isHookEquipInteraction(event))
         {
-            lastHookEquipTick = currentTick;
+            hookJustEquipped = true;
+            tickScheduler.schedule(clickIntentExpiry, 1);
         }
     }
 
     public boolean wasShieldJustRemoved()
     {
-        return client.getTickCount() == lastShieldRemovalTick;
+        return shieldJustRemoved;
     }
 
     public boolean wasHookJustEquipped()
     {
-        return client.getTickCount() == lastHookEquipTick;
+        return hookJustEquipped;
+    }
+
+    private void clearClickIntent()
+    {
+        shieldJustRemoved = false;
+        hookJustEquipped = false;
     }
 
     // --- Internal Helpers ---
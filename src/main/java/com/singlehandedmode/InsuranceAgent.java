@@ -10,6 +10,10 @@ import net.runelite.api.coords.WorldPoint;
 
 public class InsuranceAgent
 {
+    // Steps a tile's walk is drawn in. render only creates a LocalPoint when the step changes
+    private static final int INTERPOLATION_STEPS = 16;
+    private int steps = INTERPOLATION_STEPS;
+
     private final Client client;
 
     @Getter
@@ -19,6 +23,11 @@ public class InsuranceAgent
     @Getter private WorldPoint previousPos;
     private long lastTickTime;
 
+    // Scene positions of previousPos and currentPos, converted once per move instead of every frame
+    private LocalPoint startLp;
+    private LocalPoint endLp;
+    private int lastStep = -1;
+
     private int currentAnimId = -1;
 
     public InsuranceAgent(Client client)
@@ -28,14 +37,25 @@ public class InsuranceAgent
 
     public void spawn(WorldPoint location, int npcId)
     {
+        AgentSpawnEvent spawnEvent = new AgentSpawnEvent();
+        spawnEvent.begin();
+
         despawn();
         rlo = client.createRuneLiteObject();
 
-        loadModel(npcId);
+        int modelParts = loadModel(npcId);
 
         rlo.setShouldLoop(true);
         rlo.setActive(true);
         snapTo(location);
+
+        spawnEvent.end();
+        if (spawnEvent.shouldCommit())
+        {
+            spawnEvent.npcId = npcId;
+            spawnEvent.modelParts = modelParts;
+            spawnEvent.commit();
+        }
     }
 
     public void despawn()
@@ -47,6 +67,8 @@ public class InsuranceAgent
         }
         previousPos = null;
         currentPos = null;
+        startLp = null;
+        endLp = null;
     }
 
     public boolean isActive()
@@ -67,6 +89,10 @@ public class InsuranceAgent
         previousPos = currentPos;
         currentPos = newPos;
         lastTickTime = System.currentTimeMillis();
+
+        startLp = endLp;
+        endLp = LocalPoint.fromWorld(client, newPos);
+        lastStep = -1;
     }
 
     public void snapTo(WorldPoint newPos)
@@ -76,8 +102,22 @@ public class InsuranceAgent
         previousPos = newPos;
         lastTickTime = System.currentTimeMillis();
 
-        LocalPoint lp = LocalPoint.fromWorld(client, newPos);
-        if (lp != null) rlo.setLocation(lp, newPos.getPlane());
+        endLp = LocalPoint.fromWorld(client, newPos);
+        startLp = endLp;
+        lastStep = steps;
+        if (endLp != null) rlo.setLocation(endLp, newPos.getPlane());
+    }
+
+    /**
+     * Sets how many steps a tile's walk is drawn in, fewer being cheaper and choppier.
+     */
+    public void setInterpolationSteps(int steps)
+    {
+        if (steps == this.steps) return;
+
+        // A finished walk stays finished, one under way carries on at the new resolution
+        lastStep = lastStep == this.steps ? steps : -1;
+        this.steps = steps;
     }
 
     public void setAnimation(int animId)
@@ -110,32 +150,43 @@ public class InsuranceAgent
     {
         if (rlo == null || !rlo.isActive() || previousPos == null || currentPos == null) return;
 
-        LocalPoint startLp = LocalPoint.fromWorld(client, previousPos);
-        LocalPoint endLp = LocalPoint.fromWorld(client, currentPos);
+        // Nothing to move once the step is finished
+        if (lastStep == steps) return;
 
         if (startLp == null || endLp == null)
         {
             if (endLp != null) rlo.setLocation(endLp, currentPos.getPlane());
+            lastStep = steps;
             return;
         }
 
         long timePassed = System.currentTimeMillis() - lastTickTime;
-        float progress = (float) timePassed / Constants.GAME_TICK_LENGTH;
-        if (progress > 1.0f) progress = 1.0f;
+        int step = (int) Math.min(steps, Math.max(0, timePassed * steps / Constants.GAME_TICK_LENGTH));
+        if (step == lastStep) return;
+        lastStep = step;
+
+        if (step == steps)
+        {
+            rlo.setLocation(endLp, currentPos.getPlane());
+            return;
+        }
 
-        int x = (int) (startLp.getX() + ((endLp.getX() - startLp.getX()) * progress));
-        int y = (int) (startLp.getY() + ((endLp.getY() - startLp.getY()) * progress));
+        int x = startLp.getX() + (endLp.getX() - startLp.getX()) * step / steps;
+        int y = startLp.getY() + (endLp.getY() - startLp.getY()) * step / steps;
 
         rlo.setLocation(new LocalPoint(x, y), currentPos.getPlane());
     }
 
-    private void loadModel(int npcId)
+    /**
+     * Loads the NPC's model onto the RLO. Returns the number of model parts merged, or 0 if it couldn't be loaded.
+     */
+    private int loadModel(int npcId)
     {
         NPCComposition config = client.getNpcDefinition(npcId);
-        if (config == null) return;
+        if (config == null) return 0;
 
         int[] modelIds = config.getModels();
-        if (modelIds == null) return;
+        if (modelIds == null) return 0;
 
         net.runelite.api.ModelData[] parts = new net.runelite.api.ModelData[modelIds.length];
         for (int i = 0; i < modelIds.length; i++) parts[i] = client.loadModelData(modelIds[i]);
@@ -154,5 +205,6 @@ public class InsuranceAgent
         }
 
         rlo.setModel(mergedData.light(64, 850, -30, -50, -30));
+        return modelIds.length;
     }
 }
\ No newline at end of file
@@ -1,16 +1,12 @@
 package com.singlehandedmode;
 
-import java.util.Arrays;
-import java.util.HashSet;
 import java.util.Random;
-import java.util.Set;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import net.runelite.api.Client;
 import net.runelite.api.GameState;
-import net.runelite.api.coords.LocalPoint;
 import net.runelite.api.coords.WorldPoint;
 import net.runelite.api.events.ClientTick;
 import net.runelite.api.events.GameStateChanged;
@@ -24,16 +20,20 @@ public class InsuranceAgentManager
     private final DurabilityManager durabilityManager;
     private final PaymentHandler paymentHandler;
     private final AgentPathFinder agentPathFinder;
+    private final FrameGovernor governor;
+    private final TickScheduler tickScheduler;
+    private final PluginMetrics metrics;
 
     @Getter
     private final InsuranceAgent agent;
 
     @Getter
     private String overheadText = null;
-    private int textExpiryTick = -1;
+    private final TickScheduler.Timer textExpiryTimer = new TickScheduler.Timer(() -> overheadText = null);
 
     // Timer for speech (15 seconds * 1.66 ticks/sec = ~25 ticks)
-    private int nextSpeechTick = 0;
+    private boolean isSpeechDue = true;
+    private final TickScheduler.Timer speechTimer = new TickScheduler.Timer(() -> isSpeechDue = true);
     private static final int SPEECH_INTERVAL_TICKS = 25;
 
     private final Random random = new Random();
@@ -80,27 +80,34 @@ public class InsuranceAgentManager
     private static final int ANIM_CRY = 860;
 
     // REGIONS
-    private static final Set<Integer> UNDERWATER_REGIONS = new HashSet<>(Arrays.asList(
+    // Checked every tick, an int[] so region IDs aren't boxed for a lookup
+    private static final int[] UNDERWATER_REGIONS = {
             15008, // Fossil Island Underwater (North)
             15264, // Fossil Island Underwater (South)
             11924, // Mogre Camp
             13194 // Coral nursery
-    ));
+    };
 
     // STATE
     private boolean isUnderwater = false;
     private boolean needsRespawn = false;
     private boolean isLeaving = false;
-    private int departureTick = -1;
+    private final TickScheduler.Timer departureTimer = new TickScheduler.Timer(this::finishDepartureSequence);
+    private static final int DEPARTURE_TICKS = 4;
 
     @Inject
     public InsuranceAgentManager(Client client, DurabilityManager durabilityManager,
-                                 PaymentHandler paymentHandler, AgentPathFinder agentPathFinder)
+                                 PaymentHandler paymentHandler, AgentPathFinder agentPathFinder,
+                                 FrameGovernor governor, TickScheduler tickScheduler,
+                                 PluginMetrics metrics)
     {
         this.client = client;
         this.durabilityManager = durabilityManager;
         this.paymentHandler = paymentHandler;
         this.agentPathFinder = agentPathFinder;
+        this.governor = governor;
+        this.tickScheduler = tickScheduler;
+        this.metrics = metrics;
         this.agent = new InsuranceAgent(client);
     }
 
@@ -110,22 +117,24 @@ public class InsuranceAgentManager
         if (event.getGameState() == GameState.LOGGED_IN || event.getGameState() == GameState.LOADING)
         {
             needsRespawn = true;
-            nextSpeechTick = client.getTickCount() + SPEECH_INTERVAL_TICKS;
+            isSpeechDue = false;
+            tickScheduler.schedule(speechTimer, SPEECH_INTERVAL_TICKS);
         }
     }
 
     @Subscribe
     public void onClientTick(ClientTick event)
     {
+        // Fewer steps when the client is struggling, none while it's in the background
+        int steps = governor.getInterpolationSteps();
+        if (steps == 0) return;
+
+        agent.setInterpolationSteps(steps);
         agent.render();
     }
 
     public void onGameTick()
     {
-        if (textExpiryTick != -1 && client.getTickCount() > textExpiryTick) {
-            overheadText = null; textExpiryTick = -1;
-        }
-
         checkBiome();
 
         if (needsRespawn && client.getGameState() == GameState.LOGGED_IN)
@@ -134,11 +143,8 @@ public class InsuranceAgentManager
             needsRespawn = false;
         }
 
-        if (isLeaving)
-        {
-            handleDepartureSequence();
-            return;
-        }
+        // Departure is finished by departureTimer
+        if (isLeaving) return;
 
         if (!durabilityManager.hasUnpaidDebt())
         {
@@ -150,12 +156,20 @@ public class InsuranceAgentManager
         runAgentBehavior();
     }
 
+    /**
+     * Whether the agent has nothing to do: no money is owed and it has left.
+     */
+    public boolean isIdle()
+    {
+        return !durabilityManager.hasUnpaidDebt() && !isLeaving && !agent.isActive();
+    }
+
     private void checkBiome()
     {
         WorldPoint wp = client.getLocalPlayer().getWorldLocation();
         if (wp == null) return;
 
-        boolean nowUnderwater = UNDERWATER_REGIONS.contains(wp.getRegionID());
+        boolean nowUnderwater = isUnderwaterRegion(wp.getRegionID());
 
         if (nowUnderwater != isUnderwater)
         {
@@ -164,6 +178,15 @@ public class InsuranceAgentManager
         }
     }
 
+    private static boolean isUnderwaterRegion(int regionId)
+    {
+        for (int region : UNDERWATER_REGIONS)
+        {
+            if (region == regionId) return true;
+        }
+        return false;
+    }
+
     private void runAgentBehavior()
     {
         // 1. Handle Dialogue (Timer Based)
@@ -178,27 +201,27 @@ public class InsuranceAgentManager
 
         if (!agent.isActive() || agent.getCurrentPos() == null)
         {
-            WorldPoint spawnPos = new WorldPoint(goal.getX() - 1, goal.getY(), goal.getPlane());
-            agent.spawn(spawnPos, currentNpcId);
+            agent.spawn(besideGoal(goal), currentNpcId);
+            metrics.recordAgentSpawn();
         }
 
-        if (LocalPoint.fromWorld(client, agent.getCurrentPos()) == null)
+        // Checked without converting to a LocalPoint, this runs every tick
+        if (!agent.getCurrentPos().isInScene(client))
         {
-            WorldPoint snapPos = new WorldPoint(goal.getX() - 1, goal.getY(), goal.getPlane());
-            agent.snapTo(snapPos);
+            agent.snapTo(besideGoal(goal));
             return;
         }
 
-        if (agent.getCurrentPos().distanceTo(goal) > 15 || agent.getCurrentPos().getPlane() != goal.getPlane())
+        int distance = agent.getCurrentPos().distanceTo(goal);
+
+        if (distance > 15 || agent.getCurrentPos().getPlane() != goal.getPlane())
         {
-            WorldPoint newPos = new WorldPoint(goal.getX() - 1, goal.getY(), goal.getPlane());
             agent.despawn();
-            agent.spawn(newPos, currentNpcId);
+            agent.spawn(besideGoal(goal), currentNpcId);
+            metrics.recordAgentSpawn();
             return;
         }
 
-        int distance = agent.getCurrentPos().distanceTo(goal);
-
         if (distance > 1)
         {
             WorldPoint nextStep = agentPathFinder.findNextStep(agent.getCurrentPos(), goal);
@@ -221,12 +244,18 @@ public class InsuranceAgentManager
         }
     }
 
-    private void handleDialogue()
+    /**
+     * The tile west of the goal, where the agent appears.
+     */
+    private static WorldPoint besideGoal(WorldPoint goal)
     {
-        int currentTick = client.getTickCount();
+        return new WorldPoint(goal.getX() - 1, goal.getY(), goal.getPlane());
+    }
 
+    private void handleDialogue()
+    {
         // Only speak if interval has passed
-        if (currentTick >= nextSpeechTick)
+        if (isSpeechDue)
         {
             if (paymentHandler.isTrackingPayment())
             {
@@ -251,14 +280,15 @@ public class InsuranceAgentManager
             }
 
             // Reset Timer
-            nextSpeechTick = currentTick + SPEECH_INTERVAL_TICKS;
+            isSpeechDue = false;
+            tickScheduler.schedule(speechTimer, SPEECH_INTERVAL_TICKS);
         }
     }
 
     private void startDepartureSequence()
     {
         isLeaving = true;
-        departureTick = 0;
+        tickScheduler.schedule(departureTimer, DEPARTURE_TICKS);
 
         agent.faceTarget(client.getLocalPlayer().getWorldLocation());
         agent.setAnimation(ANIM_WAVE, false);
@@ -267,19 +297,16 @@ public class InsuranceAgentManager
         say("Pleasure doing business.", 5);
     }
 
-    private void handleDepartureSequence()
+    private void finishDepartureSequence()
     {
-        departureTick++;
-        if (departureTick >= 4)
-        {
-            agent.despawn();
-            isLeaving = false;
-        }
+        agent.despawn();
+        isLeaving = false;
     }
 
     public void say(String text, int durationTicks)
     {
         this.overheadText = text;
-        this.textExpiryTick = client.getTickCount() + durationTicks;
+        // Cleared on the tick after the text has been shown for its full duration
+        tickScheduler.schedule(textExpiryTimer, durationTicks + 1);
     }
 }
\ No newline at end of file
@@ -16,20 +16,33 @@ import net.runelite.client.ui.overlay.OverlayUtil;
 
 public class InsuranceAgentOverlay extends Overlay
 {
+    // Standard OSRS overhead font is usually 12 or 16 bold.
+    private static final Font OVERHEAD_FONT = new Font("RuneScape", Font.BOLD, 16);
+
     private final Client client;
     private final InsuranceAgentManager agentManager;
+    private final PluginProfiler profiler;
 
     @Inject
-    public InsuranceAgentOverlay(Client client, InsuranceAgentManager agentManager)
+    public InsuranceAgentOverlay(Client client, InsuranceAgentManager agentManager, PluginProfiler profiler)
     {
         this.client = client;
         this.agentManager = agentManager;
+        this.profiler = profiler;
         setPosition(OverlayPosition.DYNAMIC);
         setPriority(Overlay.PRIORITY_MED);
     }
 
     @Override
     public Dimension render(Graphics2D graphics)
+    {
+        long start = profiler.start();
+        drawOverheadText(graphics);
+        profiler.stop(PluginProfiler.Section.AGENT_OVERLAY, start);
+        return null;
+    }
+
+    private void drawOverheadText(Graphics2D graphics)
     {
         // 1. Get the Wrapper
         InsuranceAgent agentWrapper = agentManager.getAgent();
@@ -41,18 +54,18 @@ public class InsuranceAgentOverlay extends Overlay
         // We must check if the wrapper exists, AND if the underlying RLO exists/is active
         if (agentWrapper == null || text == null)
         {
-            return null;
+            return;
         }
 
         RuneLiteObject rlo = agentWrapper.getRlo();
         if (rlo == null || !rlo.isActive())
         {
-            return null;
+            return;
         }
 
         // 3. Get Location from the RLO (Visual Location)
         LocalPoint lp = rlo.getLocation();
-        if (lp == null) return null;
+        if (lp == null) return;
 
         // 4. Calculate Text Position
         // A standard human NPC is about 180-200 units tall.
@@ -63,12 +76,9 @@ public class InsuranceAgentOverlay extends Overlay
         if (textLocation != null)
         {
             // Optional: Font styling to match OSRS overheads better
-            // Standard OSRS overhead font is usually 12 or 16 bold.
-            graphics.setFont(new Font("RuneScape", Font.BOLD, 16));
+            graphics.setFont(OVERHEAD_FONT);
 
             OverlayUtil.renderTextLocation(graphics, textLocation, text, Color.YELLOW);
         }
-
-        return null;
     }
 }
\ No newline at end of file
@@ -53,43 +53,53 @@ public class InteractionRestrictionManager
         this.config = config;
     }
 
-    public void checkRestrictions(MenuOptionClicked event)
+    /**
+     * Blocks two-handed interactions. Returns the rule that blocked it, or null if allowed.
+     */
+    public RestrictionRule checkRestrictions(MenuOptionClicked event)
     {
         // Hook bypasses all restrictions
-        if (hookState.isWearingFunctionalHook()) return;
+        if (hookState.isWearingFunctionalHook()) return null;
 
-        if (checkGatheringRestrictions(event) || checkAgilityRestrictions(event) || checkToolRestrictions(event))
+        RestrictionRule rule = checkGatheringRestrictions(event);
+        if (rule == null) rule = checkAgilityRestrictions(event);
+        if (rule == null) rule = checkToolRestrictions(event);
+
+        if (rule != null)
         {
             event.consume();
             client.addChatMessage(ChatMessageType.GAMEMESSAGE, "",
                     "<col=ff0000>You need two hands to do that properly!", null);
         }
+        return rule;
     }
 
-    private boolean checkGatheringRestrictions(MenuOptionClicked event)
+    private RestrictionRule checkGatheringRestrictions(MenuOptionClicked event)
     {
         String option = Text.removeTags(event.getMenuOption()).toLowerCase();
 
-        if (config.disableMining() && option.equals("mine")) return true;
+        if (config.disableMining() && option.equals("mine")) return RestrictionRule.MINING;
+
+        if (config.disableSmithing() && option.equals("smith")) return RestrictionRule.SMITHING;
 
-        if (config.disableSmithing() && option.equals("smith")) return true;
+        if (config.disableFishing() && (option.equals("lure") || option.equals("bait") || option.equals("net"))) return RestrictionRule.FISHING;
 
-        if (config.disableFishing() && (option.equals("lure") || option.equals("bait") || option.equals("net"))) return true;
+        if (config.disableFarming() && (option.equals("rake") || option.equals("dig"))) return RestrictionRule.FARMING;
 
-        return config.disableFarming() && (option.equals("rake") || option.equals("dig"));
+        return null;
     }
 
-    private boolean checkAgilityRestrictions(MenuOptionClicked event)
+    private RestrictionRule checkAgilityRestrictions(MenuOptionClicked event)
     {
         String option = Text.removeTags(event.getMenuOption()).toLowerCase();
         String target = Text.removeTags(event.getMenuTarget()).toLowerCase();
 
         if (config.disableAgilityObstacles())
         {
-            if (option.contains("swing-across") && target.contains("monkey bars")) return true;
-            if (option.contains("swing") && target.contains("rope")) return true;
-            if (option.contains("climb-across") && target.contains("hand holds")) return true;
-            if (option.contains("use") && target.contains("rope -> rock")) return true; // Waterfall Quest
+            if (option.contains("swing-across") && target.contains("monkey bars")) return RestrictionRule.AGILITY_OBSTACLE;
+            if (option.contains("swing") && target.contains("rope")) return RestrictionRule.AGILITY_OBSTACLE;
+            if (option.contains("climb-across") && target.contains("hand holds")) return RestrictionRule.AGILITY_OBSTACLE;
+            if (option.contains("use") && target.contains("rope -> rock")) return RestrictionRule.AGILITY_OBSTACLE; // Waterfall Quest
         }
 
         // Generic climbing checks, separated to handle ladders and ropes.
@@ -99,45 +109,45 @@ public class InteractionRestrictionManager
             log.debug("option contains climb");
             if (target.contains("ladder"))
             {
-                return config.disableLadders();
+                return config.disableLadders() ? RestrictionRule.LADDER : null;
             }
             // Climbing UP ropes is disallowed, but climbing down is kinda fine.
             else if (option.contains("climb-up") && target.contains("rope"))
             {
-                return config.disableClimbingUpRopes();
+                return config.disableClimbingUpRopes() ? RestrictionRule.ROPE_CLIMB : null;
             }
             // If it is NOT a ladder or rope (e.g. rock face, tree), it falls under Agility Obstacles
             else {
                 log.debug("was not a rope or ladder. Must be climbing a normal agility obstacle");
-                return config.disableAgilityObstacles();
+                return config.disableAgilityObstacles() ? RestrictionRule.AGILITY_OBSTACLE : null;
             }
         }
 
-        return false;
+        return null;
     }
 
-    private boolean checkToolRestrictions(MenuOptionClicked event)
+    private RestrictionRule checkToolRestrictions(MenuOptionClicked event)
     {
         // Identify if a tool is being used
         int toolId = getActiveToolId(event);
-        if (toolId == -1) return false;
+        if (toolId == -1) return null;
 
-        if (config.disableFletching() && TOOLS_FLETCHING.contains(toolId)) return true;
-        if (config.disableCrafting() && TOOLS_CRAFTING.contains(toolId)) return true;
-        if (config.disableFarming() && TOOLS_FARMING.contains(toolId)) return true;
-        if (config.disableSmithing() && TOOLS_SMITHING.contains(toolId)) return true;
+        if (config.disableFletching() && TOOLS_FLETCHING.contains(toolId)) return RestrictionRule.FLETCHING;
+        if (config.disableCrafting() && TOOLS_CRAFTING.contains(toolId)) return RestrictionRule.CRAFTING;
+        if (config.disableFarming() && TOOLS_FARMING.contains(toolId)) return RestrictionRule.FARMING;
+        if (config.disableSmithing() && TOOLS_SMITHING.contains(toolId)) return RestrictionRule.SMITHING;
 
 
         // Firemaking usually grouped with "Survival" or Fletching/Crafting logic
         // For now, let's map Tinderbox to Fletching/Crafting as a "Dexterity Tool"
-        if (config.disableFiremaking() && TOOLS_FIREMAKING.contains(toolId)) return true;
+        if (config.disableFiremaking() && TOOLS_FIREMAKING.contains(toolId)) return RestrictionRule.FIREMAKING;
 
         // Construction Saw
-        if (config.disableConstruction() && TOOLS_CONSTRUCTION.contains(toolId)) return true;
+        if (config.disableConstruction() && TOOLS_CONSTRUCTION.contains(toolId)) return RestrictionRule.CONSTRUCTION;
 
-        if (config.disablePestleAndMortar() && toolId == ItemID.PESTLE_AND_MORTAR) return true;
+        if (config.disablePestleAndMortar() && toolId == ItemID.PESTLE_AND_MORTAR) return RestrictionRule.PESTLE_AND_MORTAR;
 
-        return false;
+        return null;
     }
 
     private int getActiveToolId(MenuOptionClicked event)
@@ -0,0 +1,101 @@
+package com.singlehandedmode;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed-size latency histogram in nanoseconds, in the style of HdrHistogram.
+ *
+ * Values below 32ns get a bucket each. Above that, every power of two is split into 16 buckets,
+ * so any recorded value is reported to within ~6%. Values are clamped to {@link #MAX_VALUE} (~18 minutes).
+ *
+ * Recording is lock-free and never allocates, so it is safe from any thread.
+ */
+public class LatencyHistogram
+{
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int HALF_SUB_BUCKETS = SUB_BUCKETS / 2;
+
+    public static final long MAX_VALUE = (1L << 40) - 1;
+    private static final int BUCKETS = bucketIndex(MAX_VALUE) + 1;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final AtomicLong totalCount = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+
+    public void record(long nanos)
+    {
+        long value = Math.max(0, Math.min(MAX_VALUE, nanos));
+        counts.incrementAndGet(bucketIndex(value));
+        totalCount.incrementAndGet();
+
+        long current;
+        while (value > (current = max.get()))
+        {
+            if (max.compareAndSet(current, value)) break;
+        }
+    }
+
+    public long getCount()
+    {
+        return totalCount.get();
+    }
+
+    public long getMax()
+    {
+        return max.get();
+    }
+
+    /**
+     * Returns the value at the given percentile (0-100), as the upper bound of its bucket.
+     * Returns 0 if nothing has been recorded.
+     */
+    public long getValueAtPercentile(double percentile)
+    {
+        long count = totalCount.get();
+        if (count == 0) return 0;
+
+        long target = Math.max(1, (long) Math.ceil(percentile / 100.0 * count));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; ++i)
+        {
+            seen += counts.get(i);
+            if (seen >= target) return Math.min(bucketUpperBound(i), getMax());
+        }
+        return getMax();
+    }
+
+    /**
+     * Clears all recorded values. Values recorded concurrently may be partly lost.
+     */
+    public void reset()
+    {
+        for (int i = 0; i < BUCKETS; ++i)
+        {
+            counts.set(i, 0);
+        }
+        totalCount.set(0);
+        max.set(0);
+    }
+
+    // --- Bucket Layout ---
+
+    private static int bucketIndex(long value)
+    {
+        if (value < SUB_BUCKETS) return (int) value;
+
+        // Shift the value down so it lands in [16, 32), then index within that power of two
+        int shift = (63 - Long.numberOfLeadingZeros(value)) - (SUB_BUCKET_BITS - 1);
+        return (shift + 1) * HALF_SUB_BUCKETS + (int) (value >>> shift) - HALF_SUB_BUCKETS;
+    }
+
+    private static long bucketUpperBound(int index)
+    {
+        if (index < SUB_BUCKETS) return index;
+
+        int shift = index / HALF_SUB_BUCKETS - 1;
+        long subBucket = index % HALF_SUB_BUCKETS + HALF_SUB_BUCKETS;
+        return ((subBucket + 1) << shift) - 1;
+    }
+}
@@ -0,0 +1,52 @@
+package com.singlehandedmode;
+
+import java.util.function.Consumer;
+import javax.inject.Inject;
+import javax.inject.Provider;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * A part of the plugin that is built the first time it's needed rather than when the plugin is, so a
+ * session that never uses it never pays for it. Once built it's kept until the plugin is unloaded.
+ *
+ * Not thread safe; only use from the plugin's lifecycle and event handlers.
+ */
+@Slf4j
+public final class LazyModule<T>
+{
+    private final Provider<T> provider;
+    private T instance;
+
+    @Inject
+    LazyModule(Provider<T> provider)
+    {
+        this.provider = provider;
+    }
+
+    /**
+     * The instance, built now if it hasn't been.
+     */
+    public T get()
+    {
+        if (instance == null)
+        {
+            long start = System.nanoTime();
+            instance = provider.get();
+            log.debug("Built {} in {} us", instance.getClass().getSimpleName(), (System.nanoTime() - start) / 1000);
+        }
+        return instance;
+    }
+
+    public boolean isBuilt()
+    {
+        return instance != null;
+    }
+
+    /**
+     * Runs the action with the instance if it has been built, e.g. to undo registering it.
+     */
+    public void ifBuilt(Consumer<T> action)
+    {
+        if (instance != null) action.accept(instance);
+    }
+}
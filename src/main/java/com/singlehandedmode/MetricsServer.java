@@ -0,0 +1,210 @@
+package com.singlehandedmode;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import lombok.extern.slf4j.Slf4j;
+import net.runelite.client.callback.ClientThread;
+
+/**
+ * Serves {@link PluginMetrics} counters and durability gauges in Prometheus text format
+ * at {@code http://127.0.0.1:<port>/metrics}. Only binds to the loopback address.
+ *
+ * Nothing is rendered until a scrape arrives. Gauges are read on the client thread,
+ * so the HTTP thread never sees durability state mid-update.
+ */
+@Slf4j
+@Singleton
+public class MetricsServer
+{
+    private static final String PREFIX = "singlehandedmode_";
+    private static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+    private static final long GAUGE_TIMEOUT_MILLIS = 1000;
+
+    private final PluginMetrics metrics;
+    private final DurabilityManager durabilityManager;
+    private final ClientThread clientThread;
+
+    private HttpServer server;
+    private ExecutorService executor;
+
+    @Inject
+    public MetricsServer(PluginMetrics metrics, DurabilityManager durabilityManager, ClientThread clientThread)
+    {
+        this.metrics = metrics;
+        this.durabilityManager = durabilityManager;
+        this.clientThread = clientThread;
+    }
+
+    public boolean isRunning()
+    {
+        return server != null;
+    }
+
+    /**
+     * Starts serving on the given port, restarting if it's already running.
+     */
+    public void start(int port)
+    {
+        stop();
+
+        try
+        {
+            server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        }
+        catch (IOException e)
+        {
+            log.warn("Unable to start metrics endpoint on port {}", port, e);
+            return;
+        }
+
+        executor = Executors.newSingleThreadExecutor(r ->
+        {
+            Thread thread = new Thread(r, "single-handed-mode-metrics");
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.setExecutor(executor);
+        server.createContext("/metrics", this::handleScrape);
+        server.start();
+        log.debug("Metrics endpoint listening on {}", server.getAddress());
+    }
+
+    public void stop()
+    {
+        if (server == null) return;
+
+        server.stop(0);
+        executor.shutdownNow();
+        server = null;
+        executor = null;
+    }
+
+    private void handleScrape(HttpExchange exchange) throws IOException
+    {
+        try
+        {
+            if (!"GET".equals(exchange.getRequestMethod()))
+            {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+
+            byte[] body = render().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody())
+            {
+                out.write(body);
+            }
+        }
+        finally
+        {
+            exchange.close();
+        }
+    }
+
+    private String render()
+    {
+        StringBuilder sb = new StringBuilder(2048);
+
+        // 1. Counters
+        counterHeader(sb, "clicks_evaluated_total", "Menu clicks checked against the restrictions.");
+        sample(sb, "clicks_evaluated_total", null, null, metrics.getClicksEvaluated());
+
+        counterHeader(sb, "clicks_blocked_total", "Menu clicks blocked, by rule.");
+        for (RestrictionRule rule : RestrictionRule.values())
+        {
+            sample(sb, "clicks_blocked_total", "rule", rule.name().toLowerCase(Locale.ROOT), metrics.getClicksBlocked(rule));
+        }
+
+        counterHeader(sb, "journal_writes_total", "Durability journal writes, by operation.");
+        for (PluginMetrics.JournalOperation operation : PluginMetrics.JournalOperation.values())
+        {
+            sample(sb, "journal_writes_total", "operation", operation.name().toLowerCase(Locale.ROOT), metrics.getJournalWrites(operation));
+        }
+
+        counterHeader(sb, "path_searches_total", "Insurance agent pathfinding searches.");
+        sample(sb, "path_searches_total", null, null, metrics.getPathSearches());
+
+        counterHeader(sb, "path_nodes_expanded_total", "Nodes expanded by pathfinding searches.");
+        sample(sb, "path_nodes_expanded_total", null, null, metrics.getPathNodesExpanded());
+
+        counterHeader(sb, "npc_comments_total", "NPC comments made about the player.");
+        sample(sb, "npc_comments_total", null, null, metrics.getNpcComments());
+
+        counterHeader(sb, "agent_spawns_total", "Insurance agent spawns and respawns.");
+        sample(sb, "agent_spawns_total", null, null, metrics.getAgentSpawns());
+
+        // 2. Gauges
+        gauge(sb, "startup_micros", "How long the plugin took to start, in microseconds.", metrics.getStartUpNanos() / 1000);
+
+        long[] gauges = readGauges();
+        if (gauges != null)
+        {
+            gauge(sb, "hook_durability_ticks", "Ticks of hook durability remaining.", gauges[0]);
+            gauge(sb, "hook_broken", "1 if the hook is broken, else 0.", gauges[1]);
+            gauge(sb, "debt_gp", "Outstanding repair cost and late fees.", gauges[2]);
+            gauge(sb, "lifetime_paid_gp", "Total GP ever paid to the insurance agent.", gauges[3]);
+            gauge(sb, "lifetime_worn_ticks", "Total ticks the hook has ever been worn.", gauges[4]);
+        }
+
+        return sb.toString();
+    }
+
+    /**
+     * Reads the durability gauges on the client thread. Returns null if it doesn't respond in time.
+     */
+    private long[] readGauges()
+    {
+        CompletableFuture<long[]> future = new CompletableFuture<>();
+        clientThread.invoke(() -> future.complete(new long[]{
+                durabilityManager.getCurrentDurability(),
+                durabilityManager.isHookBroken() ? 1 : 0,
+                durabilityManager.getTotalRepairCost(),
+                durabilityManager.getLifetimePaid(),
+                durabilityManager.getLifetimeWorn()
+        }));
+
+        try
+        {
+            return future.get(GAUGE_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        }
+        catch (Exception e)
+        {
+            log.debug("Client thread didn't provide durability gauges in time", e);
+            return null;
+        }
+    }
+
+    private static void counterHeader(StringBuilder sb, String name, String help)
+    {
+        sb.append("# HELP ").append(PREFIX).append(name).append(' ').append(help).append('\n');
+        sb.append("# TYPE ").append(PREFIX).append(name).append(" counter\n");
+    }
+
+    private static void gauge(StringBuilder sb, String name, String help, long value)
+    {
+        sb.append("# HELP ").append(PREFIX).append(name).append(' ').append(help).append('\n');
+        sb.append("# TYPE ").append(PREFIX).append(name).append(" gauge\n");
+        sample(sb, name, null, null, value);
+    }
+
+    private static void sample(StringBuilder sb, String name, String label, String labelValue, long value)
+    {
+        sb.append(PREFIX).append(name);
+        if (label != null) sb.append('{').append(label).append("=\"").append(labelValue).append("\"}");
+        sb.append(' ').append(value).append('\n');
+    }
+}
@@ -0,0 +1,31 @@
+package com.singlehandedmode;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event for each insurance agent pathfinding search.
+ */
+@Name("com.singlehandedmode.PathSearch")
+@Label("Agent Path Search")
+@Category({"RuneLite", "Single-Handed Mode"})
+@Description("A breadth-first search for the insurance agent's next step")
+@Enabled(false)
+@StackTrace(false)
+public class PathSearchEvent extends Event
+{
+    @Label("Nodes Expanded")
+    int nodesExpanded;
+
+    @Label("Depth")
+    @Description("Length of the path found, or -1 if there was none")
+    int depth;
+
+    @Label("Found")
+    boolean found;
+}
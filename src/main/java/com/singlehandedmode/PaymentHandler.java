@@ -71,7 +71,7 @@ public class PaymentHandler
 
                 // Double-check the item exists and has enough quantity
                 if (item != null && item.getId() == ItemID.COINS_995
-                        && item.getQuantity() >= durabilityManager.getTotalRepairCost())
+                        && durabilityManager.acceptsPayment(item.getQuantity()))
                 {
                     // Start Tracking (Agent will move to this spot)
                     paymentAmount = item.getQuantity();
@@ -0,0 +1,96 @@
+package com.singlehandedmode;
+
+import java.util.concurrent.atomic.LongAdder;
+import javax.inject.Singleton;
+
+/**
+ * Plugin-wide counters, exported by {@link MetricsServer}.
+ *
+ * Counters are striped {@link LongAdder}s, so recording from any thread is cheap and never contends.
+ * They are only summed when scraped.
+ */
+@Singleton
+public class PluginMetrics
+{
+    public enum JournalOperation { APPEND, SYNC, COMPACT }
+
+    private final LongAdder clicksEvaluated = new LongAdder();
+    private final LongAdder[] clicksBlocked = newAdders(RestrictionRule.values().length);
+    private final LongAdder[] journalWrites = newAdders(JournalOperation.values().length);
+    private final LongAdder pathSearches = new LongAdder();
+    private final LongAdder pathNodesExpanded = new LongAdder();
+    private final LongAdder npcComments = new LongAdder();
+    private final LongAdder agentSpawns = new LongAdder();
+
+    // How long the last startUp took
+    private volatile long startUpNanos;
+
+    // --- Recording ---
+
+    /**
+     * Counts a click checked against the restrictions, and the rule that blocked it if not null.
+     */
+    public void recordClick(RestrictionRule blockedBy)
+    {
+        clicksEvaluated.increment();
+        if (blockedBy != null) clicksBlocked[blockedBy.ordinal()].increment();
+    }
+
+    public void recordJournalWrite(JournalOperation operation)
+    {
+        journalWrites[operation.ordinal()].increment();
+    }
+
+    public void recordPathSearch(int nodesExpanded)
+    {
+        pathSearches.increment();
+        pathNodesExpanded.add(nodesExpanded);
+    }
+
+    public void recordNpcComment()
+    {
+        npcComments.increment();
+    }
+
+    public void recordAgentSpawn()
+    {
+        agentSpawns.increment();
+    }
+
+    public void recordStartUp(long nanos)
+    {
+        startUpNanos = nanos;
+    }
+
+    // --- Reading ---
+
+    public long getClicksEvaluated() { return clicksEvaluated.sum(); }
+    public long getClicksBlocked(RestrictionRule rule) { return clicksBlocked[rule.ordinal()].sum(); }
+
+    public long getClicksBlocked()
+    {
+        long total = 0;
+        for (LongAdder adder : clicksBlocked)
+        {
+            total += adder.sum();
+        }
+        return total;
+    }
+
+    public long getJournalWrites(JournalOperation operation) { return journalWrites[operation.ordinal()].sum(); }
+    public long getPathSearches() { return pathSearches.sum(); }
+    public long getPathNodesExpanded() { return pathNodesExpanded.sum(); }
+    public long getNpcComments() { return npcComments.sum(); }
+    public long getAgentSpawns() { return agentSpawns.sum(); }
+    public long getStartUpNanos() { return startUpNanos; }
+
+    private static LongAdder[] newAdders(int count)
+    {
+        LongAdder[] adders = new LongAdder[count];
+        for (int i = 0; i < count; ++i)
+        {
+            adders[i] = new LongAdder();
+        }
+        return adders;
+    }
+}
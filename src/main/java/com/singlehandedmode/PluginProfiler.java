@@ -0,0 +1,134 @@
+package com.singlehandedmode;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import javax.inject.Singleton;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Latency histograms for the plugin's event handlers, pathfinding and overlays.
+ *
+ * Callers bracket the work with {@link #start()} and {@link #stop(Section, long)}.
+ * While disabled, start() returns 0 without reading the clock and stop() ignores it,
+ * so an instrumented section costs a single flag check.
+ */
+@Slf4j
+@Singleton
+public class PluginProfiler
+{
+    public enum Section
+    {
+        GAME_TICK("onGameTick"),
+        CLIENT_TICK("onClientTick"),
+        MENU_OPTION_CLICKED("onMenuOptionClicked"),
+        DOCTOR_MENU_ENTRY("Doctor MenuEntryAdded"),
+        BROKEN_HOOK_MENU_ENTRY("Broken Hook MenuEntryAdded"),
+        FIND_NEXT_STEP("findNextStep"),
+        SHIELD_OVERLAY("Shield Overlay"),
+        BROKEN_HOOK_OVERLAY("Broken Hook Overlay"),
+        AGENT_OVERLAY("Agent Overlay"),
+        STATS_OVERLAY("Stats Overlay");
+
+        @Getter
+        private final String displayName;
+
+        Section(String displayName)
+        {
+            this.displayName = displayName;
+        }
+    }
+
+    private static final long ALLOCATION_SAMPLE_NANOS = 1_000_000_000L;
+
+    private final LatencyHistogram[] histograms = new LatencyHistogram[Section.values().length];
+
+    private volatile boolean enabled;
+
+    // Client thread allocation rate, see sampleAllocationRate()
+    private final com.sun.management.ThreadMXBean allocationBean;
+    private long lastAllocatedBytes = -1;
+    private long lastAllocationSampleTime;
+    @Getter
+    private long allocationBytesPerSecond = -1;
+
+    public PluginProfiler()
+    {
+        for (int i = 0; i < histograms.length; ++i)
+        {
+            histograms[i] = new LatencyHistogram();
+        }
+
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean
+                && ((com.sun.management.ThreadMXBean) bean).isThreadAllocatedMemorySupported())
+        {
+            allocationBean = (com.sun.management.ThreadMXBean) bean;
+        }
+        else
+        {
+            log.debug("Thread allocation counters unavailable, allocation rate won't be shown");
+            allocationBean = null;
+        }
+    }
+
+    public boolean isEnabled()
+    {
+        return enabled;
+    }
+
+    /**
+     * Starts or stops recording. Starting clears everything recorded before.
+     */
+    public void setEnabled(boolean enabled)
+    {
+        if (enabled && !this.enabled)
+        {
+            for (LatencyHistogram histogram : histograms)
+            {
+                histogram.reset();
+            }
+            lastAllocatedBytes = -1;
+            allocationBytesPerSecond = -1;
+        }
+        this.enabled = enabled;
+    }
+
+    /**
+     * Returns a start timestamp to pass to {@link #stop(Section, long)}, or 0 when disabled.
+     */
+    public long start()
+    {
+        return enabled ? System.nanoTime() : 0;
+    }
+
+    public void stop(Section section, long start)
+    {
+        if (start != 0) histograms[section.ordinal()].record(System.nanoTime() - start);
+    }
+
+    public LatencyHistogram getHistogram(Section section)
+    {
+        return histograms[section.ordinal()];
+    }
+
+    /**
+     * Updates the allocation rate of the calling thread, at most once a second.
+     * Call from the client thread.
+     */
+    public void sampleAllocationRate()
+    {
+        if (allocationBean == null) return;
+
+        long now = System.nanoTime();
+        if (lastAllocatedBytes >= 0 && now - lastAllocationSampleTime < ALLOCATION_SAMPLE_NANOS) return;
+
+        long allocated = allocationBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+        if (lastAllocatedBytes >= 0)
+        {
+            allocationBytesPerSecond = (allocated - lastAllocatedBytes) * ALLOCATION_SAMPLE_NANOS / (now - lastAllocationSampleTime);
+        }
+        lastAllocatedBytes = allocated;
+        lastAllocationSampleTime = now;
+    }
+}
@@ -0,0 +1,77 @@
+package com.singlehandedmode;
+
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Graphics2D;
+import javax.inject.Inject;
+import net.runelite.client.ui.overlay.Overlay;
+import net.runelite.client.ui.overlay.OverlayPosition;
+import net.runelite.client.ui.overlay.components.LineComponent;
+import net.runelite.client.ui.overlay.components.PanelComponent;
+import net.runelite.client.ui.overlay.components.TitleComponent;
+
+/**
+ * Debug panel showing p50 / p99 / max latency for each profiled section, and the
+ * client thread's allocation rate. Only registered while profiling is enabled.
+ */
+public class ProfilerOverlay extends Overlay
+{
+    private final PluginProfiler profiler;
+    private final PanelComponent panelComponent = new PanelComponent();
+
+    @Inject
+    public ProfilerOverlay(PluginProfiler profiler)
+    {
+        this.profiler = profiler;
+
+        setPosition(OverlayPosition.TOP_RIGHT);
+        panelComponent.setPreferredSize(new Dimension(300, 0));
+    }
+
+    @Override
+    public Dimension render(Graphics2D graphics)
+    {
+        profiler.sampleAllocationRate();
+
+        panelComponent.getChildren().clear();
+
+        // --- TITLE ---
+        panelComponent.getChildren().add(TitleComponent.builder()
+                .text("Single-Handed Mode Profiler")
+                .color(Color.ORANGE)
+                .build());
+        panelComponent.getChildren().add(LineComponent.builder()
+                .left("Section")
+                .right("p50 / p99 / max (us)")
+                .rightColor(Color.LIGHT_GRAY)
+                .build());
+
+        // --- SECTIONS ---
+        for (PluginProfiler.Section section : PluginProfiler.Section.values())
+        {
+            LatencyHistogram histogram = profiler.getHistogram(section);
+            if (histogram.getCount() == 0) continue;
+
+            panelComponent.getChildren().add(LineComponent.builder()
+                    .left(section.getDisplayName())
+                    .right(formatMicros(histogram.getValueAtPercentile(50))
+                            + " / " + formatMicros(histogram.getValueAtPercentile(99))
+                            + " / " + formatMicros(histogram.getMax()))
+                    .build());
+        }
+
+        // --- ALLOCATION ---
+        long allocationRate = profiler.getAllocationBytesPerSecond();
+        panelComponent.getChildren().add(LineComponent.builder()
+                .left("Client Thread Alloc:")
+                .right(allocationRate < 0 ? "n/a" : String.format("%.1f MB/s", allocationRate / (1024.0 * 1024.0)))
+                .build());
+
+        return panelComponent.render(graphics);
+    }
+
+    private static String formatMicros(long nanos)
+    {
+        return String.format("%.1f", nanos / 1000.0);
+    }
+}
@@ -0,0 +1,35 @@
+package com.singlehandedmode;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event for each menu click checked against the restriction rules. The event's duration
+ * is the time taken to reach the decision.
+ */
+@Name("com.singlehandedmode.RestrictionDecision")
+@Label("Restriction Decision")
+@Category({"RuneLite", "Single-Handed Mode"})
+@Description("A menu click checked against the single-handed restrictions")
+@Enabled(false)
+@StackTrace(false)
+public class RestrictionDecisionEvent extends Event
+{
+    @Label("Option")
+    String option;
+
+    @Label("Item ID")
+    int itemId;
+
+    @Label("Blocked")
+    boolean blocked;
+
+    @Label("Rule")
+    @Description("The rule that blocked the click, if any")
+    String rule;
+}
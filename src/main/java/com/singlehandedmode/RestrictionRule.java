@@ -0,0 +1,46 @@
+package com.singlehandedmode;
+
+import lombok.Getter;
+
+/**
+ * Every rule that can block a click, with the config option that turns it on.
+ * Ordinals are persisted by {@link BlockedActionSketch}, so only add new rules at the end.
+ */
+public enum RestrictionRule
+{
+    // Equipment
+    BROKEN_HOOK("Broken Hook", null),
+    HOOK_REMOVAL("Hook Removal", null),
+    SHIELD_NO_HOOK("Shield", "disableShieldsNoHook"),
+    TWO_HANDED_NO_HOOK("Two-handed", "disable2HWeaponsNoHook"),
+    GRIPPED_OFFHAND("Gripped Offhand", "disableGrippedOffhands"),
+    DUAL_WIELD("Dual Wield", "disableDualWielding"),
+    BOW("Bow", "disableBows"),
+
+    // Interactions
+    MINING("Mining", "disableMining"),
+    SMITHING("Smithing", "disableAnvilSmithing"),
+    FISHING("Fishing", "disableFishing"),
+    FARMING("Farming", "disableFarming"),
+    AGILITY_OBSTACLE("Agility", "disableAgilityObstacles"),
+    LADDER("Ladder", "disableLadders"),
+    ROPE_CLIMB("Rope", "disableClimbingUpRopes"),
+    FLETCHING("Fletching", "disableFletching"),
+    CRAFTING("Crafting", "disableCrafting"),
+    CONSTRUCTION("Saw", "disableConstruction"),
+    FIREMAKING("Tinderbox", "disableFiremaking"),
+    PESTLE_AND_MORTAR("Pestle and Mortar", "disablePestleAndMortar");
+
+    @Getter
+    private final String displayName;
+
+    // Config key of the option for this rule, or null if it's always on
+    @Getter
+    private final String configKey;
+
+    RestrictionRule(String displayName, String configKey)
+    {
+        this.displayName = displayName;
+        this.configKey = configKey;
+    }
+}
@@ -0,0 +1,199 @@
+package com.singlehandedmode;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Binary format of recorded sessions, shared by {@link SessionRecorder} and the replayer.
+ *
+ * <pre>
+ *   Header:  magic (4 bytes), version (1 byte)
+ *   Record:  type, ticks since the previous record, payload
+ * </pre>
+ *
+ * Every number is a varint, signed ones zig-zag encoded, so small values take one byte. Strings are
+ * interned: the first use writes 0 then the UTF-8 bytes, later uses write the table index + 1. Record
+ * payloads are documented on the record types.
+ */
+final class SessionFormat
+{
+    static final int MAGIC = 0x53484D52; // "SHMR"
+    static final byte VERSION = 1;
+    static final String EXTENSION = ".shmrec";
+
+    // --- Record Types ---
+
+    /** Client ticks since the last game tick, local player x, y and plane as deltas. */
+    static final int GAME_TICK = 1;
+    /** Option, target, menu action ID, identifier, item ID, param0, param1. */
+    static final int MENU_OPTION_CLICKED = 2;
+    /** As {@link #MENU_OPTION_CLICKED}. */
+    static final int MENU_ENTRY_ADDED = 3;
+    /** Container ID, slot count, then each slot's item ID (-1 if empty) and quantity if not empty. */
+    static final int ITEM_CONTAINER_CHANGED = 4;
+    /** Item ID, quantity, world x, y and plane. */
+    static final int ITEM_DESPAWNED = 5;
+    /** Game state ID. */
+    static final int GAME_STATE_CHANGED = 6;
+    /**
+     * Scene base x and y, plane, then for each plane the collision flags as (run length, flags) pairs,
+     * then the NPC count and each NPC's index, ID, name, world x, y and plane.
+     */
+    static final int SCENE = 7;
+
+    static final int PLANES = 4;
+    static final int SCENE_SIZE = 104;
+
+    private SessionFormat()
+    {
+    }
+
+    /**
+     * Appends records to a growable buffer. Only use from one thread.
+     */
+    static final class Writer
+    {
+        private final Map<String, Integer> strings = new HashMap<>();
+        private byte[] buf = new byte[8192];
+        private int size;
+
+        Writer()
+        {
+            writeInt(MAGIC);
+            buf[size++] = VERSION;
+        }
+
+        int size()
+        {
+            return size;
+        }
+
+        /**
+         * Returns the bytes written since the last drain and empties the buffer. The string table is kept,
+         * as the drained bytes belong to the same stream.
+         */
+        byte[] drain()
+        {
+            byte[] bytes = Arrays.copyOf(buf, size);
+            size = 0;
+            return bytes;
+        }
+
+        void writeRecord(int type, int ticks)
+        {
+            writeVarInt(type);
+            writeVarInt(ticks);
+        }
+
+        void writeVarInt(int value)
+        {
+            ensure(5);
+            while ((value & ~0x7F) != 0)
+            {
+                buf[size++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buf[size++] = (byte) value;
+        }
+
+        void writeSignedVarInt(int value)
+        {
+            writeVarInt((value << 1) ^ (value >> 31));
+        }
+
+        void writeString(String value)
+        {
+            if (value == null) value = "";
+
+            Integer index = strings.get(value);
+            if (index != null)
+            {
+                writeVarInt(index + 1);
+                return;
+            }
+            strings.put(value, strings.size());
+
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarInt(0);
+            writeVarInt(bytes.length);
+            ensure(bytes.length);
+            System.arraycopy(bytes, 0, buf, size, bytes.length);
+            size += bytes.length;
+        }
+
+        private void writeInt(int value)
+        {
+            ensure(4);
+            buf[size++] = (byte) (value >>> 24);
+            buf[size++] = (byte) (value >>> 16);
+            buf[size++] = (byte) (value >>> 8);
+            buf[size++] = (byte) value;
+        }
+
+        private void ensure(int bytes)
+        {
+            if (size + bytes > buf.length) buf = Arrays.copyOf(buf, Math.max(size + bytes, buf.length * 2));
+        }
+    }
+
+    /**
+     * Reads a whole recorded stream.
+     */
+    static final class Reader
+    {
+        private final List<String> strings = new ArrayList<>();
+        private final ByteBuffer buf;
+
+        Reader(byte[] data)
+        {
+            buf = ByteBuffer.wrap(data);
+            if (buf.remaining() < 5 || buf.getInt() != MAGIC || buf.get() != VERSION)
+            {
+                throw new IllegalArgumentException("Not a recorded session, or an unknown version");
+            }
+        }
+
+        boolean hasRemaining()
+        {
+            return buf.hasRemaining();
+        }
+
+        int readVarInt()
+        {
+            int value = 0;
+            for (int shift = 0; shift < 35; shift += 7)
+            {
+                byte b = buf.get();
+                value |= (b & 0x7F) << shift;
+                if (b >= 0) return value;
+            }
+            throw new IllegalArgumentException("Malformed varint at " + buf.position());
+        }
+
+        int readSignedVarInt()
+        {
+            int v = readVarInt();
+            return (v >>> 1) ^ -(v & 1);
+        }
+
+        String readString()
+        {
+            int index = readVarInt();
+            if (index > 0) return strings.get(index - 1);
+
+            int length = readVarInt();
+            if (length > buf.remaining()) throw new BufferUnderflowException();
+
+            String value = new String(buf.array(), buf.position(), length, StandardCharsets.UTF_8);
+            buf.position(buf.position() + length);
+            strings.add(value);
+            return value;
+        }
+    }
+}
@@ -0,0 +1,315 @@
+package com.singlehandedmode;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ScheduledExecutorService;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import lombok.extern.slf4j.Slf4j;
+import net.runelite.api.ChatMessageType;
+import net.runelite.api.Client;
+import net.runelite.api.CollisionData;
+import net.runelite.api.GameState;
+import net.runelite.api.InventoryID;
+import net.runelite.api.Item;
+import net.runelite.api.ItemContainer;
+import net.runelite.api.MenuEntry;
+import net.runelite.api.NPC;
+import net.runelite.api.Player;
+import net.runelite.api.WorldView;
+import net.runelite.api.coords.WorldPoint;
+import net.runelite.api.events.ClientTick;
+import net.runelite.api.events.GameStateChanged;
+import net.runelite.api.events.GameTick;
+import net.runelite.api.events.ItemContainerChanged;
+import net.runelite.api.events.ItemDespawned;
+import net.runelite.api.events.MenuEntryAdded;
+import net.runelite.api.events.MenuOptionClicked;
+import net.runelite.client.RuneLite;
+import net.runelite.client.callback.ClientThread;
+import net.runelite.client.eventbus.Subscribe;
+
+/**
+ * Developer mode recorder of the events the plugin reacts to, for replaying a player's session offline.
+ *
+ * Registered on the event bus only while recording, ahead of the plugin so clicks are recorded before
+ * they're consumed. Records are encoded into memory on the client thread and appended to the file in
+ * the background every {@link #FLUSH_BYTES}. See {@link SessionFormat} for the format.
+ *
+ * The writer belongs to the client thread, like the events it records. Stopping hands over to it.
+ */
+@Slf4j
+@Singleton
+public class SessionRecorder
+{
+    private static final int PRIORITY = 100;
+    private static final int FLUSH_BYTES = 64 * 1024;
+    private static final File SESSION_DIR = new File(RuneLite.RUNELITE_DIR, "single-handed-mode");
+
+    private final Client client;
+    private final ClientThread clientThread;
+    private final ScheduledExecutorService executor;
+
+    private SessionFormat.Writer writer;
+    private Path file;
+    private int lastTick;
+    private int clientTicks;
+    private int playerX;
+    private int playerY;
+    private int playerPlane;
+    private GameState lastGameState;
+
+    @Inject
+    public SessionRecorder(Client client, ClientThread clientThread, ScheduledExecutorService executor)
+    {
+        this.client = client;
+        this.clientThread = clientThread;
+        this.executor = executor;
+    }
+
+    public boolean isRecording()
+    {
+        return writer != null;
+    }
+
+    /**
+     * Starts a new recording with the current scene and containers, so replay starts from the same state.
+     * The caller registers this on the event bus.
+     */
+    public void start()
+    {
+        if (writer != null) return;
+
+        writer = new SessionFormat.Writer();
+        file = new File(SESSION_DIR, "session-" + System.currentTimeMillis() + SessionFormat.EXTENSION).toPath();
+        lastTick = client.getTickCount();
+        clientTicks = 0;
+        playerX = playerY = playerPlane = 0;
+        lastGameState = client.getGameState();
+
+        writeGameState(lastGameState);
+        if (lastGameState == GameState.LOGGED_IN)
+        {
+            writeScene();
+            writeContainer(client.getItemContainer(InventoryID.EQUIPMENT));
+            writeContainer(client.getItemContainer(InventoryID.INVENTORY));
+        }
+    }
+
+    /**
+     * Ends the recording, writes what's left and reports the file in chat.
+     */
+    public void stop()
+    {
+        clientThread.invoke(this::stopOnClientThread);
+    }
+
+    private void stopOnClientThread()
+    {
+        if (writer == null) return;
+
+        flush();
+        writer = null;
+
+        // Queued behind the last write, so the file is complete by the time it's reported
+        String message = "Session recorded to " + file;
+        executor.execute(() -> clientThread.invokeLater(() ->
+                client.addChatMessage(ChatMessageType.GAMEMESSAGE, "", message, null)));
+    }
+
+    // --- Events ---
+
+    @Subscribe(priority = PRIORITY)
+    public void onClientTick(ClientTick event)
+    {
+        ++clientTicks;
+    }
+
+    @Subscribe(priority = PRIORITY)
+    public void onGameTick(GameTick event)
+    {
+        record(SessionFormat.GAME_TICK);
+        writer.writeVarInt(clientTicks);
+        clientTicks = 0;
+
+        // Player position as deltas, unchanged if there's no player
+        Player player = client.getLocalPlayer();
+        WorldPoint location = player != null ? player.getWorldLocation() : null;
+        int x = location != null ? location.getX() : playerX;
+        int y = location != null ? location.getY() : playerY;
+        int plane = location != null ? location.getPlane() : playerPlane;
+        writer.writeSignedVarInt(x - playerX);
+        writer.writeSignedVarInt(y - playerY);
+        writer.writeSignedVarInt(plane - playerPlane);
+        playerX = x;
+        playerY = y;
+        playerPlane = plane;
+
+        if (writer.size() >= FLUSH_BYTES) flush();
+    }
+
+    @Subscribe(priority = PRIORITY)
+    public void onMenuOptionClicked(MenuOptionClicked event)
+    {
+        record(SessionFormat.MENU_OPTION_CLICKED);
+        writeMenuEntry(event.getMenuEntry());
+    }
+
+    @Subscribe(priority = PRIORITY)
+    public void onMenuEntryAdded(MenuEntryAdded event)
+    {
+        record(SessionFormat.MENU_ENTRY_ADDED);
+        writeMenuEntry(event.getMenuEntry());
+    }
+
+    @Subscribe(priority = PRIORITY)
+    public void onItemContainerChanged(ItemContainerChanged event)
+    {
+        writeContainer(event.getItemContainer());
+    }
+
+    @Subscribe(priority = PRIORITY)
+    public void onItemDespawned(ItemDespawned event)
+    {
+        WorldPoint location = event.getTile().getWorldLocation();
+
+        record(SessionFormat.ITEM_DESPAWNED);
+        writer.writeSignedVarInt(event.getItem().getId());
+        writer.writeVarInt(event.getItem().getQuantity());
+        writer.writeSignedVarInt(location.getX());
+        writer.writeSignedVarInt(location.getY());
+        writer.writeVarInt(location.getPlane());
+    }
+
+    @Subscribe(priority = PRIORITY)
+    public void onGameStateChanged(GameStateChanged event)
+    {
+        GameState state = event.getGameState();
+        writeGameState(state);
+
+        // The scene is ready once loading ends
+        if (state == GameState.LOGGED_IN && lastGameState == GameState.LOADING) writeScene();
+        lastGameState = state;
+    }
+
+    // --- Encoding ---
+
+    private void record(int type)
+    {
+        int tick = client.getTickCount();
+        writer.writeRecord(type, Math.max(0, tick - lastTick));
+        lastTick = tick;
+    }
+
+    private void writeMenuEntry(MenuEntry entry)
+    {
+        writer.writeString(entry.getOption());
+        writer.writeString(entry.getTarget());
+        writer.writeVarInt(entry.getType().getId());
+        writer.writeSignedVarInt(entry.getIdentifier());
+        writer.writeSignedVarInt(entry.getItemId());
+        writer.writeSignedVarInt(entry.getParam0());
+        writer.writeSignedVarInt(entry.getParam1());
+    }
+
+    private void writeContainer(ItemContainer container)
+    {
+        if (container == null) return;
+
+        Item[] items = container.getItems();
+        record(SessionFormat.ITEM_CONTAINER_CHANGED);
+        writer.writeSignedVarInt(container.getId());
+        writer.writeVarInt(items.length);
+        for (Item item : items)
+        {
+            int id = item != null ? item.getId() : -1;
+            writer.writeSignedVarInt(id);
+            if (id >= 0) writer.writeVarInt(item.getQuantity());
+        }
+    }
+
+    private void writeGameState(GameState state)
+    {
+        record(SessionFormat.GAME_STATE_CHANGED);
+        writer.writeSignedVarInt(state.getState());
+    }
+
+    private void writeScene()
+    {
+        WorldView worldView = client.getTopLevelWorldView();
+        CollisionData[] collisionMaps = worldView.getCollisionMaps();
+
+        record(SessionFormat.SCENE);
+        writer.writeSignedVarInt(worldView.getBaseX());
+        writer.writeSignedVarInt(worldView.getBaseY());
+        writer.writeVarInt(worldView.getPlane());
+
+        // 1. Collision flags, run-length encoded, most of a scene is runs of the same flags
+        for (int plane = 0; plane < SessionFormat.PLANES; ++plane)
+        {
+            int[][] flags = collisionMaps != null && plane < collisionMaps.length && collisionMaps[plane] != null
+                    ? collisionMaps[plane].getFlags() : null;
+
+            int run = 0;
+            int runFlags = 0;
+            for (int x = 0; x < SessionFormat.SCENE_SIZE; ++x)
+            {
+                for (int y = 0; y < SessionFormat.SCENE_SIZE; ++y)
+                {
+                    int cell = flags != null ? flags[x][y] : 0;
+                    if (run > 0 && cell != runFlags)
+                    {
+                        writer.writeVarInt(run);
+                        writer.writeVarInt(runFlags);
+                        run = 0;
+                    }
+                    runFlags = cell;
+                    ++run;
+                }
+            }
+            writer.writeVarInt(run);
+            writer.writeVarInt(runFlags);
+        }
+
+        // 2. NPCs
+        int count = 0;
+        for (NPC npc : worldView.npcs())
+        {
+            if (npc != null) ++count;
+        }
+        writer.writeVarInt(count);
+        for (NPC npc : worldView.npcs())
+        {
+            if (npc == null) continue;
+
+            WorldPoint location = npc.getWorldLocation();
+            writer.writeVarInt(npc.getIndex());
+            writer.writeVarInt(npc.getId());
+            writer.writeString(npc.getName());
+            writer.writeSignedVarInt(location.getX());
+            writer.writeSignedVarInt(location.getY());
+            writer.writeVarInt(location.getPlane());
+        }
+    }
+
+    private void flush()
+    {
+        byte[] bytes = writer.drain();
+        Path path = file;
+        executor.execute(() ->
+        {
+            try
+            {
+                Files.createDirectories(SESSION_DIR.toPath());
+                Files.write(path, bytes, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            }
+            catch (IOException e)
+            {
+                log.warn("Unable to write session recording", e);
+            }
+        });
+    }
+}
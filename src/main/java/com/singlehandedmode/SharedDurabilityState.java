@@ -0,0 +1,228 @@
+package com.singlehandedmode;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import lombok.extern.slf4j.Slf4j;
+import net.runelite.client.RuneLite;
+
+/**
+ * Hook wear and debt shared between RuneLite clients on this machine, through a small memory-mapped file.
+ *
+ * The file is an array of longs, updated with atomic operations so concurrent clients never lose
+ * each other's changes. Every write also bumps a sequence number, so other clients only need to
+ * re-read the counters when {@link #getSequence()} has moved.
+ *
+ * Wear and the broken flag share one slot, so a repair clears both in a single atomic write and
+ * no client can ever read a repaired hook that is still broken, or a broken one with no wear.
+ *
+ * The file is mapped and seeded on the {@link BackgroundLane}, as that can wait on another client, and then
+ * attached, read and closed on the client thread.
+ */
+@Slf4j
+@Singleton
+public class SharedDurabilityState
+{
+    public static final int WEAR = 2;
+    public static final int DEBT = 3;
+    public static final int LIFETIME_WORN = 4;
+    public static final int LIFETIME_PAID = 5;
+
+    // Set in the WEAR slot once the hook has broken, wear ticks never get near it
+    public static final long BROKEN_FLAG = 1L << 62;
+    public static final long WEAR_MASK = BROKEN_FLAG - 1;
+
+    private static final int MAGIC_SLOT = 0;
+    private static final int SEQUENCE_SLOT = 1;
+    private static final int SLOTS = 8;
+    private static final int SIZE = SLOTS * Long.BYTES;
+
+    private static final long MAGIC = 0x53484D5348415232L; // "SHMSHAR2"
+    private static final int SEED_WAIT_MILLIS = 500;
+    // Seeding takes microseconds, a seed this old was left behind by a client that died partway
+    private static final int SEED_STALE_MILLIS = 250;
+    private static final int SEED_POLL_MILLIS = 1;
+
+    private static final File SHARED_FILE = new File(new File(RuneLite.RUNELITE_DIR, "single-handed-mode"), "durability.shared");
+
+    // Atomic long access into the mapped buffer. Slots are 8-byte aligned, as the mapping starts on a page.
+    private static final VarHandle LONGS = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+
+    private final File file;
+
+    // Only attached once the file is seeded, so a non-null buffer is always ready to use
+    private volatile MappedByteBuffer buffer;
+
+    @Inject
+    public SharedDurabilityState()
+    {
+        this(SHARED_FILE);
+    }
+
+    // Package-private so tests can share a file of their own
+    SharedDurabilityState(File file)
+    {
+        this.file = file;
+    }
+
+    public boolean isOpen()
+    {
+        return buffer != null;
+    }
+
+    /**
+     * Maps the shared file. If no client has initialised it yet, it is seeded with the given values
+     * (indexed by the slot constants). Returns null if the file couldn't be mapped or was never seeded.
+     * Waits while another client is seeding it, so call from the lane, then {@link #attach} the result.
+     */
+    public MappedByteBuffer map(long[] seed)
+    {
+        final MappedByteBuffer mapped;
+        try
+        {
+            Files.createDirectories(file.getParentFile().toPath());
+            try (FileChannel channel = FileChannel.open(file.toPath(),
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE))
+            {
+                // The mapping stays valid after the channel is closed
+                mapped = channel.map(FileChannel.MapMode.READ_WRITE, 0, SIZE);
+            }
+        }
+        catch (IOException e)
+        {
+            log.warn("Unable to map shared durability state", e);
+            return null;
+        }
+
+        if (!awaitSeeded(mapped, seed))
+        {
+            log.warn("Shared durability state was never initialised, ignoring it");
+            return null;
+        }
+        return mapped;
+    }
+
+    /**
+     * Starts using a file mapped by {@link #map}.
+     */
+    public void attach(MappedByteBuffer mapped)
+    {
+        buffer = mapped;
+    }
+
+    public void close()
+    {
+        // Mapped buffers can't be unmapped explicitly, the GC releases it
+        buffer = null;
+    }
+
+    public long getSequence()
+    {
+        return (long) LONGS.getVolatile(mapped(), offset(SEQUENCE_SLOT));
+    }
+
+    public long get(int slot)
+    {
+        return (long) LONGS.getVolatile(mapped(), offset(slot));
+    }
+
+    /**
+     * Atomically adds to a counter, returning the new value.
+     */
+    public long add(int slot, long delta)
+    {
+        final MappedByteBuffer mapped = mapped();
+        long value = (long) LONGS.getAndAdd(mapped, offset(slot), delta) + delta;
+        bumpSequence(mapped);
+        return value;
+    }
+
+    /**
+     * Atomically replaces a counter, returning the old value.
+     */
+    public long getAndSet(int slot, long value)
+    {
+        final MappedByteBuffer mapped = mapped();
+        long old = (long) LONGS.getAndSet(mapped, offset(slot), value);
+        bumpSequence(mapped);
+        return old;
+    }
+
+    /**
+     * Atomically sets bits in a counter. Returns true only for the call that actually set them.
+     */
+    public boolean setBits(int slot, long bits)
+    {
+        final MappedByteBuffer mapped = mapped();
+        long old = (long) LONGS.getAndBitwiseOr(mapped, offset(slot), bits);
+        if ((old & bits) == bits) return false;
+        bumpSequence(mapped);
+        return true;
+    }
+
+    /**
+     * The first client in seeds the counters, everyone else waits for it to finish.
+     *
+     * While seeding, the magic slot holds the time the seeder started instead of the magic. A stamp
+     * that goes stale means the seeder died partway, and the next client to notice takes over. Files
+     * from an older layout carry a different magic, which reads as a long-stale stamp and is reseeded.
+     */
+    private static boolean awaitSeeded(MappedByteBuffer mapped, long[] seed)
+    {
+        long deadline = System.currentTimeMillis() + SEED_WAIT_MILLIS;
+        while (true)
+        {
+            long state = (long) LONGS.getVolatile(mapped, offset(MAGIC_SLOT));
+            if (state == MAGIC) return true;
+
+            long now = System.currentTimeMillis();
+            boolean claimable = state == 0 || Math.abs(now - state) > SEED_STALE_MILLIS;
+            if (claimable && LONGS.compareAndSet(mapped, offset(MAGIC_SLOT), state, now))
+            {
+                for (int slot = WEAR; slot <= LIFETIME_PAID; ++slot)
+                {
+                    LONGS.setVolatile(mapped, offset(slot), seed[slot]);
+                }
+                // Fails if we stalled long enough for another client to take over, which then wins
+                if (LONGS.compareAndSet(mapped, offset(MAGIC_SLOT), now, MAGIC)) return true;
+                continue;
+            }
+
+            if (now > deadline) return false;
+            try
+            {
+                Thread.sleep(SEED_POLL_MILLIS);
+            }
+            catch (InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+    }
+
+    private MappedByteBuffer mapped()
+    {
+        final MappedByteBuffer mapped = buffer;
+        if (mapped == null) throw new IllegalStateException("Shared durability state is not open");
+        return mapped;
+    }
+
+    private static void bumpSequence(MappedByteBuffer mapped)
+    {
+        LONGS.getAndAdd(mapped, offset(SEQUENCE_SLOT), 1L);
+    }
+
+    private static int offset(int slot)
+    {
+        return slot * Long.BYTES;
+    }
+}
@@ -29,14 +29,23 @@ public class ShieldRestrictionOverlay extends Overlay
     private final HookStateManager hookStateManager;
     private final ItemManager itemManager;
     private final SingleHandedModeConfig config;
+    private final PluginProfiler profiler;
+    private final FrameGovernor governor;
+
+    // Where each shield slot was last seen on screen, null if it wasn't. Drawn every frame,
+    // looked up again when the governor allows.
+    private final Rectangle[] slotBounds = new Rectangle[SHIELD_SLOTS.length];
 
     @Inject
-    public ShieldRestrictionOverlay(Client client, HookStateManager hookStateManager, ItemManager itemManager, SingleHandedModeConfig config)
+    public ShieldRestrictionOverlay(Client client, HookStateManager hookStateManager, ItemManager itemManager, SingleHandedModeConfig config,
+                                    PluginProfiler profiler, FrameGovernor governor)
     {
         this.client = client;
         this.hookStateManager = hookStateManager;
         this.itemManager = itemManager;
         this.config = config;
+        this.profiler = profiler;
+        this.governor = governor;
 
         setPosition(OverlayPosition.DYNAMIC);
         setLayer(OverlayLayer.ABOVE_WIDGETS);
@@ -44,40 +53,48 @@ public class ShieldRestrictionOverlay extends Overlay
 
     @Override
     public Dimension render(Graphics2D graphics)
+    {
+        long start = profiler.start();
+        drawBlockers(graphics);
+        profiler.stop(PluginProfiler.Section.SHIELD_OVERLAY, start);
+        return null;
+    }
+
+    private void drawBlockers(Graphics2D graphics)
     {
         // 1. Logic Check: Only draw if rule is active and hook is missing
         if (hookStateManager.isWearingFunctionalHook() || !config.disableShieldsNoHook())
         {
-            return null;
+            return;
         }
 
         // 2. Load Image (Bank Filler / Cancel Sign)
         BufferedImage bankFillerImage = itemManager.getImage(ItemID.BANK_FILLER);
         if (bankFillerImage == null)
         {
-            return null;
+            return;
         }
 
         // 3. Iterate through all known shield slots
-        for (int widgetId : SHIELD_SLOTS)
+        if (governor.isOverlayRefreshDue())
         {
-            Widget shieldSlot = client.getWidget(widgetId);
-
-            // Skip if this specific widget isn't currently on screen
-            if (shieldSlot == null || shieldSlot.isHidden())
+            for (int i = 0; i < SHIELD_SLOTS.length; ++i)
             {
-                continue;
-            }
+                Widget shieldSlot = client.getWidget(SHIELD_SLOTS[i]);
 
-            drawBlocker(graphics, shieldSlot, bankFillerImage);
+                // Skip if this specific widget isn't currently on screen
+                slotBounds[i] = shieldSlot == null || shieldSlot.isHidden() ? null : shieldSlot.getBounds();
+            }
         }
 
-        return null;
+        for (Rectangle bounds : slotBounds)
+        {
+            if (bounds != null) drawBlocker(graphics, bounds, bankFillerImage);
+        }
     }
 
-    private void drawBlocker(Graphics2D graphics, Widget widget, BufferedImage image)
+    private void drawBlocker(Graphics2D graphics, Rectangle bounds, BufferedImage image)
     {
-        Rectangle bounds = widget.getBounds();
 
         // Calculate center position
         int x = bounds.x + (bounds.width - image.getWidth()) / 2;
@@ -255,7 +255,7 @@ public interface SingleHandedModeConfig extends Config
 	@ConfigItem(
 			keyName = "hookDurabilityTicks",
 			name = "Durability (Ticks)",
-			description = "How many Ticks the hook lasts before breaking.",
+			description = "How many Ticks the hook lasts before breaking, at normal activity.",
 			position = 51,
 			section = sectionEconomy
 	)
@@ -278,25 +278,39 @@ public interface SingleHandedModeConfig extends Config
 	)
 	default int penaltyPerSecond() { return 100; } // 100 gp/sec = 6k gp/min
 
-	// --- HIDDEN PERSISTENCE KEYS ---
-	// We do not add these to a 'section' or give them names,
-	// but we use the ConfigManager to read/write them programmatically.
+	@ConfigItem(
+			keyName = "sharedDurabilityState",
+			name = "Share Between Clients",
+			description = "Share hook wear and debt with other RuneLite clients running on this computer.",
+			position = 54,
+			section = sectionEconomy
+	)
+	default boolean sharedDurabilityState() { return false; }
+
+	@ConfigItem(
+			keyName = "activityWeightedWear",
+			name = "Activity-Based Wear",
+			description = "Wear the hook faster in combat and heavy skilling, and slower while idle.",
+			position = 55,
+			section = sectionEconomy
+	)
+	default boolean activityWeightedWear() { return false; }
+
+	// --- LEGACY PERSISTENCE KEYS ---
+	// Wear, debt and lifetime stats are now stored in DurabilityJournal.
+	// These are only read once, to migrate state saved by older versions.
 	@ConfigItem(
 			keyName = "currentWearTicks",
 			name = "current wear ticks",
 			description = "",
-//			hidden = true
-	position = 54,
-	section = sectionEconomy
+			hidden = true
 	)
 	default int currentWearTicks() { return 0; }
 	@ConfigItem(
 			keyName = "accumulatedDebt",
 			name = "accumulated debt",
 			description = "",
-//			hidden = true
-	position = 55,
-	section = sectionEconomy
+			hidden = true
 	)
 	default int accumulatedDebt() { return 0; }
 
@@ -333,6 +347,63 @@ public interface SingleHandedModeConfig extends Config
 	)
 	default boolean showStatsPanel() { return false; } // Default off to avoid clutter
 
+	// =========================================================
+	// SECTION 6: DEBUG
+	// =========================================================
+	@ConfigSection(
+			name = "Debug",
+			description = "Tools for measuring the plugin's own performance.",
+			position = 60,
+			closedByDefault = true
+	)
+	String sectionDebug = "sectionDebug";
+
+	@ConfigItem(
+			keyName = "showProfiler",
+			name = "Show Profiler",
+			description = "Record handler, pathfinding and overlay latencies and show them in an overlay.",
+			position = 61,
+			section = sectionDebug
+	)
+	default boolean showProfiler() { return false; }
+
+	@ConfigItem(
+			keyName = "enableMetricsEndpoint",
+			name = "Metrics Endpoint",
+			description = "Serve plugin counters in Prometheus format at http://127.0.0.1:<port>/metrics.",
+			position = 62,
+			section = sectionDebug
+	)
+	default boolean enableMetricsEndpoint() { return false; }
+
+	@Range(min = 1024, max = 65535)
+	@ConfigItem(
+			keyName = "metricsPort",
+			name = "Metrics Port",
+			description = "Local port for the metrics endpoint.",
+			position = 63,
+			section = sectionDebug
+	)
+	default int metricsPort() { return 9466; }
+
+	@ConfigItem(
+			keyName = "showBlockedActions",
+			name = "Show Most Blocked",
+			description = "Show a ranked table of the actions and items most often blocked.",
+			position = 64,
+			section = sectionDebug
+	)
+	default boolean showBlockedActions() { return false; }
+
+	@ConfigItem(
+			keyName = "traceDecisions",
+			name = "Trace Restrictions",
+			description = "Record why each click was allowed or blocked, and show the most recent in an overlay.",
+			position = 65,
+			section = sectionDebug
+	)
+	default boolean traceDecisions() { return false; }
+
 	@ConfigItem(
 			keyName = "lifetimeWorn",
 			name = "Lifetime Worn",
@@ -2,9 +2,16 @@ package com.singlehandedmode;
 
 import com.google.inject.Provides;
 import javax.inject.Inject;
+import javax.inject.Named;
 import lombok.extern.slf4j.Slf4j;
+import net.runelite.api.Client;
+import net.runelite.api.GameState;
+import net.runelite.api.NPC;
 import net.runelite.api.events.*;
+import net.runelite.client.callback.ClientThread;
 import net.runelite.client.config.ConfigManager;
+import net.runelite.client.events.ConfigChanged;
+import net.runelite.client.events.RuneScapeProfileChanged;
 import net.runelite.client.eventbus.EventBus;
 import net.runelite.client.eventbus.Subscribe;
 import net.runelite.client.plugins.Plugin;
@@ -17,12 +24,21 @@ import net.runelite.client.ui.overlay.OverlayManager;
 )
 public class SingleHandedModePlugin extends Plugin
 {
+    @Inject
+    private Client client;
+
+    @Inject
+    private ClientThread clientThread;
+
     @Inject
     private EventBus eventBus;
 
     @Inject
     private OverlayManager overlayManager;
 
+    @Inject
+    private TickScheduler tickScheduler;
+
     @Inject
     private HookStateManager hookState;
 
@@ -32,9 +48,6 @@ public class SingleHandedModePlugin extends Plugin
     @Inject
     private EquipmentRestrictionManager equipmentManager;
 
-    @Inject
-    private InsuranceAgentManager insuranceAgentManager;
-
     @Inject
     private InteractionRestrictionManager interactionManager;
 
@@ -48,76 +61,210 @@ public class SingleHandedModePlugin extends Plugin
     private BrokenHookTextOverride brokenHookTextOverride;
 
     @Inject
-    private InsuranceAgentOverlay insuranceAgentOverlay;
+    private DurabilityManager durabilityManager;
 
     @Inject
-    private AbleismGenerator ableismGenerator;
+    private SingleHandedModeInfoBoxManager infoBoxManager;
 
     @Inject
-    private DurabilityManager durabilityManager;
+    private PaymentHandler paymentHandler;
 
     @Inject
-    private SingleHandedModeInfoBoxManager infoBoxManager;
+    private DoctorInteractionManager doctorInteractionManager;
 
     @Inject
-    private DurabilityStatsOverlay statsOverlay;
+    private SingleHandedModeConfig config;
 
     @Inject
-    private InsuranceAgentManager agentManager;
+    private PluginProfiler profiler;
 
     @Inject
-    private PaymentHandler paymentHandler;
+    private PluginMetrics metrics;
 
     @Inject
-    private DoctorInteractionManager doctorInteractionManager;
+    private DurabilityHistory durabilityHistory;
+
+    @Inject
+    private BlockedActionSketch blockedActions;
+
+    @Inject
+    private DecisionTrace decisionTrace;
+
+    @Inject
+    private BackgroundLane lane;
+
+    @Inject
+    private FrameGovernor governor;
+
+    @Inject
+    @Named("developerMode")
+    private boolean developerMode;
+
+    // --- Modules ---
+    // Built the first time they're needed, see LazyModule. The hook, its durability and the
+    // restrictions above are needed from the start.
+
+    // While the player owes money
+    @Inject
+    private LazyModule<InsuranceAgentManager> agentManager;
+
+    @Inject
+    private LazyModule<InsuranceAgentOverlay> agentOverlay;
+
+    private boolean isAgentStarted;
+
+    // While enabled in config
+    @Inject
+    private LazyModule<AbleismGenerator> ableismGenerator;
+
+    @Inject
+    private LazyModule<DurabilityStatsOverlay> statsOverlay;
+
+    @Inject
+    private LazyModule<ProfilerOverlay> profilerOverlay;
+
+    @Inject
+    private LazyModule<MetricsServer> metricsServer;
+
+    @Inject
+    private LazyModule<BlockedActionsOverlay> blockedActionsOverlay;
+
+    @Inject
+    private LazyModule<DecisionTraceOverlay> decisionTraceOverlay;
+
+    // While recording, developer mode only
+    @Inject
+    private LazyModule<SessionRecorder> sessionRecorder;
+
+    // --- State handlers ---
+    // Only registered in the states they act in, see updateStateHandlers()
+
+    private boolean isDoctorRegistered;
+    private EventBus.Subscriber hookMenuSubscriber;
+    private boolean isBrokenHookOverlayAdded;
+    private boolean isShieldOverlayAdded;
 
     @Override
     protected void startUp() throws Exception
     {
-        overlayManager.add(shieldOverlay);
-        overlayManager.add(brokenHookOverlay);
-        overlayManager.add(insuranceAgentOverlay);
-        overlayManager.add(statsOverlay);
+        long start = System.nanoTime();
 
-        infoBoxManager.startUp(this);
+        // startUp and shutDown come on the Swing thread. Saved state is read here, so a failure reaches the
+        // plugin manager and our handlers never run before it's loaded. Registrations are safe from any
+        // thread. Only the timers and what they drive belong to the client thread, and are handed over.
 
-        eventBus.register(doctorInteractionManager);
-        eventBus.register(insuranceAgentManager);
+        // 1. Saved state
+        durabilityManager.load();
+        durabilityHistory.load();
+        blockedActions.load();
+
+        // 2. Core, always on
+        infoBoxManager.startUp(this);
         eventBus.register(brokenHookTextOverride);
+        governor.startUp();
+        eventBus.register(governor);
+
+        // 3. Modules, only if they're needed yet
+        updateStatsOverlay();
+        updateProfiler();
+        updateMetricsServer();
+        updateBlockedActionsOverlay();
+        updateDecisionTrace();
+
+        clientThread.invoke(this::startOnClientThread);
+
+        long nanos = System.nanoTime() - start;
+        metrics.recordStartUp(nanos);
+        log.debug("Started in {} us", nanos / 1000);
     }
 
     @Override
     protected void shutDown() throws Exception
     {
-        overlayManager.remove(shieldOverlay);
-        overlayManager.remove(brokenHookOverlay);
-        overlayManager.remove(insuranceAgentOverlay);
-        overlayManager.remove(statsOverlay);
+        // The plugin manager has unregistered us, so no more ticks or clicks reach the state below
+        clientThread.invoke(this::stopOnClientThread);
 
-        infoBoxManager.shutDown();
+        eventBus.unregister(brokenHookTextOverride);
+        eventBus.unregister(governor);
+
+        statsOverlay.ifBuilt(overlayManager::remove);
+        profiler.setEnabled(false);
+        profilerOverlay.ifBuilt(overlayManager::remove);
+        metricsServer.ifBuilt(MetricsServer::stop);
+        blockedActionsOverlay.ifBuilt(overlayManager::remove);
+        decisionTrace.setEnabled(false);
+        decisionTraceOverlay.ifBuilt(overlayManager::remove);
+        stopRecording();
+
+        // Saved before returning, so nothing is lost if the client exits next
+        durabilityManager.close();
+        durabilityHistory.save();
+        blockedActions.save();
+        lane.flush();
+    }
+
+    private void startOnClientThread()
+    {
+        durabilityManager.startUp();
+        durabilityHistory.startUp();
+        updateStateHandlers();
+
+        if (durabilityManager.hasUnpaidDebt()) startAgent();
+        updateAbleism();
+    }
+
+    private void stopOnClientThread()
+    {
         durabilityManager.shutDown();
+        durabilityHistory.shutDown();
+        ableismGenerator.ifBuilt(AbleismGenerator::shutDown);
+        infoBoxManager.shutDown();
 
-        eventBus.unregister(doctorInteractionManager);
-        eventBus.unregister(insuranceAgentManager);
-        eventBus.unregister(brokenHookTextOverride);
+        stopStateHandlers();
+        stopAgent();
+
+        // Results still on their way are dropped
+        lane.shutDown();
     }
 
     @Subscribe
     public void onGameTick(GameTick event)
     {
+        long start = profiler.start();
+
+        // Fire due timers first, so this tick's handlers see the expired state
+        tickScheduler.onGameTick();
+
         durabilityManager.onGameTick();
         hookState.onGameTick();
-        agentManager.onGameTick();
+        if (!isAgentStarted && durabilityManager.hasUnpaidDebt()) startAgent();
+        if (isAgentStarted)
+        {
+            agentManager.get().onGameTick();
+            if (agentManager.get().isIdle()) stopAgent();
+        }
         infoBoxManager.onGameTick();
+        updateStateHandlers();
 
-        ableismGenerator.maybeGenerateAbleistNpcComment(hookState.isWearingFunctionalHook());
+        profiler.stop(PluginProfiler.Section.GAME_TICK, start);
     }
 
     @Subscribe
     public void onClientTick(ClientTick event)
     {
+        long start = profiler.start();
+
         // 1. Maintain Visuals (Run every frame to fight animation flicker)
         playerModelManager.updatePlayerModel();
+
+        profiler.stop(PluginProfiler.Section.CLIENT_TICK, start);
+    }
+
+    @Subscribe
+    public void onAnimationChanged(AnimationChanged event)
+    {
+        if (event.getActor() != client.getLocalPlayer()) return;
+        durabilityManager.onAnimationChanged(event.getActor().getAnimation());
     }
 
     @Subscribe
@@ -125,26 +272,279 @@ public class SingleHandedModePlugin extends Plugin
     {
         // 1. Update Truth State
         hookState.onItemContainerChanged(event);
+
+        // 2. Don't wait for the tick to put up the shield blockers
+        updateStateHandlers();
     }
 
     @Subscribe
     public void onMenuOptionClicked(MenuOptionClicked event)
+    {
+        long start = profiler.start();
+        checkMenuOptionClicked(event);
+        profiler.stop(PluginProfiler.Section.MENU_OPTION_CLICKED, start);
+    }
+
+    private void checkMenuOptionClicked(MenuOptionClicked event)
     {
         paymentHandler.onMenuOptionClicked(event);
 
         // 1. Capture Context (Did we just click 'remove'?)
         hookState.captureClickIntent(event);
 
+        boolean consumedBefore = event.isConsumed();
+        RestrictionDecisionEvent decisionEvent = new RestrictionDecisionEvent();
+        decisionEvent.begin();
+
         // 2. Check: Can we remove the hook?
-        equipmentManager.checkHookRemoval(event);
-        if (event.isConsumed()) return;
+        RestrictionRule rule = equipmentManager.checkHookRemoval(event);
 
         // 3. Check: Can we equip this item?
-        equipmentManager.checkRestrictions(event);
-        if (event.isConsumed()) return;
+        if (!event.isConsumed()) rule = equipmentManager.checkRestrictions(event);
 
         // 4. Check: Can we perform this action?
-        interactionManager.checkRestrictions(event);
+        if (!event.isConsumed()) rule = interactionManager.checkRestrictions(event);
+
+        metrics.recordClick(rule);
+        if (decisionTrace.isEnabled()) decisionTrace.record(event, rule, consumedBefore);
+        if (rule != null)
+        {
+            // Key by item where there is one, else by the NPC or object clicked
+            NPC npc = event.getMenuEntry().getNpc();
+            if (event.getItemId() >= 0) blockedActions.add(rule, BlockedActionSketch.ITEM, event.getItemId());
+            else if (npc != null) blockedActions.add(rule, BlockedActionSketch.NPC, npc.getId());
+            else blockedActions.add(rule, BlockedActionSketch.OBJECT, event.getId());
+        }
+
+        decisionEvent.end();
+        if (decisionEvent.shouldCommit())
+        {
+            decisionEvent.option = event.getMenuOption();
+            decisionEvent.itemId = event.getItemId();
+            decisionEvent.blocked = rule != null;
+            decisionEvent.rule = rule != null ? rule.name() : null;
+            decisionEvent.commit();
+        }
+    }
+
+    @Subscribe
+    public void onGameStateChanged(GameStateChanged event)
+    {
+        if (event.getGameState() == GameState.LOGIN_SCREEN)
+        {
+            durabilityManager.onLogout();
+            durabilityHistory.save();
+            blockedActions.save();
+        }
+    }
+
+    @Subscribe
+    public void onRuneScapeProfileChanged(RuneScapeProfileChanged event)
+    {
+        // Hook state is kept per account
+        durabilityManager.onProfileChanged();
+    }
+
+    @Subscribe
+    public void onCommandExecuted(CommandExecuted event)
+    {
+        String[] args = event.getArguments();
+        switch (event.getCommand().toLowerCase())
+        {
+            // ::shmhistory [csv|bin]
+            case "shmhistory":
+                durabilityHistory.export(args.length > 0 && args[0].equalsIgnoreCase("bin"));
+                break;
+            // ::shmrecord, toggles recording (developer mode only)
+            case "shmrecord":
+                if (!developerMode) break;
+                if (sessionRecorder.isBuilt() && sessionRecorder.get().isRecording()) stopRecording();
+                else startRecording();
+                break;
+        }
+    }
+
+    private void startRecording()
+    {
+        sessionRecorder.get().start();
+        eventBus.register(sessionRecorder.get());
+    }
+
+    private void stopRecording()
+    {
+        if (!sessionRecorder.isBuilt() || !sessionRecorder.get().isRecording()) return;
+        eventBus.unregister(sessionRecorder.get());
+        sessionRecorder.get().stop();
+    }
+
+    /**
+     * Starts the insurance agent when the player owes money. It's stopped once paid and gone.
+     */
+    private void startAgent()
+    {
+        isAgentStarted = true;
+        eventBus.register(agentManager.get());
+        overlayManager.add(agentOverlay.get());
+    }
+
+    private void stopAgent()
+    {
+        if (!isAgentStarted) return;
+        isAgentStarted = false;
+        eventBus.unregister(agentManager.get());
+        overlayManager.remove(agentOverlay.get());
+    }
+
+    @Subscribe
+    public void onConfigChanged(ConfigChanged event)
+    {
+        if (!event.getGroup().equals(SingleHandedModeConfig.GROUP)) return;
+
+        String key = event.getKey();
+        clientThread.invoke(() -> applyConfigChange(key));
+    }
+
+    private void applyConfigChange(String key)
+    {
+        switch (key)
+        {
+            case "enableAbleism":
+            case "ableismLevel":
+                updateAbleism();
+                break;
+            case "sharedDurabilityState":
+                durabilityManager.updateSharedState();
+                break;
+            case "hookDurabilityTicks":
+            case "penaltyPerSecond":
+            case "activityWeightedWear":
+                durabilityManager.onRatesChanged();
+                break;
+            case "disableShieldsNoHook":
+                updateStateHandlers();
+                break;
+            case "showStatsPanel":
+                updateStatsOverlay();
+                break;
+            case "showProfiler":
+                updateProfiler();
+                break;
+            case "enableMetricsEndpoint":
+            case "metricsPort":
+                updateMetricsServer();
+                break;
+            case "showBlockedActions":
+                updateBlockedActionsOverlay();
+                break;
+            case "traceDecisions":
+                updateDecisionTrace();
+                break;
+        }
+    }
+
+    /**
+     * Registers the handlers and overlays that only act in some states and removes the rest, so they
+     * cost nothing per frame or menu entry the rest of the time. Checked every tick, when the equipment
+     * changes and when config changes.
+     */
+    private void updateStateHandlers()
+    {
+        boolean isBroken = durabilityManager.isHookBroken();
+
+        // 1. The doctor only offers a fitting while the hook is broken and paid for
+        boolean isDoctorNeeded = isBroken && !durabilityManager.hasUnpaidDebt();
+        if (isDoctorNeeded != isDoctorRegistered)
+        {
+            isDoctorRegistered = isDoctorNeeded;
+            if (isDoctorNeeded) eventBus.register(doctorInteractionManager);
+            else eventBus.unregister(doctorInteractionManager);
+        }
+
+        // 2. Menu targets only need rewriting, and the icon drawing over, while the hook is broken
+        if (isBroken != (hookMenuSubscriber != null))
+        {
+            if (isBroken)
+            {
+                hookMenuSubscriber = eventBus.register(MenuEntryAdded.class, brokenHookTextOverride::onMenuEntryAdded, 0);
+            }
+            else
+            {
+                eventBus.unregister(hookMenuSubscriber);
+                hookMenuSubscriber = null;
+            }
+        }
+        if (isBroken != isBrokenHookOverlayAdded)
+        {
+            isBrokenHookOverlayAdded = isBroken;
+            if (isBroken) overlayManager.add(brokenHookOverlay);
+            else overlayManager.remove(brokenHookOverlay);
+        }
+
+        // 3. Shield blockers, while the rule is on and there's no working hook
+        boolean isShieldNeeded = config.disableShieldsNoHook() && !hookState.isWearingFunctionalHook();
+        if (isShieldNeeded != isShieldOverlayAdded)
+        {
+            isShieldOverlayAdded = isShieldNeeded;
+            if (isShieldNeeded) overlayManager.add(shieldOverlay);
+            else overlayManager.remove(shieldOverlay);
+        }
+    }
+
+    private void stopStateHandlers()
+    {
+        if (isDoctorRegistered) eventBus.unregister(doctorInteractionManager);
+        if (hookMenuSubscriber != null) eventBus.unregister(hookMenuSubscriber);
+        if (isBrokenHookOverlayAdded) overlayManager.remove(brokenHookOverlay);
+        if (isShieldOverlayAdded) overlayManager.remove(shieldOverlay);
+
+        isDoctorRegistered = false;
+        hookMenuSubscriber = null;
+        isBrokenHookOverlayAdded = false;
+        isShieldOverlayAdded = false;
+    }
+
+    /**
+     * Schedules comments to match config. The generator isn't built until they're first enabled.
+     */
+    private void updateAbleism()
+    {
+        if (config.enableAbleism()) ableismGenerator.get().reschedule();
+        else ableismGenerator.ifBuilt(AbleismGenerator::reschedule);
+    }
+
+    private void updateStatsOverlay()
+    {
+        if (config.showStatsPanel()) overlayManager.add(statsOverlay.get());
+        else statsOverlay.ifBuilt(overlayManager::remove);
+    }
+
+    /**
+     * Starts or stops profiling to match config. The overlay is only registered while it's on.
+     */
+    private void updateProfiler()
+    {
+        profiler.setEnabled(config.showProfiler());
+        if (config.showProfiler()) overlayManager.add(profilerOverlay.get());
+        else profilerOverlay.ifBuilt(overlayManager::remove);
+    }
+
+    private void updateMetricsServer()
+    {
+        if (config.enableMetricsEndpoint()) metricsServer.get().start(config.metricsPort());
+        else metricsServer.ifBuilt(MetricsServer::stop);
+    }
+
+    private void updateBlockedActionsOverlay()
+    {
+        if (config.showBlockedActions()) overlayManager.add(blockedActionsOverlay.get());
+        else blockedActionsOverlay.ifBuilt(overlayManager::remove);
+    }
+
+    private void updateDecisionTrace()
+    {
+        decisionTrace.setEnabled(config.traceDecisions());
+        if (config.traceDecisions()) overlayManager.add(decisionTraceOverlay.get());
+        else decisionTraceOverlay.ifBuilt(overlayManager::remove);
     }
 
     @Subscribe
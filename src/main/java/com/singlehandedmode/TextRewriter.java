@@ -0,0 +1,97 @@
+package com.singlehandedmode;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import net.runelite.api.ChatMessageType;
+
+/**
+ * Exact-match text overrides for menu targets and chat messages.
+ *
+ * Menu target rules are kept by item ID and chat rules by message type and the exact message, so a
+ * lookup is an array read or a hash lookup however many rules there are. Replacements are built when
+ * the rules are set, and the last rewritten target is kept per item, so a menu entry that is added every
+ * frame doesn't build a new string every frame.
+ *
+ * Not thread safe; only use from the client thread.
+ */
+final class TextRewriter
+{
+    private static final class TargetRule
+    {
+        private final String suffix;
+        private String lastTarget;
+        private String lastRewritten;
+
+        TargetRule(String suffix)
+        {
+            this.suffix = suffix;
+        }
+    }
+
+    // Indexed by item ID. Item IDs are small and dense, so a flat array beats a map. Grown on demand.
+    private TargetRule[] targetRules = new TargetRule[0];
+
+    private final Map<ChatMessageType, Map<String, String>> messageRules = new EnumMap<>(ChatMessageType.class);
+
+    // --- Rules ---
+
+    /**
+     * Appends the suffix to menu targets for this item, or stops if it's null.
+     */
+    void setTargetSuffix(int itemId, String suffix)
+    {
+        if (itemId >= targetRules.length)
+        {
+            if (suffix == null) return;
+            targetRules = Arrays.copyOf(targetRules, Math.max(itemId + 1, targetRules.length * 2));
+        }
+        targetRules[itemId] = suffix != null ? new TargetRule(suffix) : null;
+    }
+
+    /**
+     * Replaces messages of this type that are exactly the given text, or stops if the replacement is null.
+     */
+    void setMessage(ChatMessageType type, String message, String replacement)
+    {
+        if (replacement != null)
+        {
+            messageRules.computeIfAbsent(type, t -> new HashMap<>()).put(message, replacement);
+        }
+        else
+        {
+            Map<String, String> rules = messageRules.get(type);
+            if (rules != null) rules.remove(message);
+        }
+    }
+
+    // --- Lookups ---
+
+    /**
+     * The rewritten menu target for this item, or null to leave it.
+     */
+    String rewriteTarget(int itemId, String target)
+    {
+        if (itemId < 0 || itemId >= targetRules.length || target == null) return null;
+
+        TargetRule rule = targetRules[itemId];
+        if (rule == null) return null;
+
+        if (!target.equals(rule.lastTarget))
+        {
+            rule.lastTarget = target;
+            rule.lastRewritten = target + rule.suffix;
+        }
+        return rule.lastRewritten;
+    }
+
+    /**
+     * The replacement for this message, or null to leave it.
+     */
+    String rewriteMessage(ChatMessageType type, String message)
+    {
+        Map<String, String> rules = messageRules.get(type);
+        return rules != null ? rules.get(message) : null;
+    }
+}
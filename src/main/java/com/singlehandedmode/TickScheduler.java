@@ -0,0 +1,167 @@
+package com.singlehandedmode;
+
+import javax.inject.Singleton;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Plugin-wide game tick scheduler, backed by a hierarchical timing wheel.
+ *
+ * Every level has 64 slots. A level 0 slot covers one tick, a level 1 slot covers 64 ticks,
+ * and so on, so four levels cover 2^24 ticks (~116 days). A timer is filed in the coarsest
+ * slot that still contains its deadline and is moved down a level each time its slot comes up,
+ * so it is touched at most once per level before firing, and not at all while it waits.
+ *
+ * Driven by {@link #onGameTick()}, which must run once at the start of every game tick.
+ * Not thread safe; only use from the client thread. The plugin hands the timer parts of its startUp,
+ * shutDown and config changes to the client thread for this.
+ */
+@Slf4j
+@Singleton
+public class TickScheduler
+{
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+    private static final int LEVELS = 4;
+    private static final long MAX_DELAY = (1L << (SLOT_BITS * LEVELS)) - 1;
+
+    /**
+     * A reusable scheduled task. Owners create one per timer and reschedule it as needed,
+     * so scheduling never allocates.
+     */
+    public static final class Timer
+    {
+        private final Runnable task;
+        private long deadline;
+        private int level = -1;
+        private int slot;
+        private Timer prev;
+        private Timer next;
+
+        public Timer(Runnable task)
+        {
+            this.task = task;
+        }
+
+        public boolean isScheduled()
+        {
+            return level >= 0;
+        }
+    }
+
+    // Head of each slot's doubly linked list
+    private final Timer[][] wheel = new Timer[LEVELS][SLOTS];
+
+    @Getter
+    private long currentTick = 0;
+
+    /**
+     * Schedules the timer to fire on the given number of game ticks from now (minimum 1).
+     * If the timer is already scheduled, it is moved to the new deadline.
+     */
+    public void schedule(Timer timer, int delayTicks)
+    {
+        if (timer.isScheduled()) unlink(timer);
+
+        long delay = Math.max(1, delayTicks);
+        if (delay > MAX_DELAY)
+        {
+            log.warn("Clamping timer delay of {} ticks to {}", delay, MAX_DELAY);
+            delay = MAX_DELAY;
+        }
+
+        timer.deadline = currentTick + delay;
+        insert(timer);
+    }
+
+    public void cancel(Timer timer)
+    {
+        if (timer.isScheduled()) unlink(timer);
+    }
+
+    /**
+     * Ticks remaining until the timer fires, or -1 if it isn't scheduled.
+     */
+    public long ticksUntil(Timer timer)
+    {
+        return timer.isScheduled() ? timer.deadline - currentTick : -1;
+    }
+
+    public void onGameTick()
+    {
+        ++currentTick;
+
+        // 1. Cascade coarser slots whose span starts on this tick down a level
+        for (int level = 1; level < LEVELS; ++level)
+        {
+            if ((currentTick & ((1L << (SLOT_BITS * level)) - 1)) != 0) break;
+            cascade(level, (int) (currentTick >>> (SLOT_BITS * level)) & SLOT_MASK);
+        }
+
+        // 2. Fire everything due on this tick
+        // Pop one at a time, as a task may cancel or schedule other timers
+        int slot = (int) currentTick & SLOT_MASK;
+        Timer timer;
+        while ((timer = wheel[0][slot]) != null)
+        {
+            unlink(timer);
+            try
+            {
+                timer.task.run();
+            }
+            catch (RuntimeException e)
+            {
+                log.warn("Scheduled task threw", e);
+            }
+        }
+    }
+
+    // --- Internal Helpers ---
+
+    private void cascade(int level, int slot)
+    {
+        Timer timer = wheel[level][slot];
+        wheel[level][slot] = null;
+        while (timer != null)
+        {
+            Timer next = timer.next;
+            timer.level = -1;
+            timer.prev = null;
+            timer.next = null;
+            insert(timer);
+            timer = next;
+        }
+    }
+
+    private void insert(Timer timer)
+    {
+        long delay = timer.deadline - currentTick;
+
+        // Coarsest level whose slot span still separates the deadline from now
+        int level = 0;
+        while (level < LEVELS - 1 && delay >= (1L << (SLOT_BITS * (level + 1))))
+        {
+            ++level;
+        }
+
+        int slot = (int) (timer.deadline >>> (SLOT_BITS * level)) & SLOT_MASK;
+        timer.level = level;
+        timer.slot = slot;
+        timer.prev = null;
+        timer.next = wheel[level][slot];
+        if (timer.next != null) timer.next.prev = timer;
+        wheel[level][slot] = timer;
+    }
+
+    private void unlink(Timer timer)
+    {
+        if (timer.prev != null) timer.prev.next = timer.next;
+        else wheel[timer.level][timer.slot] = timer.next;
+        if (timer.next != null) timer.next.prev = timer.prev;
+
+        timer.prev = null;
+        timer.next = null;
+        timer.level = -1;
+    }
+}
@@ -0,0 +1,117 @@
+package com.singlehandedmode;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import javax.inject.Singleton;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Hook wear multipliers by the local player's animation, loaded from /wear_rates.txt.
+ *
+ * Rates are fixed-point, with {@link #ONE} meaning one tick of wear per game tick.
+ * Lookups are a single array read, however many animations are listed.
+ */
+@Slf4j
+@Singleton
+public class WearRateTable
+{
+    public static final int FRACTION_BITS = 8;
+    public static final int ONE = 1 << FRACTION_BITS;
+
+    private static final String RESOURCE = "/wear_rates.txt";
+
+    // Indexed by animation ID, unlisted animations hold defaultRate
+    private int[] rates = new int[0];
+    private int defaultRate = ONE;
+    private int idleRate = ONE;
+
+    public WearRateTable()
+    {
+        load();
+    }
+
+    public int getRate(int animationId)
+    {
+        if (animationId == -1) return idleRate;
+        if (animationId < 0 || animationId >= rates.length) return defaultRate;
+        return rates[animationId];
+    }
+
+    private void load()
+    {
+        InputStream in = WearRateTable.class.getResourceAsStream(RESOURCE);
+        if (in == null)
+        {
+            log.warn("Missing wear rate table {}, using flat wear", RESOURCE);
+            return;
+        }
+
+        int[] ids = new int[64];
+        int[] values = new int[64];
+        int count = 0;
+        int maxId = -1;
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8)))
+        {
+            String line;
+            while ((line = reader.readLine()) != null)
+            {
+                int comment = line.indexOf('#');
+                if (comment != -1) line = line.substring(0, comment);
+                line = line.trim();
+                if (line.isEmpty()) continue;
+
+                String[] parts = line.split("\\s+");
+                if (parts.length != 2)
+                {
+                    log.warn("Skipping malformed wear rate line: {}", line);
+                    continue;
+                }
+
+                try
+                {
+                    int rate = (int) Math.round(Double.parseDouble(parts[1]) * ONE);
+                    if (rate < 0) throw new NumberFormatException("negative rate");
+
+                    if (parts[0].equals("default")) defaultRate = rate;
+                    else if (parts[0].equals("idle")) idleRate = rate;
+                    else
+                    {
+                        int id = Integer.parseInt(parts[0]);
+                        if (id < 0) throw new NumberFormatException("negative animation ID");
+
+                        if (count == ids.length)
+                        {
+                            ids = Arrays.copyOf(ids, count * 2);
+                            values = Arrays.copyOf(values, count * 2);
+                        }
+                        ids[count] = id;
+                        values[count] = rate;
+                        ++count;
+                        maxId = Math.max(maxId, id);
+                    }
+                }
+                catch (NumberFormatException e)
+                {
+                    log.warn("Skipping invalid wear rate line: {}", line);
+                }
+            }
+        }
+        catch (IOException e)
+        {
+            log.warn("Unable to read wear rate table", e);
+            return;
+        }
+
+        rates = new int[maxId + 1];
+        Arrays.fill(rates, defaultRate);
+        for (int i = 0; i < count; ++i)
+        {
+            rates[ids[i]] = values[i];
+        }
+    }
+}
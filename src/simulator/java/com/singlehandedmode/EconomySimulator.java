@@ -0,0 +1,242 @@
+package com.singlehandedmode;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Plays the hook's economy for a population of simulated players, to tune the durability, repair cost and
+ * penalty settings before changing their defaults.
+ *
+ * Each player runs on their own {@link HookLedger}, the same accounting {@link DurabilityManager} uses, driven
+ * by the events the plugin would see: logging in and out, equipping the hook, the break, dropping coins for
+ * the agent, the pile despawning and the doctor's repair. The ledger's lazy clock means only those events cost
+ * anything, however many ticks pass between them. Players are split across cores with fork/join.
+ *
+ * <pre>
+ *   ./gradlew simulateEconomy -Psim.args="--players=1000000 --days=30 --penalty=50"
+ * </pre>
+ */
+public class EconomySimulator
+{
+    private static final int PLAYERS_PER_TASK = 10_000;
+
+    private final PlayPattern pattern;
+    private final int durabilityTicks;
+    private final int repairCost;
+    private final int penaltyPerTick;
+    private final int wearRate;
+    private final long seed;
+
+    // Per player, over the whole run
+    private final LatencyHistogram debtAtPayment = new LatencyHistogram();
+    private final LatencyHistogram outstandingDebt = new LatencyHistogram();
+    private final LatencyHistogram minutesBroken = new LatencyHistogram();
+    private final LatencyHistogram gpPaid = new LatencyHistogram();
+    private final LatencyHistogram breaks = new LatencyHistogram();
+    private final LongAdder ticks = new LongAdder();
+    private final LongAdder events = new LongAdder();
+
+    public EconomySimulator(PlayPattern pattern, int durabilityTicks, int repairCost, int penaltyPerSecond,
+                            double wearRate, long seed)
+    {
+        this.pattern = pattern;
+        this.durabilityTicks = durabilityTicks;
+        this.repairCost = repairCost;
+        // Same rounding as DurabilityManager, a tick being 0.6 seconds
+        this.penaltyPerTick = (int) Math.floorDiv(3L * penaltyPerSecond + 4, 5);
+        this.wearRate = (int) Math.round(wearRate * WearRateTable.ONE);
+        this.seed = seed;
+    }
+
+    public static void main(String[] args)
+    {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args)
+        {
+            int split = arg.indexOf('=');
+            if (!arg.startsWith("--") || split < 0)
+            {
+                System.err.println("Usage: EconomySimulator [--players=N] [--days=N] [--durability=ticks] "
+                        + "[--repair-cost=gp] [--penalty=gp/s] [--wear-rate=x] [--sessions-per-day=N] "
+                        + "[--session-minutes=N] [--equip-ratio=0-1] [--payment-delay=minutes] "
+                        + "[--repair-delay=minutes] [--seed=N]");
+                System.exit(1);
+            }
+            options.put(arg.substring(2, split), arg.substring(split + 1));
+        }
+
+        int players = Integer.parseInt(options.getOrDefault("players", "1000000"));
+        PlayPattern pattern = new PlayPattern(
+                Integer.parseInt(options.getOrDefault("days", "30")),
+                Double.parseDouble(options.getOrDefault("sessions-per-day", "2")),
+                Double.parseDouble(options.getOrDefault("session-minutes", "90")),
+                Double.parseDouble(options.getOrDefault("equip-ratio", "0.6")),
+                Double.parseDouble(options.getOrDefault("payment-delay", "20")),
+                Double.parseDouble(options.getOrDefault("repair-delay", "10")));
+
+        // Defaults match SingleHandedModeConfig
+        EconomySimulator simulator = new EconomySimulator(pattern,
+                Integer.parseInt(options.getOrDefault("durability", "60000")),
+                Integer.parseInt(options.getOrDefault("repair-cost", "1000000")),
+                Integer.parseInt(options.getOrDefault("penalty", "100")),
+                Double.parseDouble(options.getOrDefault("wear-rate", "1")),
+                Long.parseLong(options.getOrDefault("seed", "1")));
+
+        long start = System.nanoTime();
+        simulator.run(players);
+        simulator.report(players, System.nanoTime() - start);
+    }
+
+    public void run(int players)
+    {
+        ForkJoinPool.commonPool().invoke(new Players(0, players));
+    }
+
+    private final class Players extends RecursiveAction
+    {
+        private final int from;
+        private final int to;
+
+        Players(int from, int to)
+        {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute()
+        {
+            if (to - from <= PLAYERS_PER_TASK)
+            {
+                for (int i = from; i < to; ++i)
+                {
+                    simulatePlayer(i);
+                }
+                return;
+            }
+
+            int middle = (from + to) >>> 1;
+            invokeAll(new Players(from, middle), new Players(middle, to));
+        }
+    }
+
+    // --- Player ---
+
+    private void simulatePlayer(int index)
+    {
+        // Seeded per player, so results don't depend on how the players are split across threads
+        SplittableRandom random = new SplittableRandom(seed * 0x9E3779B97F4A7C15L + index);
+        PlayPattern.Player player = pattern.player(random);
+        HookLedger ledger = new HookLedger(0, 0, 0, 0, durabilityTicks);
+
+        // Pending events, in ticks of play. Long.MAX_VALUE when not due.
+        long breakAt = Long.MAX_VALUE;
+        long payAt = Long.MAX_VALUE;
+        long settleAt = Long.MAX_VALUE;
+        long repairAt = Long.MAX_VALUE;
+
+        long now = 0;
+        long brokenSince = 0;
+        long ticksBroken = 0;
+        int breakCount = 0;
+        int eventCount = 0;
+
+        for (int day = 0; day < pattern.days; ++day)
+        {
+            for (int session = player.sessionsToday(random); session > 0; --session)
+            {
+                long end = now + PlayPattern.Player.sample(random, player.sessionTicks);
+                boolean worn = random.nextDouble() < player.equipRatio;
+                breakAt = at(now, ledger.startSegment(now, worn, wearRate, penaltyPerTick, durabilityTicks));
+
+                while (true)
+                {
+                    long next = Math.min(Math.min(breakAt, payAt), Math.min(settleAt, repairAt));
+                    if (next >= end) break;
+                    now = next;
+                    ++eventCount;
+
+                    if (now == breakAt)
+                    {
+                        // 1. The hook breaks and the penalty starts
+                        ledger.breakHook(now, repairCost);
+                        breakAt = at(now, ledger.startSegment(now, worn, wearRate, penaltyPerTick, durabilityTicks));
+                        brokenSince = now;
+                        ++breakCount;
+                        payAt = now + PlayPattern.Player.sample(random, player.paymentDelayTicks);
+                    }
+                    else if (now == payAt)
+                    {
+                        // 2. A pile of exactly the debt is dropped, it's settled when the pile despawns
+                        int debt = ledger.getDebt(now);
+                        if (ledger.acceptsPayment(now, debt)) debtAtPayment.record(debt);
+                        payAt = Long.MAX_VALUE;
+                        settleAt = now + PlayPattern.DESPAWN_TICKS;
+                    }
+                    else if (now == settleAt)
+                    {
+                        // 3. The agent takes the coins, the doctor can be visited
+                        ledger.settle(now);
+                        settleAt = Long.MAX_VALUE;
+                        repairAt = now + PlayPattern.Player.sample(random, player.repairDelayTicks);
+                    }
+                    else
+                    {
+                        // 4. The doctor repairs the hook and wear starts over
+                        ledger.repair(now);
+                        ticksBroken += now - brokenSince;
+                        repairAt = Long.MAX_VALUE;
+                        breakAt = at(now, ledger.startSegment(now, worn, wearRate, penaltyPerTick, durabilityTicks));
+                    }
+                }
+
+                // Logging out stops the clock, pending events carry over to the next session
+                ledger.pause(end);
+                breakAt = Long.MAX_VALUE;
+                now = end;
+            }
+        }
+
+        if (ledger.isBroken()) ticksBroken += now - brokenSince;
+
+        outstandingDebt.record(ledger.getDebt(now));
+        minutesBroken.record(ticksBroken / PlayPattern.TICKS_PER_MINUTE);
+        gpPaid.record(ledger.getLifetimePaid());
+        breaks.record(breakCount);
+        ticks.add(now);
+        events.add(eventCount);
+    }
+
+    private static long at(long now, long ticksUntil)
+    {
+        return ticksUntil < 0 ? Long.MAX_VALUE : now + ticksUntil;
+    }
+
+    // --- Report ---
+
+    private void report(int players, long nanos)
+    {
+        System.out.printf("%,d players, %,d ticks played, %,d events in %.1f s (%,.0f ticks/s)%n",
+                players, ticks.sum(), events.sum(), nanos / 1e9, ticks.sum() * 1e9 / nanos);
+        System.out.printf("Durability %d ticks, repair %d gp, penalty %d gp/tick, wear rate %.2f%n",
+                durabilityTicks, repairCost, penaltyPerTick, (double) wearRate / WearRateTable.ONE);
+        System.out.println();
+        System.out.printf("%-24s %12s %12s %12s %12s %12s%n", "per player", "p50", "p90", "p99", "max", "count");
+        print("debt when paid (gp)", debtAtPayment);
+        print("debt at end (gp)", outstandingDebt);
+        print("gp paid", gpPaid);
+        print("minutes broken", minutesBroken);
+        print("breaks", breaks);
+    }
+
+    private static void print(String name, LatencyHistogram histogram)
+    {
+        System.out.printf("%-24s %,12d %,12d %,12d %,12d %,12d%n", name,
+                histogram.getValueAtPercentile(50), histogram.getValueAtPercentile(90),
+                histogram.getValueAtPercentile(99), histogram.getMax(), histogram.getCount());
+    }
+}
@@ -0,0 +1,91 @@
+package com.singlehandedmode;
+
+import java.util.SplittableRandom;
+
+/**
+ * How a population plays, as means that each simulated player's own habits are drawn around.
+ *
+ * Times are in game ticks of play. Logged out time isn't simulated, as no ticks pass for the plugin.
+ */
+public final class PlayPattern
+{
+    public static final int TICKS_PER_MINUTE = 100;
+
+    // Dropped items despawn after three minutes
+    public static final int DESPAWN_TICKS = 3 * TICKS_PER_MINUTE;
+
+    final int days;
+    final double sessionsPerDay;
+    final double sessionMinutes;
+    final double equipRatio;
+    final double paymentDelayMinutes;
+    final double repairDelayMinutes;
+
+    public PlayPattern(int days, double sessionsPerDay, double sessionMinutes, double equipRatio,
+                       double paymentDelayMinutes, double repairDelayMinutes)
+    {
+        this.days = days;
+        this.sessionsPerDay = sessionsPerDay;
+        this.sessionMinutes = sessionMinutes;
+        this.equipRatio = equipRatio;
+        this.paymentDelayMinutes = paymentDelayMinutes;
+        this.repairDelayMinutes = repairDelayMinutes;
+    }
+
+    /**
+     * One player's habits: some play more, wear the hook more or pay up faster than others.
+     */
+    Player player(SplittableRandom random)
+    {
+        return new Player(
+                sessionsPerDay * spread(random),
+                sessionMinutes * TICKS_PER_MINUTE * spread(random),
+                Math.min(1, equipRatio * spread(random)),
+                paymentDelayMinutes * TICKS_PER_MINUTE * spread(random),
+                repairDelayMinutes * TICKS_PER_MINUTE * spread(random));
+    }
+
+    /**
+     * A factor between 0.5 and 1.5, so players differ from the mean without going to extremes.
+     */
+    private static double spread(SplittableRandom random)
+    {
+        return 0.5 + random.nextDouble();
+    }
+
+    static final class Player
+    {
+        final double sessionsPerDay;
+        final double sessionTicks;
+        final double equipRatio;
+        final double paymentDelayTicks;
+        final double repairDelayTicks;
+
+        Player(double sessionsPerDay, double sessionTicks, double equipRatio, double paymentDelayTicks,
+               double repairDelayTicks)
+        {
+            this.sessionsPerDay = sessionsPerDay;
+            this.sessionTicks = sessionTicks;
+            this.equipRatio = equipRatio;
+            this.paymentDelayTicks = paymentDelayTicks;
+            this.repairDelayTicks = repairDelayTicks;
+        }
+
+        /**
+         * Sessions to play today, the fraction of a session being a chance of one more.
+         */
+        int sessionsToday(SplittableRandom random)
+        {
+            int whole = (int) sessionsPerDay;
+            return whole + (random.nextDouble() < sessionsPerDay - whole ? 1 : 0);
+        }
+
+        /**
+         * An exponentially distributed wait of at least one tick around the given mean.
+         */
+        static long sample(SplittableRandom random, double meanTicks)
+        {
+            return 1 + (long) (-meanTicks * Math.log(1 - random.nextDouble()));
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package com.singlehandedmode;
+
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import java.lang.management.ManagementFactory;
+import net.runelite.api.EquipmentInventorySlot;
+import net.runelite.api.InventoryID;
+import net.runelite.api.coords.WorldPoint;
+import net.runelite.api.events.ClientTick;
+import net.runelite.api.events.GameTick;
+import net.runelite.api.events.ItemContainerChanged;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Bytes allocated per call on the paths that run every tick or every frame, once warmed up.
+ *
+ * The budgets are upper bounds, not targets. They leave room for what the fakes allocate (proxy argument
+ * arrays and the boxed arguments in them, iterators) and for the few allocations left on purpose, and fail
+ * on a per-call String.format, stream or path search node. The fakes return values already boxed, so
+ * results cost nothing, see Fakes.
+ */
+public class AllocationBudgetTest
+{
+	private static final int WARMUP = 20_000;
+	private static final int ITERATIONS = 100_000;
+	private static final int FRAMES_PER_TICK = 30;
+
+	private static final com.sun.management.ThreadMXBean THREADS =
+		(com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+	private Injector injector;
+	private FakeClient client;
+	private FakeClientThread clientThread;
+	private SingleHandedModePlugin plugin;
+	private DurabilityManager durabilityManager;
+
+	@Before
+	public void before() throws Exception
+	{
+		assumeTrue(THREADS.isThreadAllocatedMemorySupported());
+		THREADS.setThreadAllocatedMemoryEnabled(true);
+
+		injector = Guice.createInjector(new HeadlessModule());
+		client = injector.getInstance(FakeClient.class);
+		clientThread = injector.getInstance(FakeClientThread.class);
+		plugin = injector.getInstance(SingleHandedModePlugin.class);
+		durabilityManager = injector.getInstance(DurabilityManager.class);
+
+		plugin.startUp();
+		FakeItemContainer equipment = client.container(InventoryID.EQUIPMENT, 14)
+			.set(EquipmentInventorySlot.GLOVES.getSlotIdx(), HookStateManager.PIRATE_HOOK_ID, 1);
+		plugin.onItemContainerChanged(new ItemContainerChanged(InventoryID.EQUIPMENT.getId(), equipment.container()));
+	}
+
+	@After
+	public void after() throws Exception
+	{
+		if (plugin != null) plugin.shutDown();
+	}
+
+	@Test
+	public void testGameTick()
+	{
+		GameTick gameTick = new GameTick();
+		assertWithinBudget("Game tick", 128, () ->
+		{
+			client.tick();
+			plugin.onGameTick(gameTick);
+		});
+	}
+
+	@Test
+	public void testClientTick()
+	{
+		ClientTick clientTick = new ClientTick();
+		InsuranceAgent agent = new InsuranceAgent(client.client());
+		agent.spawn(new WorldPoint(3221, 3218, 0), 0);
+
+		// A standing agent has nothing to move
+		assertWithinBudget("Client tick", 16, () ->
+		{
+			plugin.onClientTick(clientTick);
+			agent.render();
+		});
+	}
+
+	@Test
+	public void testAgentWalking()
+	{
+		InsuranceAgent agent = new InsuranceAgent(client.client());
+		WorldPoint[] steps = { new WorldPoint(3221, 3218, 0), new WorldPoint(3222, 3218, 0) };
+		agent.spawn(steps[0], 0);
+
+		// One tick of frames. A step's scene position is converted once, and a frame only creates a
+		// LocalPoint when the agent moves on to the next interpolation step.
+		int[] tick = { 0 };
+		assertWithinBudget("Agent walking, per tick", 512, () ->
+		{
+			agent.moveTo(steps[++tick[0] & 1]);
+			for (int frame = 0; frame < FRAMES_PER_TICK; ++frame)
+			{
+				agent.render();
+			}
+		});
+	}
+
+	@Test
+	public void testPathSearch()
+	{
+		AgentPathFinder pathFinder = injector.getInstance(AgentPathFinder.class);
+		WorldPoint start = new WorldPoint(3210, 3210, 0);
+		WorldPoint target = new WorldPoint(3222, 3218, 0);
+
+		// The start and target LocalPoints and the returned step, the search itself reuses its arrays
+		assertWithinBudget("Path search", 256, () -> pathFinder.findNextStep(start, target));
+	}
+
+	@Test
+	public void testOverlayText()
+	{
+		DurabilityStatsOverlay statsOverlay = injector.getInstance(DurabilityStatsOverlay.class);
+		HookDurabilityInfoBox durabilityBox = new HookDurabilityInfoBox(null, plugin, durabilityManager);
+		HookCostInfoBox costBox = new HookCostInfoBox(null, plugin, durabilityManager);
+
+		// Text is only formatted when the value shown changes, at most once a second here
+		assertWithinBudget("Overlay text", 16, () ->
+		{
+			statsOverlay.updatePanel();
+			durabilityBox.getText();
+			costBox.getText();
+		});
+	}
+
+	@Test
+	public void testNpcComments()
+	{
+		AbleismGenerator ableismGenerator = injector.getInstance(AbleismGenerator.class);
+		FakeNpc[] npcs = {
+			client.addNpc(3106, "Man", new WorldPoint(3224, 3218, 0)),
+			client.addNpc(3107, "Woman", new WorldPoint(3220, 3216, 0)),
+			client.addNpc(3029, "Goblin", new WorldPoint(3225, 3220, 0)),
+		};
+
+		// The NPC iterator from the fake client and the proxy's argument arrays for the overhead text and cycle.
+		// Nothing from classifying or picking a speaker.
+		assertWithinBudget("NPC comments", 128, () ->
+		{
+			for (FakeNpc npc : npcs)
+			{
+				npc.setOverheadCycle(0);
+			}
+			ableismGenerator.makeRandomNpcSpeak(true);
+			clientThread.drain();
+		});
+	}
+
+	private static void assertWithinBudget(String path, long budget, Runnable body)
+	{
+		long bytes = bytesPerIteration(body);
+		assertTrue(path + " allocated " + bytes + " bytes per call, the budget is " + budget, bytes <= budget);
+	}
+
+	private static long bytesPerIteration(Runnable body)
+	{
+		for (int i = 0; i < WARMUP; ++i)
+		{
+			body.run();
+		}
+
+		long threadId = Thread.currentThread().getId();
+		long before = THREADS.getThreadAllocatedBytes(threadId);
+		for (int i = 0; i < ITERATIONS; ++i)
+		{
+			body.run();
+		}
+		return (THREADS.getThreadAllocatedBytes(threadId) - before) / ITERATIONS;
+	}
+}
@@ -0,0 +1,204 @@
+package com.singlehandedmode;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class DurabilityJournalTest
+{
+	// The fake config manager's account, and another
+	private static final String PROFILE = "headless";
+	private static final String OTHER_PROFILE = "other";
+
+	private Injector injector;
+	private DurabilityJournal journal;
+
+	@Before
+	public void before() throws IOException
+	{
+		deleteFiles();
+
+		// The lane runs inline, so every write has happened by the time a call returns
+		injector = Guice.createInjector(new HeadlessModule());
+		journal = injector.getInstance(DurabilityJournal.class);
+	}
+
+	@After
+	public void after() throws IOException
+	{
+		journal.close();
+		deleteFiles();
+	}
+
+	@Test
+	public void testReplayAfterTornTail() throws IOException
+	{
+		journal.open(PROFILE, new long[]{100, 0, 5000, 2000});
+		journal.append(10, 0, 10, 0);
+		journal.append(-110, 250, 20, -1);
+		journal.sync();
+		long before = Files.size(DurabilityJournal.journalPath(PROFILE));
+		journal.append(3, 4, 5, 6);
+		journal.close();
+
+		assertArrayEquals(new long[]{3, 254, 5035, 2005}, journal.replay(PROFILE));
+
+		// A crash partway through the last record drops only that record
+		truncate(before + 3);
+		assertArrayEquals(new long[]{0, 250, 5030, 1999}, journal.replay(PROFILE));
+
+		// As does a full record that fails its CRC
+		journal.open(PROFILE, new long[]{0, 250, 5030, 1999});
+		journal.append(1, 1, 1, 1);
+		journal.close();
+		long size = Files.size(DurabilityJournal.journalPath(PROFILE));
+		flipByte(size - 6);
+		assertArrayEquals(new long[]{0, 250, 5030, 1999}, journal.replay(PROFILE));
+	}
+
+	@Test
+	public void testReplayAfterCompaction() throws IOException
+	{
+		journal.open(PROFILE, new long[]{0, 0, 0, 0});
+
+		// Enough deltas to pass the compaction threshold several times over
+		long[] expected = new long[DurabilityJournal.FIELDS];
+		for (int i = 0; i < 20_000; ++i)
+		{
+			long wear = i % 7 == 0 ? -3 : 1;
+			long debt = i % 100 == 0 ? 1_000_000 : -5;
+			journal.append(wear, debt, 1, i % 3);
+			expected[DurabilityJournal.WEAR] += wear;
+			expected[DurabilityJournal.DEBT] += debt;
+			expected[DurabilityJournal.LIFETIME_WORN] += 1;
+			expected[DurabilityJournal.LIFETIME_PAID] += i % 3;
+		}
+		journal.close();
+
+		assertTrue(Files.size(DurabilityJournal.journalPath(PROFILE)) < 64 * 1024);
+		assertArrayEquals(expected, journal.replay(PROFILE));
+		assertNull("The temporary file is moved into place", tmpFileIfExists());
+	}
+
+	@Test
+	public void testCompactionKeepsOtherClientsAppends()
+	{
+		// A second client on the same account, appending while the first compacts under it
+		DurabilityJournal other = Guice.createInjector(new HeadlessModule()).getInstance(DurabilityJournal.class);
+		journal.open(PROFILE, new long[]{0, 0, 0, 0});
+		other.open(PROFILE, new long[]{0, 0, 0, 0});
+
+		for (int i = 0; i < 20_000; ++i)
+		{
+			journal.append(1, 0, 0, 0);
+			other.append(0, 1, 0, 0);
+		}
+		other.close();
+		journal.close();
+
+		assertArrayEquals(new long[]{20_000, 20_000, 0, 0}, journal.replay(PROFILE));
+	}
+
+	@Test
+	public void testProfilesAreSeparate()
+	{
+		journal.open(PROFILE, new long[]{1, 2, 3, 4});
+		journal.open(OTHER_PROFILE, new long[]{5, 6, 7, 8});
+		journal.append(1, 1, 1, 1);
+		journal.close();
+
+		assertArrayEquals(new long[]{1, 2, 3, 4}, journal.replay(PROFILE));
+		assertArrayEquals(new long[]{6, 7, 8, 9}, journal.replay(OTHER_PROFILE));
+	}
+
+	@Test
+	public void testMigratesLegacyConfig()
+	{
+		FakeConfigManager configManager = injector.getInstance(FakeConfigManager.class);
+		configManager.setConfiguration(SingleHandedModeConfig.GROUP, "currentWearTicks", 1234);
+		configManager.setConfiguration(SingleHandedModeConfig.GROUP, "accumulatedDebt", 5678);
+		configManager.setConfiguration(SingleHandedModeConfig.GROUP, "lifetimeWorn", 90_000L);
+		configManager.setConfiguration(SingleHandedModeConfig.GROUP, "lifetimePaid", 3_000_000L);
+
+		assertNull(journal.replay(PROFILE));
+		DurabilityManager durabilityManager = injector.getInstance(DurabilityManager.class);
+		durabilityManager.load();
+		durabilityManager.startUp();
+
+		assertEquals(1234, durabilityManager.getWearTicks());
+		assertEquals(5678, durabilityManager.getTotalRepairCost());
+		assertEquals(90_000L, durabilityManager.getLifetimeWorn());
+		assertEquals(3_000_000L, durabilityManager.getLifetimePaid());
+
+		// Only the first account to load carries the old state over
+		SingleHandedModeConfig config = injector.getInstance(SingleHandedModeConfig.class);
+		assertEquals(0, config.currentWearTicks());
+		assertEquals(0, config.accumulatedDebt());
+
+		configManager.setRSProfileKey(OTHER_PROFILE);
+		durabilityManager.onProfileChanged();
+		assertEquals(0, durabilityManager.getWearTicks());
+		assertEquals(0, durabilityManager.getTotalRepairCost());
+
+		configManager.setRSProfileKey(PROFILE);
+		durabilityManager.onProfileChanged();
+		assertEquals(1234, durabilityManager.getWearTicks());
+
+		// Written to a fresh journal, which is read from then on
+		durabilityManager.shutDown();
+		durabilityManager.close();
+		assertArrayEquals(new long[]{1234, 5678, 90_000, 3_000_000}, journal.replay(PROFILE));
+	}
+
+	private static void truncate(long size) throws IOException
+	{
+		try (RandomAccessFile file = new RandomAccessFile(DurabilityJournal.journalPath(PROFILE).toFile(), "rw"))
+		{
+			file.setLength(size);
+		}
+	}
+
+	private static void flipByte(long position) throws IOException
+	{
+		try (RandomAccessFile file = new RandomAccessFile(DurabilityJournal.journalPath(PROFILE).toFile(), "rw"))
+		{
+			file.seek(position);
+			int b = file.read();
+			file.seek(position);
+			file.write(b ^ 0x01);
+		}
+	}
+
+	private static Path tmpFileIfExists()
+	{
+		Path tmp = sibling(PROFILE, ".tmp");
+		return Files.exists(tmp) ? tmp : null;
+	}
+
+	private static Path sibling(String profile, String suffix)
+	{
+		Path path = DurabilityJournal.journalPath(profile);
+		return path.resolveSibling(path.getFileName() + suffix);
+	}
+
+	private static void deleteFiles() throws IOException
+	{
+		for (String profile : new String[]{PROFILE, OTHER_PROFILE})
+		{
+			Files.deleteIfExists(DurabilityJournal.journalPath(profile));
+			Files.deleteIfExists(sibling(profile, ".lock"));
+			Files.deleteIfExists(sibling(profile, ".tmp"));
+		}
+	}
+}
@@ -0,0 +1,184 @@
+package com.singlehandedmode;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import net.runelite.api.FontTypeFace;
+import net.runelite.api.ScriptID;
+import org.junit.Before;
+import org.junit.Test;
+
+public class FakeDialogueManagerTest
+{
+	private static final int DOCTOR = 3343;
+
+	// Our children of the chatbox, see FakeDialogueManager
+	private static final int BODY = 2;
+	private static final int CONTINUE = 3;
+	private static final int FIRST_OPTION = 5;
+	private static final int WIDGET_COUNT = FIRST_OPTION + FakeDialogueManager.MAX_OPTIONS;
+
+	private FakeClient client;
+	private FakeClientThread clientThread;
+	private FakeDialogueManager dialogueManager;
+
+	@Before
+	public void before()
+	{
+		Injector injector = Guice.createInjector(new HeadlessModule());
+		client = injector.getInstance(FakeClient.class);
+		clientThread = injector.getInstance(FakeClientThread.class);
+		dialogueManager = injector.getInstance(FakeDialogueManager.class);
+
+		// Every character 10 wide, so 38 fit on a line of the body
+		client.chatbox().setFont(Fakes.of(FontTypeFace.class, new MonospacedFont()));
+	}
+
+	@Test
+	public void testLongTextPages()
+	{
+		// Four letter words take 50 with their space, so 7 fit on a line and 28 on a page
+		String text = String.join(" ", Collections.nCopies(40, "word"));
+		open(new FakeDialogueManager.Dialogue().npc(DOCTOR, "Doctor", text));
+
+		String line = String.join(" ", Collections.nCopies(7, "word"));
+		assertEquals(String.join("<br>", Collections.nCopies(4, line)), child(BODY).getText());
+		assertFalse(child(CONTINUE).isHidden());
+
+		assertTrue(client.chatbox().clickListener());
+		assertEquals(line + "<br>" + String.join(" ", Collections.nCopies(5, "word")), child(BODY).getText());
+
+		assertTrue(client.chatbox().clickListener());
+		assertClosed();
+	}
+
+	@Test
+	public void testTagsTakeNoWidth()
+	{
+		String text = "<col=ff0000>" + String.join(" ", Collections.nCopies(7, "word")) + "</col>";
+		open(new FakeDialogueManager.Dialogue().npc(DOCTOR, "Doctor", text));
+		assertEquals(text, child(BODY).getText());
+	}
+
+	@Test
+	public void testChoiceBranch()
+	{
+		open(new FakeDialogueManager.Dialogue()
+			.npc(DOCTOR, "Doctor", "What seems to be the trouble?")
+			.options("Select an Option",
+				new FakeDialogueManager.Choice("My hand", new FakeDialogueManager.Dialogue().npc(DOCTOR, "Doctor", "Let me see.")),
+				new FakeDialogueManager.Choice("Nothing", new FakeDialogueManager.Dialogue().npc(DOCTOR, "Doctor", "Off you go then.")))
+			.npc(DOCTOR, "Doctor", "Come back any time."));
+
+		assertTrue(client.chatbox().clickListener());
+
+		// The options replace the body, and clicking where the body was does nothing
+		assertTrue(child(BODY).isHidden());
+		assertEquals("My hand", child(FIRST_OPTION).getText());
+		assertEquals("Nothing", child(FIRST_OPTION + 1).getText());
+		assertFalse(child(FIRST_OPTION + 1).isHidden());
+		assertTrue(child(FIRST_OPTION + 2).isHidden());
+
+		// The second choice's pages, then the rest of the dialogue
+		assertTrue(child(FIRST_OPTION + 1).click());
+		assertFalse(child(BODY).isHidden());
+		assertTrue(child(FIRST_OPTION).isHidden());
+		assertEquals("Off you go then.", child(BODY).getText());
+
+		assertTrue(client.chatbox().clickListener());
+		assertEquals("Come back any time.", child(BODY).getText());
+
+		assertTrue(client.chatbox().clickListener());
+		assertClosed();
+	}
+
+	@Test
+	public void testActionsRunInOrder()
+	{
+		List<String> ran = new ArrayList<>();
+		open(new FakeDialogueManager.Dialogue()
+			.then(() -> ran.add("before"))
+			.npc(DOCTOR, "Doctor", "First")
+			.then(() -> ran.add("between 1"))
+			.then(() -> ran.add("between 2"))
+			.npc(DOCTOR, "Doctor", "Second")
+			.then(() -> ran.add("after")));
+
+		// Actions before the first page run as it opens, the rest as they're reached
+		assertEquals(Collections.singletonList("before"), ran);
+		assertEquals("First", child(BODY).getText());
+
+		assertTrue(client.chatbox().clickListener());
+		assertEquals(Arrays.asList("before", "between 1", "between 2"), ran);
+		assertEquals("Second", child(BODY).getText());
+
+		assertTrue(client.chatbox().clickListener());
+		assertEquals(Arrays.asList("before", "between 1", "between 2", "after"), ran);
+		assertClosed();
+	}
+
+	@Test
+	public void testTreeReused()
+	{
+		dialogueManager.openNpcDialogue(DOCTOR, "Doctor", "Hello", null);
+		clientThread.drain();
+		FakeWidget body = client.chatbox().children().get(BODY);
+
+		// The chatbox is opened before our widgets are looked for, and restored on close
+		assertEquals(Collections.singletonList(175), client.getScriptsRun());
+		assertTrue(client.chatbox().clickListener());
+		assertEquals(Arrays.asList(175, ScriptID.CHAT_PROMPT_INIT), client.getScriptsRun());
+
+		dialogueManager.openNpcDialogue(DOCTOR, "Doctor", "Hello again", null);
+		clientThread.drain();
+		assertEquals(WIDGET_COUNT, client.chatbox().children().size());
+		assertSame(body, client.chatbox().children().get(BODY));
+		assertEquals("Hello again", body.getText());
+		assertTrue(client.chatbox().clickListener());
+
+		// Something else cleared the chatbox
+		client.chatbox().deleteAllChildren();
+		dialogueManager.openNpcDialogue(DOCTOR, "Doctor", "Hello once more", null);
+		clientThread.drain();
+		assertEquals(WIDGET_COUNT, client.chatbox().children().size());
+		assertNotSame(body, client.chatbox().children().get(BODY));
+		assertEquals("Hello once more", child(BODY).getText());
+	}
+
+	private void open(FakeDialogueManager.Dialogue dialogue)
+	{
+		dialogueManager.openDialogue(dialogue);
+		clientThread.drain();
+	}
+
+	private FakeWidget child(int index)
+	{
+		return client.chatbox().children().get(index);
+	}
+
+	private void assertClosed()
+	{
+		assertEquals(0, client.chatbox().getListenerCount());
+		for (FakeWidget child : client.chatbox().children())
+		{
+			assertTrue(child.isHidden());
+		}
+	}
+
+	private static class MonospacedFont
+	{
+		public int getTextWidth(String text)
+		{
+			return text.length() * 10;
+		}
+	}
+}
@@ -0,0 +1,150 @@
+package com.singlehandedmode;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import net.runelite.api.events.BeforeRender;
+import net.runelite.api.events.GameTick;
+import net.runelite.client.events.FocusChanged;
+import org.junit.Before;
+import org.junit.Test;
+
+public class FrameGovernorTest
+{
+	private static final long MILLIS = 1_000_000L;
+
+	private final BeforeRender beforeRender = new BeforeRender();
+	private final GameTick gameTick = new GameTick();
+
+	private FakeConfigManager configManager;
+	private FrameGovernor governor;
+	private long now;
+
+	@Before
+	public void before()
+	{
+		configManager = new FakeConfigManager(null);
+		governor = new FrameGovernor(configManager.configManager(), () -> now);
+		now = 10_000 * MILLIS;
+		governor.startUp();
+	}
+
+	@Test
+	public void testStepsDownWhenFramesAreSlow()
+	{
+		// 20 fps, three ticks over budget for each step
+		ticks(20, 50, 600);
+		assertEquals(FrameGovernor.Level.SLOW_OVERLAYS, governor.getLevel());
+		assertEquals(FrameGovernor.COARSE_INTERPOLATION_STEPS, governor.getInterpolationSteps());
+
+		// Every other comment, and the overlays every tenth frame
+		int comments = 0;
+		for (int i = 0; i < 10; ++i)
+		{
+			if (governor.allowsComment()) ++comments;
+		}
+		assertEquals(5, comments);
+
+		int refreshes = 0;
+		for (int i = 0; i < 20; ++i)
+		{
+			governor.onBeforeRender(beforeRender);
+			if (governor.isOverlayRefreshDue()) ++refreshes;
+		}
+		assertEquals(2, refreshes);
+	}
+
+	@Test
+	public void testStepsDownWhenTicksJitter()
+	{
+		// Frames are fine, but ticks land 300 ms late
+		ticks(20, 16, 900);
+		assertEquals(FrameGovernor.Level.SLOW_OVERLAYS, governor.getLevel());
+	}
+
+	@Test
+	public void testStepsUpSlowly()
+	{
+		ticks(20, 50, 600);
+		assertEquals(FrameGovernor.Level.SLOW_OVERLAYS, governor.getLevel());
+
+		// One level for every 50 ticks back within budget
+		ticks(45, 16, 600);
+		assertEquals(FrameGovernor.Level.SLOW_OVERLAYS, governor.getLevel());
+		ticks(10, 16, 600);
+		assertEquals(FrameGovernor.Level.FEWER_COMMENTS, governor.getLevel());
+		ticks(100, 16, 600);
+		assertEquals(FrameGovernor.Level.FULL, governor.getLevel());
+		assertEquals(FrameGovernor.FULL_INTERPOLATION_STEPS, governor.getInterpolationSteps());
+	}
+
+	@Test
+	public void testBriefSlowdownIsIgnored()
+	{
+		// Two slow ticks aren't enough to step down
+		ticks(10, 16, 600);
+		ticks(2, 50, 600);
+		ticks(10, 16, 600);
+		assertEquals(FrameGovernor.Level.FULL, governor.getLevel());
+	}
+
+	@Test
+	public void testFrameRateLimit()
+	{
+		// A client limited to 20 fps is drawing as fast as it's been asked to
+		configManager.setConfiguration("fpscontrol", "limitFps", "true");
+		configManager.setConfiguration("fpscontrol", "maxFps", "20");
+		governor.startUp();
+
+		ticks(20, 50, 600);
+		assertEquals(FrameGovernor.Level.FULL, governor.getLevel());
+
+		// But not slower than that
+		ticks(20, 80, 600);
+		assertEquals(FrameGovernor.Level.SLOW_OVERLAYS, governor.getLevel());
+	}
+
+	@Test
+	public void testSuspendedWhileUnfocused()
+	{
+		focus(false);
+		assertTrue(governor.isSuspended());
+		assertEquals(0, governor.getInterpolationSteps());
+		assertFalse(governor.allowsComment());
+		assertFalse(governor.isOverlayRefreshDue());
+
+		// Unfocused clients draw slowly, which isn't held against them
+		ticks(20, 200, 600);
+		assertEquals(FrameGovernor.Level.FULL, governor.getLevel());
+
+		focus(true);
+		assertFalse(governor.isSuspended());
+		assertTrue(governor.allowsComment());
+		ticks(20, 16, 600);
+		assertEquals(FrameGovernor.Level.FULL, governor.getLevel());
+	}
+
+	// Draws frames every frameMillis until the next tick is due, then ticks
+	private void ticks(int count, long frameMillis, long tickMillis)
+	{
+		for (int i = 0; i < count; ++i)
+		{
+			long tickDue = now + tickMillis * MILLIS;
+			while (now + frameMillis * MILLIS <= tickDue)
+			{
+				now += frameMillis * MILLIS;
+				governor.onBeforeRender(beforeRender);
+			}
+			now = tickDue;
+			governor.onGameTick(gameTick);
+		}
+	}
+
+	private void focus(boolean focused)
+	{
+		FocusChanged event = new FocusChanged();
+		event.setFocused(focused);
+		governor.onFocusChanged(event);
+	}
+}
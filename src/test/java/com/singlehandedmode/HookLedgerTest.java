@@ -0,0 +1,275 @@
+package com.singlehandedmode;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+import org.junit.Before;
+import org.junit.Test;
+
+public class HookLedgerTest
+{
+	private TickScheduler scheduler;
+	private HookLedger ledger;
+	private final TickScheduler.Timer breakTimer = new TickScheduler.Timer(this::onBreakDue);
+
+	// Settings the ledger is driven with, changed at random by the differential test
+	private boolean equipped;
+	private int durabilityTicks;
+	private int repairCost;
+	private int penaltyPerSecond;
+
+	@Before
+	public void before()
+	{
+		scheduler = new TickScheduler();
+	}
+
+	@Test
+	public void testMatchesPerTickCounting()
+	{
+		for (int seed = 0; seed < 200; ++seed)
+		{
+			Random random = new Random(seed);
+			scheduler = new TickScheduler();
+			durabilityTicks = 1 + random.nextInt(40);
+			repairCost = random.nextInt(5000);
+			penaltyPerSecond = random.nextInt(50);
+			equipped = false;
+
+			int startWear = random.nextInt(durabilityTicks + 5);
+			ledger = new HookLedger(startWear, 0, 0, 0, durabilityTicks);
+			PerTickLedger expected = new PerTickLedger(startWear, durabilityTicks);
+			updateSegment();
+
+			for (int tick = 1; tick <= 400; ++tick)
+			{
+				// Whatever happens between ticks, then the tick itself
+				switch (random.nextInt(12))
+				{
+					case 0:
+					case 1:
+						equipped = !equipped;
+						updateSegment();
+						break;
+					case 2:
+						// An animation change restarts the segment at the same rate when wear isn't weighted
+						updateSegment();
+						break;
+					case 3:
+						penaltyPerSecond = random.nextInt(50);
+						updateSegment();
+						break;
+					case 4:
+						durabilityTicks = 1 + random.nextInt(40);
+						updateSegment();
+						break;
+					case 5:
+						if (random.nextInt(4) == 0)
+						{
+							ledger.settle(scheduler.getCurrentTick());
+							expected.settle();
+						}
+						else if (random.nextInt(3) == 0)
+						{
+							ledger.repair(scheduler.getCurrentTick());
+							updateSegment();
+							expected.repair();
+						}
+						break;
+					default:
+						break;
+				}
+
+				expected.onGameTick(equipped, durabilityTicks, repairCost, penaltyPerSecond);
+				scheduler.onGameTick();
+
+				long now = scheduler.getCurrentTick();
+				String where = "Seed " + seed + ", tick " + tick;
+				assertEquals(where, expected.broken, ledger.isBroken());
+				assertEquals(where, expected.wearTicks, ledger.getWearTicks(now));
+				assertEquals(where, expected.penaltyDebt, ledger.getDebt(now));
+				assertEquals(where, expected.lifetimeWorn, ledger.getLifetimeWorn(now));
+				assertEquals(where, expected.lifetimePaid, ledger.getLifetimePaid());
+			}
+		}
+	}
+
+	@Test
+	public void testTicksUntilBreakWholeRate()
+	{
+		ledger = new HookLedger(0, 0, 0, 0, 100);
+		assertEquals(100, ledger.startSegment(0, true, WearRateTable.ONE, 0, 100));
+		assertEquals(99, ledger.getWearTicks(99));
+		assertEquals(100, ledger.getWearTicks(100));
+
+		// Not worn, or no wear, never breaks
+		assertEquals(-1, ledger.startSegment(10, false, WearRateTable.ONE, 0, 100));
+		assertEquals(-1, ledger.startSegment(10, true, 0, 0, 100));
+	}
+
+	@Test
+	public void testTicksUntilBreakFractionalRate()
+	{
+		// 1.5 ticks of wear per tick: 100 ticks of durability go in 66.7 ticks, so it breaks on the 67th
+		int rate = WearRateTable.ONE * 3 / 2;
+		ledger = new HookLedger(0, 0, 0, 0, 100);
+		assertEquals(67, ledger.startSegment(0, true, rate, 0, 100));
+		assertEquals(99, ledger.getWearTicks(66));
+		assertEquals(100, ledger.getWearTicks(67));
+
+		// The partial tick carries into the next segment: 10 ticks at 1.5 leaves 85 of wear, from 15.0
+		ledger = new HookLedger(0, 0, 0, 0, 100);
+		ledger.startSegment(0, true, rate, 0, 100);
+		assertEquals(85, ledger.startSegment(10, true, WearRateTable.ONE, 0, 100));
+
+		// 0.3 ticks per tick is 76/256 in fixed point: 10 ticks make 760/256, just short of 3, the 11th reaches it
+		int slow = WearRateTable.ONE * 3 / 10;
+		ledger = new HookLedger(0, 0, 0, 0, 3);
+		long ticks = ledger.startSegment(0, true, slow, 0, 3);
+		assertEquals(11, ticks);
+		assertEquals(2, ledger.getWearTicks(ticks - 1));
+		assertEquals(3, ledger.getWearTicks(ticks));
+	}
+
+	@Test
+	public void testTicksUntilBreakPastDurability()
+	{
+		// Already past durability but not yet broken, e.g. durability lowered in config: breaks next tick
+		ledger = new HookLedger(50, 0, 0, 0, 100);
+		assertEquals(1, ledger.startSegment(0, true, WearRateTable.ONE, 0, 20));
+		assertEquals(1, ledger.startSegment(5, true, WearRateTable.ONE * 3 / 2, 0, 20));
+
+		// Exactly at durability, the same
+		ledger = new HookLedger(20, 0, 0, 0, 100);
+		assertEquals(1, ledger.startSegment(0, true, WearRateTable.ONE, 0, 20));
+
+		// Loaded broken, so it never breaks again until repaired
+		ledger = new HookLedger(150, 0, 0, 0, 100);
+		assertEquals(-1, ledger.startSegment(0, true, WearRateTable.ONE, 0, 100));
+	}
+
+	@Test
+	public void testBreakPenaltySettleRepair()
+	{
+		ledger = new HookLedger(0, 0, 0, 0, 10);
+		assertEquals(10, ledger.startSegment(0, true, WearRateTable.ONE, 7, 10));
+		assertEquals(0, ledger.getDebt(9));
+
+		// The break charges the repair cost, and only the following ticks accrue the penalty
+		ledger.breakHook(10, 500);
+		assertEquals(-1, ledger.startSegment(10, true, WearRateTable.ONE, 7, 10));
+		assertEquals(500, ledger.getDebt(10));
+		assertEquals(507, ledger.getDebt(11));
+		assertEquals(570, ledger.getDebt(20));
+		assertTrue(ledger.acceptsPayment(20, 570));
+		assertFalse(ledger.acceptsPayment(20, 569));
+
+		// No penalty while unequipped
+		ledger.pause(20);
+		assertEquals(570, ledger.getDebt(40));
+		assertEquals(20, ledger.getWearTicks(40));
+		assertEquals(20, ledger.getLifetimeWorn(40));
+
+		// Settling pays the debt up to now and keeps the hook broken
+		ledger.startSegment(40, true, WearRateTable.ONE, 7, 10);
+		assertEquals(605, ledger.settle(45));
+		assertEquals(605, ledger.getLifetimePaid());
+		assertEquals(0, ledger.getDebt(45));
+		assertTrue(ledger.isBroken());
+		assertEquals(14, ledger.getDebt(47));
+
+		// Repair clears the wear and stops the penalty, the debt left stays owed
+		ledger.repair(50);
+		assertFalse(ledger.isBroken());
+		assertEquals(10, ledger.startSegment(50, true, WearRateTable.ONE, 7, 10));
+		assertEquals(35, ledger.getDebt(55));
+		assertEquals(5, ledger.getWearTicks(55));
+		assertEquals(35, ledger.getLifetimeWorn(55));
+		assertFalse("Payment is only taken for a broken hook", ledger.acceptsPayment(55, 35));
+	}
+
+	@Test
+	public void testPenaltyRoundingMatchesDouble()
+	{
+		for (int penalty = 0; penalty <= 100_000; ++penalty)
+		{
+			assertEquals("Penalty " + penalty, (int) Math.ceil(penalty * 0.6), penaltyPerTick(penalty));
+		}
+	}
+
+	// Mirrors DurabilityManager.updateSegment()
+	private void updateSegment()
+	{
+		long ticksUntilBreak = ledger.startSegment(scheduler.getCurrentTick(), equipped, WearRateTable.ONE,
+				penaltyPerTick(penaltyPerSecond), durabilityTicks);
+		if (ticksUntilBreak > 0)
+		{
+			scheduler.schedule(breakTimer, (int) ticksUntilBreak);
+		}
+		else
+		{
+			scheduler.cancel(breakTimer);
+		}
+	}
+
+	// Mirrors DurabilityManager.onBreakDue()
+	private void onBreakDue()
+	{
+		ledger.breakHook(scheduler.getCurrentTick(), repairCost);
+		updateSegment();
+	}
+
+	private static int penaltyPerTick(int penaltyPerSecond)
+	{
+		return (int) Math.floorDiv(3L * penaltyPerSecond + 4, 5);
+	}
+
+	/**
+	 * The counting DurabilityManager did before the lazy clock: everything bumped on every worn tick.
+	 */
+	private static final class PerTickLedger
+	{
+		private int wearTicks;
+		private int penaltyDebt;
+		private boolean broken;
+		private long lifetimeWorn;
+		private long lifetimePaid;
+
+		PerTickLedger(int wearTicks, int durabilityTicks)
+		{
+			this.wearTicks = wearTicks;
+			this.broken = wearTicks >= durabilityTicks;
+		}
+
+		void onGameTick(boolean equipped, int durabilityTicks, int repairCost, int penaltyPerSecond)
+		{
+			if (!equipped) return;
+
+			++wearTicks;
+			++lifetimeWorn;
+			if (broken)
+			{
+				penaltyDebt += (int) Math.ceil(penaltyPerSecond * 0.6);
+			}
+			else if (wearTicks >= durabilityTicks)
+			{
+				penaltyDebt += repairCost;
+				broken = true;
+			}
+		}
+
+		void settle()
+		{
+			lifetimePaid += penaltyDebt;
+			penaltyDebt = 0;
+		}
+
+		void repair()
+		{
+			wearTicks = 0;
+			broken = false;
+		}
+	}
+}
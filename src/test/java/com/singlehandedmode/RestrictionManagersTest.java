@@ -0,0 +1,109 @@
+package com.singlehandedmode;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import net.runelite.api.EquipmentInventorySlot;
+import net.runelite.api.InventoryID;
+import net.runelite.api.events.ItemContainerChanged;
+import net.runelite.api.events.MenuOptionClicked;
+import org.junit.Before;
+import org.junit.Test;
+
+public class RestrictionManagersTest
+{
+	private FakeClient client;
+	private FakeConfigManager configManager;
+	private HookStateManager hookState;
+	private EquipmentRestrictionManager equipmentManager;
+	private InteractionRestrictionManager interactionManager;
+
+	@Before
+	public void before()
+	{
+		Injector injector = Guice.createInjector(new HeadlessModule());
+		client = injector.getInstance(FakeClient.class);
+		configManager = injector.getInstance(FakeConfigManager.class);
+		hookState = injector.getInstance(HookStateManager.class);
+		equipmentManager = injector.getInstance(EquipmentRestrictionManager.class);
+		interactionManager = injector.getInstance(InteractionRestrictionManager.class);
+	}
+
+	@Test
+	public void testTwoHandedBlockedWithoutHook()
+	{
+		MenuOptionClicked event = FakeMenuEntry.item("Wield", "Armadyl godsword", 11802).click();
+
+		assertEquals(RestrictionRule.TWO_HANDED_NO_HOOK, equipmentManager.checkRestrictions(event));
+		assertTrue(event.isConsumed());
+		assertEquals(1, client.getChatMessageCount());
+	}
+
+	@Test
+	public void testConfigChangeAllowsTwoHanded()
+	{
+		configManager.setConfiguration(SingleHandedModeConfig.GROUP, "disable2HWeaponsNoHook", false);
+		MenuOptionClicked event = FakeMenuEntry.item("Wield", "Armadyl godsword", 11802).click();
+
+		assertNull(equipmentManager.checkRestrictions(event));
+		assertFalse(event.isConsumed());
+	}
+
+	@Test
+	public void testBowBlockedWithHook()
+	{
+		equipHook();
+
+		assertEquals(RestrictionRule.BOW,
+			equipmentManager.checkRestrictions(FakeMenuEntry.item("Wield", "Magic shortbow", 861).click()));
+		assertNull(equipmentManager.checkRestrictions(FakeMenuEntry.item("Wield", "Rune crossbow", 9185).click()));
+	}
+
+	@Test
+	public void testHookBypassesInteractions()
+	{
+		configManager.setConfiguration(SingleHandedModeConfig.GROUP, "disableLadders", true);
+		FakeMenuEntry ladder = FakeMenuEntry.object("Climb-up", "Ladder", 16683);
+		assertEquals(RestrictionRule.LADDER, interactionManager.checkRestrictions(ladder.click()));
+
+		equipHook();
+		assertNull(interactionManager.checkRestrictions(ladder.click()));
+	}
+
+	@Test
+	public void testSustainedClicks()
+	{
+		FakeMenuEntry[] entries = {
+			FakeMenuEntry.object("Mine", "Iron rocks", 11365),
+			FakeMenuEntry.object("Climb-up", "Staircase", 16671),
+			FakeMenuEntry.item("Eat", "Shark", 385),
+			FakeMenuEntry.item("Wield", "Dragon scimitar", 4587),
+		};
+
+		int clicks = 1_000_000;
+		int blocked = 0;
+		for (int i = 0; i < clicks; ++i)
+		{
+			MenuOptionClicked event = entries[i % entries.length].click();
+			hookState.captureClickIntent(event);
+			RestrictionRule rule = equipmentManager.checkRestrictions(event);
+			if (!event.isConsumed()) rule = interactionManager.checkRestrictions(event);
+			if (rule != null) ++blocked;
+		}
+
+		// Only mining is blocked
+		assertEquals(clicks / entries.length, blocked);
+		assertEquals(blocked, client.getChatMessageCount());
+	}
+
+	private void equipHook()
+	{
+		FakeItemContainer equipment = client.container(InventoryID.EQUIPMENT, 14)
+			.set(EquipmentInventorySlot.GLOVES.getSlotIdx(), HookStateManager.PIRATE_HOOK_ID, 1);
+		hookState.onItemContainerChanged(new ItemContainerChanged(InventoryID.EQUIPMENT.getId(), equipment.container()));
+	}
+}
@@ -0,0 +1,139 @@
+package com.singlehandedmode;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.util.Arrays;
+import org.junit.Test;
+
+public class SessionFormatTest
+{
+	@Test
+	public void testRoundTrip()
+	{
+		SessionFormat.Writer writer = new SessionFormat.Writer();
+		writer.writeRecord(SessionFormat.MENU_OPTION_CLICKED, 3);
+		writer.writeString("Wield");
+		writer.writeString("<col=ff9040>Dragon scimitar</col>");
+		writer.writeVarInt(57);
+		writer.writeSignedVarInt(-1);
+		writer.writeSignedVarInt(4587);
+
+		SessionFormat.Reader reader = new SessionFormat.Reader(writer.drain());
+		assertEquals(SessionFormat.MENU_OPTION_CLICKED, reader.readVarInt());
+		assertEquals(3, reader.readVarInt());
+		assertEquals("Wield", reader.readString());
+		assertEquals("<col=ff9040>Dragon scimitar</col>", reader.readString());
+		assertEquals(57, reader.readVarInt());
+		assertEquals(-1, reader.readSignedVarInt());
+		assertEquals(4587, reader.readSignedVarInt());
+		assertFalse(reader.hasRemaining());
+	}
+
+	@Test
+	public void testVarIntEdges()
+	{
+		int[] values = {0, 1, -1, 63, -64, 64, -65, 127, 128, 16_383, 16_384, -16_385,
+			Integer.MAX_VALUE, Integer.MIN_VALUE};
+
+		SessionFormat.Writer writer = new SessionFormat.Writer();
+		for (int value : values)
+		{
+			writer.writeSignedVarInt(value);
+			writer.writeVarInt(value);
+		}
+
+		SessionFormat.Reader reader = new SessionFormat.Reader(writer.drain());
+		for (int value : values)
+		{
+			assertEquals("Signed " + value, value, reader.readSignedVarInt());
+			assertEquals("Unsigned " + value, value, reader.readVarInt());
+		}
+		assertFalse(reader.hasRemaining());
+	}
+
+	@Test
+	public void testZigZagSizes()
+	{
+		// Small magnitudes of either sign take one byte, the sign costs one bit rather than five bytes
+		assertEquals(1, signedSize(0));
+		assertEquals(1, signedSize(-1));
+		assertEquals(1, signedSize(63));
+		assertEquals(1, signedSize(-64));
+		assertEquals(2, signedSize(64));
+		assertEquals(2, signedSize(-65));
+		assertEquals(5, signedSize(Integer.MIN_VALUE));
+		assertEquals(5, unsignedSize(-1));
+	}
+
+	@Test
+	public void testInternedStrings()
+	{
+		SessionFormat.Writer writer = new SessionFormat.Writer();
+		writer.writeString("Attack");
+		int first = writer.size();
+		writer.writeString("Attack");
+		int second = writer.size() - first;
+		writer.writeString(null);
+		writer.writeString("");
+
+		// A repeat is just its table index
+		assertEquals(1, second);
+
+		SessionFormat.Reader reader = new SessionFormat.Reader(writer.drain());
+		assertEquals("Attack", reader.readString());
+		assertEquals("Attack", reader.readString());
+		assertEquals("", reader.readString());
+		assertEquals("", reader.readString());
+		assertFalse(reader.hasRemaining());
+	}
+
+	@Test
+	public void testDrainKeepsStringTable()
+	{
+		SessionFormat.Writer writer = new SessionFormat.Writer();
+		writer.writeString("Wield");
+		writer.writeString("Remove");
+		byte[] first = writer.drain();
+		assertEquals(0, writer.size());
+
+		// Strings from before the drain are still referenced by index, as the recorder appends both to one file
+		writer.writeString("Remove");
+		writer.writeString("Wield");
+		writer.writeString("Wear");
+		byte[] second = writer.drain();
+
+		byte[] stream = Arrays.copyOf(first, first.length + second.length);
+		System.arraycopy(second, 0, stream, first.length, second.length);
+
+		SessionFormat.Reader reader = new SessionFormat.Reader(stream);
+		assertEquals("Wield", reader.readString());
+		assertEquals("Remove", reader.readString());
+		assertEquals("Remove", reader.readString());
+		assertEquals("Wield", reader.readString());
+		assertEquals("Wear", reader.readString());
+		assertFalse(reader.hasRemaining());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testRejectsOtherFiles()
+	{
+		new SessionFormat.Reader(new byte[]{'P', 'K', 3, 4, 0});
+	}
+
+	private static int signedSize(int value)
+	{
+		SessionFormat.Writer writer = new SessionFormat.Writer();
+		int header = writer.size();
+		writer.writeSignedVarInt(value);
+		return writer.size() - header;
+	}
+
+	private static int unsignedSize(int value)
+	{
+		SessionFormat.Writer writer = new SessionFormat.Writer();
+		int header = writer.size();
+		writer.writeVarInt(value);
+		return writer.size() - header;
+	}
+}
@@ -0,0 +1,217 @@
+package com.singlehandedmode;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Two clients on one machine, as two mappings of the same file.
+ */
+public class SharedDurabilityStateTest
+{
+	private static final long MAGIC = 0x53484D5348415232L; // "SHMSHAR2"
+
+	private File file;
+	private SharedDurabilityState first;
+	private SharedDurabilityState second;
+
+	@Before
+	public void before() throws IOException
+	{
+		file = Files.createTempFile("durability", ".shared").toFile();
+		first = new SharedDurabilityState(file);
+		second = new SharedDurabilityState(file);
+	}
+
+	@After
+	public void after() throws IOException
+	{
+		first.close();
+		second.close();
+		Files.deleteIfExists(file.toPath());
+	}
+
+	@Test
+	public void testFirstClientSeeds()
+	{
+		first.attach(first.map(seed(10, 20, 30, 40)));
+		second.attach(second.map(seed(1, 2, 3, 4)));
+
+		// The second client's seed is ignored, both read the first's
+		for (SharedDurabilityState state : new SharedDurabilityState[]{first, second})
+		{
+			assertEquals(10, state.get(SharedDurabilityState.WEAR));
+			assertEquals(20, state.get(SharedDurabilityState.DEBT));
+			assertEquals(30, state.get(SharedDurabilityState.LIFETIME_WORN));
+			assertEquals(40, state.get(SharedDurabilityState.LIFETIME_PAID));
+		}
+	}
+
+	@Test
+	public void testConcurrentSeedingAgreesOnOneSeed() throws Exception
+	{
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try
+		{
+			for (int round = 0; round < 50; ++round)
+			{
+				// A file no client has seeded yet
+				Files.write(file.toPath(), new byte[64]);
+				Callable<Object> mapFirst = () -> first.map(seed(1, 1, 1, 1));
+				Callable<Object> mapSecond = () -> second.map(seed(2, 2, 2, 2));
+				Future<Object> a = executor.submit(mapFirst);
+				Future<Object> b = executor.submit(mapSecond);
+				assertNotNull(a.get());
+				assertNotNull(b.get());
+
+				// Every slot comes from the same seed, never a mix of both
+				first.attach(first.map(seed(3, 3, 3, 3)));
+				long wear = first.get(SharedDurabilityState.WEAR);
+				assertTrue(wear == 1 || wear == 2);
+				assertEquals(wear, first.get(SharedDurabilityState.DEBT));
+				assertEquals(wear, first.get(SharedDurabilityState.LIFETIME_WORN));
+				assertEquals(wear, first.get(SharedDurabilityState.LIFETIME_PAID));
+			}
+		}
+		finally
+		{
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	public void testUpdatesAreSeenByTheOtherClient()
+	{
+		first.attach(first.map(seed(0, 0, 0, 0)));
+		second.attach(second.map(seed(0, 0, 0, 0)));
+
+		long sequence = second.getSequence();
+		assertEquals(5, first.add(SharedDurabilityState.DEBT, 5));
+		assertEquals(12, second.add(SharedDurabilityState.DEBT, 7));
+		assertEquals(12, first.get(SharedDurabilityState.DEBT));
+		assertEquals(sequence + 2, second.getSequence());
+
+		assertEquals(12, second.getAndSet(SharedDurabilityState.DEBT, 0));
+		assertEquals(0, first.get(SharedDurabilityState.DEBT));
+	}
+
+	@Test
+	public void testOnlyOneClientBreaksTheHook()
+	{
+		first.attach(first.map(seed(100, 0, 0, 0)));
+		second.attach(second.map(seed(0, 0, 0, 0)));
+
+		long sequence = first.getSequence();
+		assertTrue(first.setBits(SharedDurabilityState.WEAR, SharedDurabilityState.BROKEN_FLAG));
+		assertFalse(second.setBits(SharedDurabilityState.WEAR, SharedDurabilityState.BROKEN_FLAG));
+		assertEquals(sequence + 1, first.getSequence());
+
+		// Wear keeps counting under the flag, and a repair clears both at once
+		second.add(SharedDurabilityState.WEAR, 1);
+		long wear = first.get(SharedDurabilityState.WEAR);
+		assertEquals(101, wear & SharedDurabilityState.WEAR_MASK);
+		assertTrue((wear & SharedDurabilityState.BROKEN_FLAG) != 0);
+
+		first.getAndSet(SharedDurabilityState.WEAR, 0);
+		assertEquals(0, second.get(SharedDurabilityState.WEAR));
+	}
+
+	@Test
+	public void testStaleSeederIsTakenOver() throws IOException
+	{
+		// A client that died partway through seeding a second ago
+		writeMagicSlot(System.currentTimeMillis() - 1000);
+
+		first.attach(first.map(seed(7, 8, 9, 10)));
+		assertEquals(7, first.get(SharedDurabilityState.WEAR));
+		assertEquals(10, first.get(SharedDurabilityState.LIFETIME_PAID));
+	}
+
+	@Test
+	public void testOlderLayoutIsReseeded() throws IOException
+	{
+		writeMagicSlot(0x53484D5348415231L); // "SHMSHAR1"
+
+		first.attach(first.map(seed(7, 8, 9, 10)));
+		assertEquals(8, first.get(SharedDurabilityState.DEBT));
+	}
+
+	@Test
+	public void testWaitsForALiveSeeder() throws Exception
+	{
+		// Another client starts seeding, and finishes a little later
+		writeMagicSlot(System.currentTimeMillis());
+		Thread seeder = new Thread(() ->
+		{
+			try
+			{
+				Thread.sleep(50);
+				writeSlot(SharedDurabilityState.WEAR, 4);
+				writeSlot(SharedDurabilityState.DEBT, 5);
+				writeMagicSlot(MAGIC);
+			}
+			catch (InterruptedException | IOException e)
+			{
+				throw new RuntimeException(e);
+			}
+		});
+		seeder.start();
+
+		first.attach(first.map(seed(1, 1, 1, 1)));
+		seeder.join();
+		assertEquals(4, first.get(SharedDurabilityState.WEAR));
+		assertEquals(5, first.get(SharedDurabilityState.DEBT));
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testClosedStateThrows()
+	{
+		first.attach(first.map(seed(0, 0, 0, 0)));
+		first.close();
+
+		assertFalse(first.isOpen());
+		first.add(SharedDurabilityState.WEAR, 1);
+	}
+
+	private static long[] seed(long wear, long debt, long worn, long paid)
+	{
+		long[] seed = new long[SharedDurabilityState.LIFETIME_PAID + 1];
+		seed[SharedDurabilityState.WEAR] = wear;
+		seed[SharedDurabilityState.DEBT] = debt;
+		seed[SharedDurabilityState.LIFETIME_WORN] = worn;
+		seed[SharedDurabilityState.LIFETIME_PAID] = paid;
+		return seed;
+	}
+
+	private void writeMagicSlot(long value) throws IOException
+	{
+		writeSlot(0, value);
+	}
+
+	// Through the file rather than a mapping, as another process would
+	private void writeSlot(int slot, long value) throws IOException
+	{
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.WRITE))
+		{
+			ByteBuffer buffer = ByteBuffer.allocate(Long.BYTES).order(ByteOrder.nativeOrder());
+			buffer.putLong(0, value);
+			channel.write(buffer, (long) slot * Long.BYTES);
+		}
+	}
+}
@@ -0,0 +1,132 @@
+package com.singlehandedmode;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class TickSchedulerTest
+{
+	private TickScheduler scheduler;
+
+	@Before
+	public void before()
+	{
+		scheduler = new TickScheduler();
+	}
+
+	@Test
+	public void testLevelBoundaryDelays()
+	{
+		// Either side of each level's span, from a tick that isn't on a slot boundary
+		int[] delays = {1, 63, 64, 65, 4095, 4096, 4097, 262_143, 262_144, 262_145};
+		for (int offset : new int[]{0, 37})
+		{
+			for (int delay : delays)
+			{
+				scheduler = new TickScheduler();
+				advance(offset);
+
+				long[] firedAt = {-1};
+				TickScheduler.Timer timer = new TickScheduler.Timer(() -> firedAt[0] = scheduler.getCurrentTick());
+				scheduler.schedule(timer, delay);
+				assertEquals(delay, scheduler.ticksUntil(timer));
+
+				advance(delay + 64);
+				assertEquals("Delay " + delay + " from tick " + offset, offset + delay, firedAt[0]);
+				assertFalse(timer.isScheduled());
+			}
+		}
+	}
+
+	@Test
+	public void testCancelAfterCascade()
+	{
+		int[] fired = new int[2];
+		TickScheduler.Timer cancelled = new TickScheduler.Timer(() -> ++fired[0]);
+		TickScheduler.Timer kept = new TickScheduler.Timer(() -> ++fired[1]);
+
+		// Both filed in the same level 1 slot, then moved down to the same level 0 slot on tick 64
+		scheduler.schedule(cancelled, 100);
+		scheduler.schedule(kept, 100);
+		advance(70);
+		assertEquals(30, scheduler.ticksUntil(cancelled));
+
+		scheduler.cancel(cancelled);
+		assertFalse(cancelled.isScheduled());
+		assertEquals(-1, scheduler.ticksUntil(cancelled));
+
+		advance(100);
+		assertEquals(0, fired[0]);
+		assertEquals(1, fired[1]);
+	}
+
+	@Test
+	public void testRescheduleFromCallback()
+	{
+		int[] fired = new int[3];
+		TickScheduler.Timer[] timers = new TickScheduler.Timer[3];
+
+		// Every tick, as the callback puts it back in the slot being fired it must not run twice in a tick
+		timers[0] = new TickScheduler.Timer(() ->
+		{
+			++fired[0];
+			scheduler.schedule(timers[0], 0);
+		});
+
+		// Every 64 ticks, which files it on level 1 from inside level 0's firing
+		timers[1] = new TickScheduler.Timer(() ->
+		{
+			++fired[1];
+			scheduler.schedule(timers[1], 64);
+		});
+
+		// Cancels the level 1 timer from inside a callback
+		timers[2] = new TickScheduler.Timer(() ->
+		{
+			++fired[2];
+			scheduler.cancel(timers[1]);
+		});
+
+		scheduler.schedule(timers[0], 1);
+		scheduler.schedule(timers[1], 64);
+		scheduler.schedule(timers[2], 200);
+
+		advance(199);
+		assertEquals(199, fired[0]);
+		assertEquals(3, fired[1]);
+		assertTrue(timers[1].isScheduled());
+
+		advance(1000);
+		assertEquals(1199, fired[0]);
+		assertEquals(3, fired[1]);
+		assertEquals(1, fired[2]);
+		assertFalse(timers[1].isScheduled());
+	}
+
+	@Test
+	public void testRescheduleMovesDeadline()
+	{
+		int[] fired = new int[1];
+		TickScheduler.Timer timer = new TickScheduler.Timer(() -> ++fired[0]);
+
+		scheduler.schedule(timer, 5000);
+		advance(4100);
+		scheduler.schedule(timer, 10);
+		advance(10);
+		assertEquals(1, fired[0]);
+
+		advance(5000);
+		assertEquals(1, fired[0]);
+	}
+
+	private void advance(int ticks)
+	{
+		for (int i = 0; i < ticks; ++i)
+		{
+			scheduler.onGameTick();
+		}
+	}
+}
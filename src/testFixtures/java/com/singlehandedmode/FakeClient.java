@@ -0,0 +1,456 @@
+package com.singlehandedmode;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import net.runelite.api.ChatMessageType;
+import net.runelite.api.Client;
+import net.runelite.api.CollisionData;
+import net.runelite.api.GameState;
+import net.runelite.api.IndexedObjectSet;
+import net.runelite.api.InventoryID;
+import net.runelite.api.ItemComposition;
+import net.runelite.api.ItemContainer;
+import net.runelite.api.MessageNode;
+import net.runelite.api.NPC;
+import net.runelite.api.NPCComposition;
+import net.runelite.api.Player;
+import net.runelite.api.RuneLiteObject;
+import net.runelite.api.WorldView;
+import net.runelite.api.coords.LocalPoint;
+import net.runelite.api.coords.WorldPoint;
+import net.runelite.api.widgets.Widget;
+import net.runelite.api.widgets.WidgetInfo;
+import net.runelite.api.widgets.WidgetType;
+
+/**
+ * In-memory stand-in for the game client: one scene of collision maps, a tick counter, item containers,
+ * NPCs, a local player and the chatbox. The calling thread always counts as the client thread.
+ *
+ * Chat messages aren't kept, only counted along with the last one, so long load tests stay flat.
+ */
+public class FakeClient
+{
+    public static final int SCENE_SIZE = 104;
+
+    private final FakeItemManager itemManager;
+    private final Client client;
+
+    private final CollisionData[] collisionMaps = new CollisionData[4];
+    private final int[][][] collisionFlags = new int[4][SCENE_SIZE][SCENE_SIZE];
+    private final Map<Integer, FakeItemContainer> containers = new HashMap<>();
+    private final List<FakeNpc> npcs = new ArrayList<>();
+    private final WorldView worldView;
+    private final Player localPlayer;
+    private final FakeWidget chatbox = new FakeWidget(WidgetInfo.CHATBOX_CONTAINER.getId(), WidgetType.LAYER);
+
+    // Values returned through the proxy are kept boxed, so reading them doesn't allocate, see Fakes
+    private GameState gameState = GameState.LOGGED_IN;
+    private Integer tickCount = 0;
+    private Integer plane = 0;
+    private Integer baseX = 3200;
+    private Integer baseY = 3200;
+
+    private WorldPoint localPlayerLocation = new WorldPoint(3222, 3218, 0);
+    private Integer localPlayerAnimation = -1;
+
+    private int chatMessageCount;
+    private String lastChatMessage;
+    private final List<Integer> scriptsRun = new ArrayList<>();
+
+    private int runeLiteObjectsCreated;
+    private int activeRuneLiteObjects;
+
+    public FakeClient(FakeItemManager itemManager)
+    {
+        this.itemManager = itemManager;
+        this.client = Fakes.of(Client.class, this);
+        this.worldView = Fakes.of(WorldView.class, new TopLevelWorldView());
+        this.localPlayer = Fakes.of(Player.class, new LocalPlayer());
+
+        for (int i = 0; i < collisionMaps.length; ++i)
+        {
+            collisionMaps[i] = Fakes.of(CollisionData.class, new Collision(collisionFlags[i]));
+        }
+    }
+
+    public Client client()
+    {
+        return client;
+    }
+
+    // --- Test Controls ---
+
+    /**
+     * Advances the tick counter. Doesn't post a GameTick, callers drive the plugin themselves.
+     */
+    public void tick()
+    {
+        tickCount = tickCount + 1;
+    }
+
+    public void setGameState(GameState gameState)
+    {
+        this.gameState = gameState;
+    }
+
+    public void setTickCount(int tickCount)
+    {
+        this.tickCount = tickCount;
+    }
+
+    /**
+     * Moves the scene, leaving the collision flags to the caller.
+     */
+    public void setScene(int baseX, int baseY, int plane)
+    {
+        this.baseX = baseX;
+        this.baseY = baseY;
+        this.plane = plane;
+    }
+
+    public void setCollisionFlags(int plane, int sceneX, int sceneY, int flags)
+    {
+        collisionFlags[plane][sceneX][sceneY] = flags;
+    }
+
+    /**
+     * Returns the container, creating it with the given size the first time.
+     */
+    public FakeItemContainer container(InventoryID id, int size)
+    {
+        return container(id.getId(), size);
+    }
+
+    /**
+     * Returns the container, creating it or replacing it with an empty one if the size differs.
+     */
+    public FakeItemContainer container(int id, int size)
+    {
+        FakeItemContainer container = containers.get(id);
+        if (container == null || container.size() != size)
+        {
+            container = new FakeItemContainer(id, size);
+            containers.put(id, container);
+        }
+        return container;
+    }
+
+    public FakeNpc addNpc(int id, String name, WorldPoint location)
+    {
+        FakeNpc npc = new FakeNpc(npcs.size(), id, name, location);
+        npcs.add(npc);
+        return npc;
+    }
+
+    public void clearNpcs()
+    {
+        npcs.clear();
+    }
+
+    public void setLocalPlayerLocation(WorldPoint location)
+    {
+        localPlayerLocation = location;
+    }
+
+    public void setLocalPlayerAnimation(int animation)
+    {
+        localPlayerAnimation = animation;
+    }
+
+    public FakeWidget chatbox()
+    {
+        return chatbox;
+    }
+
+    /**
+     * IDs of the scripts run, in order. Scripts do nothing else.
+     */
+    public List<Integer> getScriptsRun()
+    {
+        return scriptsRun;
+    }
+
+    public int getRuneLiteObjectsCreated()
+    {
+        return runeLiteObjectsCreated;
+    }
+
+    /**
+     * RuneLiteObjects set active and not deactivated since, which the client would still be drawing.
+     */
+    public int getActiveRuneLiteObjects()
+    {
+        return activeRuneLiteObjects;
+    }
+
+    public int getChatMessageCount()
+    {
+        return chatMessageCount;
+    }
+
+    public String getLastChatMessage()
+    {
+        return lastChatMessage;
+    }
+
+    // --- Client ---
+
+    public boolean isClientThread()
+    {
+        return true;
+    }
+
+    public GameState getGameState()
+    {
+        return gameState;
+    }
+
+    public Integer getTickCount()
+    {
+        return tickCount;
+    }
+
+    public Integer getPlane()
+    {
+        return plane;
+    }
+
+    public Integer getBaseX()
+    {
+        return baseX;
+    }
+
+    public Integer getBaseY()
+    {
+        return baseY;
+    }
+
+    public CollisionData[] getCollisionMaps()
+    {
+        return collisionMaps;
+    }
+
+    public WorldView getTopLevelWorldView()
+    {
+        return worldView;
+    }
+
+    public Player getLocalPlayer()
+    {
+        return localPlayerLocation != null ? localPlayer : null;
+    }
+
+    public ItemContainer getItemContainer(InventoryID id)
+    {
+        return getItemContainer(id.getId());
+    }
+
+    public ItemContainer getItemContainer(int id)
+    {
+        FakeItemContainer container = containers.get(id);
+        return container != null ? container.container() : null;
+    }
+
+    public ItemComposition getItemDefinition(int id)
+    {
+        return itemManager.getItemComposition(id);
+    }
+
+    public NPCComposition getNpcDefinition(int id)
+    {
+        for (FakeNpc npc : npcs)
+        {
+            if (npc.getId() == id) return npc.getComposition();
+        }
+        return null;
+    }
+
+    /**
+     * An object that only remembers where it was put, models and animations are ignored.
+     */
+    public RuneLiteObject createRuneLiteObject()
+    {
+        ++runeLiteObjectsCreated;
+        return Fakes.of(RuneLiteObject.class, new SceneObject());
+    }
+
+    public Widget getWidget(WidgetInfo info)
+    {
+        return getWidget(info.getId());
+    }
+
+    public Widget getWidget(int componentId)
+    {
+        return componentId == chatbox.getId() ? chatbox.widget() : null;
+    }
+
+    public void runScript(Object... args)
+    {
+        scriptsRun.add((Integer) args[0]);
+    }
+
+    public MessageNode addChatMessage(ChatMessageType type, String name, String message, String sender)
+    {
+        ++chatMessageCount;
+        lastChatMessage = message;
+        return null;
+    }
+
+    // --- Nested Fakes ---
+
+    private class TopLevelWorldView
+    {
+        @SuppressWarnings("unchecked")
+        private final IndexedObjectSet<NPC> npcSet = Fakes.of(IndexedObjectSet.class, new NpcSet());
+
+        public int getId()
+        {
+            return -1;
+        }
+
+        public boolean isTopLevel()
+        {
+            return true;
+        }
+
+        public Integer getPlane()
+        {
+            return plane;
+        }
+
+        public Integer getBaseX()
+        {
+            return baseX;
+        }
+
+        public Integer getBaseY()
+        {
+            return baseY;
+        }
+
+        public int getSizeX()
+        {
+            return SCENE_SIZE;
+        }
+
+        public int getSizeY()
+        {
+            return SCENE_SIZE;
+        }
+
+        public CollisionData[] getCollisionMaps()
+        {
+            return collisionMaps;
+        }
+
+        public IndexedObjectSet<NPC> npcs()
+        {
+            return npcSet;
+        }
+    }
+
+    private class NpcSet
+    {
+        public Iterator<NPC> iterator()
+        {
+            Iterator<FakeNpc> fakes = npcs.iterator();
+            return new Iterator<NPC>()
+            {
+                @Override
+                public boolean hasNext()
+                {
+                    return fakes.hasNext();
+                }
+
+                @Override
+                public NPC next()
+                {
+                    return fakes.next().npc();
+                }
+            };
+        }
+
+        // Iterable's default would be faked away, so spell it out
+        public Spliterator<NPC> spliterator()
+        {
+            return Spliterators.spliterator(iterator(), npcs.size(), 0);
+        }
+
+        public NPC byIndex(int index)
+        {
+            return index >= 0 && index < npcs.size() ? npcs.get(index).npc() : null;
+        }
+    }
+
+    private class LocalPlayer
+    {
+        public String getName()
+        {
+            return "Headless";
+        }
+
+        public WorldPoint getWorldLocation()
+        {
+            return localPlayerLocation;
+        }
+
+        public Integer getAnimation()
+        {
+            return localPlayerAnimation;
+        }
+    }
+
+    private class SceneObject
+    {
+        private LocalPoint location;
+        private int level;
+        private boolean active;
+
+        public void setLocation(LocalPoint location, int level)
+        {
+            this.location = location;
+            this.level = level;
+        }
+
+        public LocalPoint getLocation()
+        {
+            return location;
+        }
+
+        public int getLevel()
+        {
+            return level;
+        }
+
+        public boolean isActive()
+        {
+            return active;
+        }
+
+        public void setActive(boolean active)
+        {
+            if (active != this.active) activeRuneLiteObjects += active ? 1 : -1;
+            this.active = active;
+        }
+    }
+
+    private static class Collision
+    {
+        private final int[][] flags;
+
+        Collision(int[][] flags)
+        {
+            this.flags = flags;
+        }
+
+        public int[][] getFlags()
+        {
+            return flags;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.singlehandedmode;
+
+import java.util.ArrayDeque;
+import java.util.function.BooleanSupplier;
+import net.runelite.client.callback.ClientThread;
+
+/**
+ * Queues what the plugin hands to the client thread until {@link #drain()}, which the caller runs once a
+ * frame like the client does. The calling thread always counts as the client thread, so invoke runs at once.
+ */
+public class FakeClientThread
+{
+    private final ClientThread clientThread;
+    private ArrayDeque<BooleanSupplier> pending = new ArrayDeque<>();
+    private ArrayDeque<BooleanSupplier> draining = new ArrayDeque<>();
+
+    public FakeClientThread()
+    {
+        this.clientThread = Fakes.of(ClientThread.class, this);
+    }
+
+    public ClientThread clientThread()
+    {
+        return clientThread;
+    }
+
+    /**
+     * Runs everything queued before this call. Tasks returning false stay queued for the next drain.
+     * Returns the number of tasks run.
+     */
+    public int drain()
+    {
+        ArrayDeque<BooleanSupplier> tasks = pending;
+        pending = draining;
+        draining = tasks;
+
+        int count = 0;
+        for (BooleanSupplier task; (task = tasks.poll()) != null; ++count)
+        {
+            if (!task.getAsBoolean()) pending.add(task);
+        }
+        return count;
+    }
+
+    public int getPendingCount()
+    {
+        return pending.size();
+    }
+
+    // --- ClientThread ---
+
+    public void invoke(Runnable r)
+    {
+        r.run();
+    }
+
+    public void invoke(BooleanSupplier r)
+    {
+        if (!r.getAsBoolean()) pending.add(r);
+    }
+
+    public void invokeLater(Runnable r)
+    {
+        pending.add(() ->
+        {
+            r.run();
+            return true;
+        });
+    }
+
+    public void invokeLater(BooleanSupplier r)
+    {
+        pending.add(r);
+    }
+
+    public void invokeAtTickEnd(Runnable r)
+    {
+        invokeLater(r);
+    }
+
+    public void execute(Runnable r)
+    {
+        invokeLater(r);
+    }
+}
@@ -0,0 +1,158 @@
+package com.singlehandedmode;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import net.runelite.client.config.ConfigGroup;
+import net.runelite.client.config.ConfigItem;
+import net.runelite.client.config.ConfigManager;
+import net.runelite.client.eventbus.EventBus;
+import net.runelite.client.events.ConfigChanged;
+
+/**
+ * Config stored in a map of "group.key" to string values, as the real ConfigManager stores it.
+ *
+ * Config proxies return the stored value if there is one, else the interface's default. Resolved values
+ * are cached per method until the next change, so reading config in a hot loop costs a map lookup.
+ * Changes post {@link ConfigChanged} to the event bus, if there is one. A RuneScape profile is always
+ * logged in, as if the fake client were.
+ */
+public class FakeConfigManager
+{
+    private static final Object NONE = new Object();
+
+    private final EventBus eventBus;
+    private final ConfigManager configManager;
+
+    private final Map<String, String> values = new ConcurrentHashMap<>();
+    private final Map<Method, Object> resolved = new ConcurrentHashMap<>();
+    private String rsProfileKey = "headless";
+
+    public FakeConfigManager(EventBus eventBus)
+    {
+        this.eventBus = eventBus;
+        this.configManager = Fakes.of(ConfigManager.class, this);
+    }
+
+    public ConfigManager configManager()
+    {
+        return configManager;
+    }
+
+    /**
+     * Switches account. Post a RuneScapeProfileChanged afterwards if something should hear of it.
+     */
+    public void setRSProfileKey(String rsProfileKey)
+    {
+        this.rsProfileKey = rsProfileKey;
+    }
+
+    // --- ConfigManager ---
+
+    public String getRSProfileKey()
+    {
+        return rsProfileKey;
+    }
+
+    public String getConfiguration(String group, String key)
+    {
+        return values.get(group + "." + key);
+    }
+
+    public void setConfiguration(String group, String key, String value)
+    {
+        String oldValue = value == null ? values.remove(group + "." + key) : values.put(group + "." + key, value);
+        resolved.clear();
+
+        if (eventBus != null)
+        {
+            ConfigChanged event = new ConfigChanged();
+            event.setGroup(group);
+            event.setKey(key);
+            event.setOldValue(oldValue);
+            event.setNewValue(value);
+            eventBus.post(event);
+        }
+    }
+
+    public void setConfiguration(String group, String key, Object value)
+    {
+        setConfiguration(group, key, value instanceof Enum ? ((Enum<?>) value).name() : String.valueOf(value));
+    }
+
+    public void unsetConfiguration(String group, String key)
+    {
+        setConfiguration(group, key, (String) null);
+    }
+
+    public <T> T getConfig(Class<T> type)
+    {
+        ConfigGroup group = type.getAnnotation(ConfigGroup.class);
+        if (group == null) throw new IllegalArgumentException(type + " has no @ConfigGroup");
+
+        Object proxy = Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type},
+                (self, method, args) ->
+                {
+                    if (method.getDeclaringClass() == Object.class)
+                    {
+                        switch (method.getName())
+                        {
+                            case "equals":
+                                return self == args[0];
+                            case "hashCode":
+                                return System.identityHashCode(self);
+                            default:
+                                return type.getSimpleName();
+                        }
+                    }
+
+                    Object value = resolved.get(method);
+                    if (value == null)
+                    {
+                        value = resolve(group.value(), self, method);
+                        resolved.put(method, value);
+                    }
+                    return value != NONE ? value : null;
+                });
+        return type.cast(proxy);
+    }
+
+    private Object resolve(String group, Object self, Method method) throws Throwable
+    {
+        ConfigItem item = method.getAnnotation(ConfigItem.class);
+        String stored = item != null ? values.get(group + "." + item.keyName()) : null;
+
+        Object value;
+        if (stored != null)
+        {
+            value = parse(method.getReturnType(), stored);
+        }
+        else if (method.isDefault())
+        {
+            Class<?> declaring = method.getDeclaringClass();
+            value = MethodHandles.privateLookupIn(declaring, MethodHandles.lookup())
+                    .unreflectSpecial(method, declaring)
+                    .bindTo(self)
+                    .invoke();
+        }
+        else
+        {
+            value = null;
+        }
+        return value != null ? value : NONE;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Object parse(Class<?> type, String value)
+    {
+        if (type == String.class) return value;
+        if (type == boolean.class || type == Boolean.class) return Boolean.parseBoolean(value);
+        if (type == int.class || type == Integer.class) return Integer.parseInt(value);
+        if (type == long.class || type == Long.class) return Long.parseLong(value);
+        if (type == double.class || type == Double.class) return Double.parseDouble(value);
+        if (type.isEnum()) return Enum.valueOf((Class<? extends Enum>) type, value);
+        throw new UnsupportedOperationException("Can't parse config of type " + type);
+    }
+}
@@ -0,0 +1,48 @@
+package com.singlehandedmode;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+import net.runelite.client.ui.overlay.infobox.InfoBox;
+import net.runelite.client.ui.overlay.infobox.InfoBoxManager;
+
+/**
+ * Keeps the info boxes added, without drawing them.
+ */
+public class FakeInfoBoxManager
+{
+    private final InfoBoxManager infoBoxManager;
+    private final List<InfoBox> infoBoxes = new ArrayList<>();
+
+    public FakeInfoBoxManager()
+    {
+        this.infoBoxManager = Fakes.of(InfoBoxManager.class, this);
+    }
+
+    public InfoBoxManager infoBoxManager()
+    {
+        return infoBoxManager;
+    }
+
+    // --- InfoBoxManager ---
+
+    public List<InfoBox> getInfoBoxes()
+    {
+        return infoBoxes;
+    }
+
+    public void addInfoBox(InfoBox infoBox)
+    {
+        infoBoxes.add(infoBox);
+    }
+
+    public boolean removeInfoBox(InfoBox infoBox)
+    {
+        return infoBoxes.remove(infoBox);
+    }
+
+    public void removeIf(Predicate<InfoBox> filter)
+    {
+        infoBoxes.removeIf(filter);
+    }
+}
@@ -0,0 +1,100 @@
+package com.singlehandedmode;
+
+import java.util.Arrays;
+import net.runelite.api.Item;
+import net.runelite.api.ItemContainer;
+
+/**
+ * An item container holding a fixed array of slots, empty slots being null.
+ */
+public class FakeItemContainer
+{
+    // Kept boxed, so reading it through the proxy doesn't allocate, see Fakes
+    private final Integer id;
+    private final ItemContainer container;
+    private Item[] items;
+
+    public FakeItemContainer(int id, int size)
+    {
+        this.id = id;
+        this.items = new Item[size];
+        this.container = Fakes.of(ItemContainer.class, this);
+    }
+
+    public ItemContainer container()
+    {
+        return container;
+    }
+
+    public FakeItemContainer set(int slot, int itemId, int quantity)
+    {
+        items[slot] = itemId < 0 ? null : new Item(itemId, quantity);
+        return this;
+    }
+
+    public FakeItemContainer clear()
+    {
+        Arrays.fill(items, null);
+        return this;
+    }
+
+    // --- ItemContainer ---
+
+    public Integer getId()
+    {
+        return id;
+    }
+
+    public Item[] getItems()
+    {
+        return items.clone();
+    }
+
+    public Item getItem(int slot)
+    {
+        return slot >= 0 && slot < items.length ? items[slot] : null;
+    }
+
+    public boolean contains(int itemId)
+    {
+        for (Item item : items)
+        {
+            if (item != null && item.getId() == itemId) return true;
+        }
+        return false;
+    }
+
+    public int count(int itemId)
+    {
+        int count = 0;
+        for (Item item : items)
+        {
+            if (item != null && item.getId() == itemId) count += item.getQuantity();
+        }
+        return count;
+    }
+
+    public int find(int itemId)
+    {
+        for (int slot = 0; slot < items.length; ++slot)
+        {
+            if (items[slot] != null && items[slot].getId() == itemId) return slot;
+        }
+        return -1;
+    }
+
+    public int size()
+    {
+        return items.length;
+    }
+
+    public int count()
+    {
+        int count = 0;
+        for (Item item : items)
+        {
+            if (item != null) ++count;
+        }
+        return count;
+    }
+}
@@ -0,0 +1,136 @@
+package com.singlehandedmode;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import net.runelite.api.ItemComposition;
+import net.runelite.client.game.ItemEquipmentStats;
+import net.runelite.client.game.ItemManager;
+import net.runelite.client.game.ItemStats;
+
+/**
+ * Item definitions and stats from a fixture table instead of the cache and the wiki.
+ *
+ * Loads items.tsv from the test fixtures: ID, name, equipment slot (-1 if not equipable) and whether it's
+ * two-handed. Like the real ItemManager, unknown IDs get a composition named "null" and no stats.
+ */
+public class FakeItemManager
+{
+    private final ItemManager itemManager;
+    private final ItemComposition nullItem = Fakes.of(ItemComposition.class, new Definition(-1, "null"));
+
+    // Indexed by item ID, grown as needed
+    private ItemComposition[] compositions = new ItemComposition[0];
+    private ItemStats[] stats = new ItemStats[0];
+
+    public FakeItemManager()
+    {
+        this.itemManager = Fakes.of(ItemManager.class, this);
+        loadItems("items.tsv");
+    }
+
+    public ItemManager itemManager()
+    {
+        return itemManager;
+    }
+
+    public void addItem(int id, String name, int slot, boolean isTwoHanded)
+    {
+        if (id >= compositions.length)
+        {
+            int length = Math.max(id + 1, compositions.length * 2);
+            compositions = Arrays.copyOf(compositions, length);
+            stats = Arrays.copyOf(stats, length);
+        }
+
+        compositions[id] = Fakes.of(ItemComposition.class, new Definition(id, name));
+
+        ItemEquipmentStats equipment = slot < 0 ? null : ItemEquipmentStats.builder()
+                .slot(slot)
+                .isTwoHanded(isTwoHanded)
+                .build();
+        stats[id] = ItemStats.builder().equipable(equipment != null).equipment(equipment).build();
+    }
+
+    // --- ItemManager ---
+
+    public ItemComposition getItemComposition(int id)
+    {
+        ItemComposition composition = id >= 0 && id < compositions.length ? compositions[id] : null;
+        return composition != null ? composition : nullItem;
+    }
+
+    public ItemStats getItemStats(int id)
+    {
+        return id >= 0 && id < stats.length ? stats[id] : null;
+    }
+
+    public ItemStats getItemStats(int id, boolean allowNote)
+    {
+        return getItemStats(id);
+    }
+
+    public int canonicalize(int id)
+    {
+        return id;
+    }
+
+    private void loadItems(String resource)
+    {
+        InputStream in = FakeItemManager.class.getResourceAsStream(resource);
+        if (in == null) throw new IllegalStateException("Missing item fixture " + resource);
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8)))
+        {
+            String line;
+            while ((line = reader.readLine()) != null)
+            {
+                if (line.isEmpty() || line.startsWith("#")) continue;
+
+                String[] row = line.split("\t");
+                addItem(Integer.parseInt(row[0]), row[1], Integer.parseInt(row[2]), Boolean.parseBoolean(row[3]));
+            }
+        }
+        catch (IOException e)
+        {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static class Definition
+    {
+        private final int id;
+        private final String name;
+
+        Definition(int id, String name)
+        {
+            this.id = id;
+            this.name = name;
+        }
+
+        public int getId()
+        {
+            return id;
+        }
+
+        public String getName()
+        {
+            return name;
+        }
+
+        public String getMembersName()
+        {
+            return name;
+        }
+
+        @Override
+        public String toString()
+        {
+            return name + " (" + id + ")";
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.singlehandedmode;
+
+import net.runelite.api.MenuAction;
+import net.runelite.api.MenuEntry;
+import net.runelite.api.events.MenuOptionClicked;
+
+/**
+ * A menu entry as clicked, for building {@link MenuOptionClicked} events.
+ */
+public class FakeMenuEntry
+{
+    private final String option;
+    private final String target;
+    private final MenuAction type;
+    // Kept boxed, so reading them through the proxy doesn't allocate, see Fakes
+    private final Integer identifier;
+    private final Integer itemId;
+    private final Integer param0;
+    private final Integer param1;
+    private final MenuEntry entry;
+
+    public FakeMenuEntry(String option, String target, MenuAction type, int identifier, int itemId)
+    {
+        this(option, target, type, identifier, itemId, 0, 0);
+    }
+
+    public FakeMenuEntry(String option, String target, MenuAction type, int identifier, int itemId,
+                         int param0, int param1)
+    {
+        this.option = option;
+        this.target = target;
+        this.type = type;
+        this.identifier = identifier;
+        this.itemId = itemId;
+        this.param0 = param0;
+        this.param1 = param1;
+        this.entry = Fakes.of(MenuEntry.class, this);
+    }
+
+    /**
+     * Clicking an item in the inventory, e.g. "Wield" on a scimitar.
+     */
+    public static FakeMenuEntry item(String option, String itemName, int itemId)
+    {
+        return new FakeMenuEntry(option, "<col=ff9040>" + itemName + "</col>", MenuAction.CC_OP, 2, itemId);
+    }
+
+    /**
+     * Clicking a game object, e.g. "Mine" on rocks.
+     */
+    public static FakeMenuEntry object(String option, String objectName, int objectId)
+    {
+        return new FakeMenuEntry(option, "<col=ffff>" + objectName, MenuAction.GAME_OBJECT_FIRST_OPTION, objectId, -1);
+    }
+
+    public MenuEntry entry()
+    {
+        return entry;
+    }
+
+    /**
+     * Returns a new, unconsumed click on this entry.
+     */
+    public MenuOptionClicked click()
+    {
+        return new MenuOptionClicked(entry);
+    }
+
+    // --- MenuEntry ---
+
+    public String getOption()
+    {
+        return option;
+    }
+
+    public String getTarget()
+    {
+        return target;
+    }
+
+    public MenuAction getType()
+    {
+        return type;
+    }
+
+    public Integer getIdentifier()
+    {
+        return identifier;
+    }
+
+    public Integer getItemId()
+    {
+        return itemId;
+    }
+
+    public Integer getParam0()
+    {
+        return param0;
+    }
+
+    public Integer getParam1()
+    {
+        return param1;
+    }
+}
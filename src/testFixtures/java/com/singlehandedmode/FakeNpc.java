@@ -0,0 +1,112 @@
+package com.singlehandedmode;
+
+import net.runelite.api.NPC;
+import net.runelite.api.NPCComposition;
+import net.runelite.api.coords.WorldPoint;
+
+/**
+ * An NPC standing still at a world point, able to take overhead text.
+ */
+public class FakeNpc
+{
+    // Kept boxed, so reading them through the proxy doesn't allocate, see Fakes
+    private final Integer index;
+    private final Integer id;
+    private final String name;
+    private final NPC npc;
+    private final NPCComposition composition;
+
+    private WorldPoint worldLocation;
+    private String overheadText;
+    private Integer overheadCycle = 0;
+
+    public FakeNpc(int index, int id, String name, WorldPoint worldLocation)
+    {
+        this.index = index;
+        this.id = id;
+        this.name = name;
+        this.worldLocation = worldLocation;
+        this.npc = Fakes.of(NPC.class, this);
+        this.composition = Fakes.of(NPCComposition.class, new Composition());
+    }
+
+    public NPC npc()
+    {
+        return npc;
+    }
+
+    public void setWorldLocation(WorldPoint worldLocation)
+    {
+        this.worldLocation = worldLocation;
+    }
+
+    // --- NPC ---
+
+    public Integer getIndex()
+    {
+        return index;
+    }
+
+    public Integer getId()
+    {
+        return id;
+    }
+
+    public String getName()
+    {
+        return name;
+    }
+
+    public NPCComposition getComposition()
+    {
+        return composition;
+    }
+
+    public NPCComposition getTransformedComposition()
+    {
+        return composition;
+    }
+
+    public WorldPoint getWorldLocation()
+    {
+        return worldLocation;
+    }
+
+    public String getOverheadText()
+    {
+        return overheadText;
+    }
+
+    public void setOverheadText(String overheadText)
+    {
+        this.overheadText = overheadText;
+    }
+
+    public Integer getOverheadCycle()
+    {
+        return overheadCycle;
+    }
+
+    public void setOverheadCycle(Integer overheadCycle)
+    {
+        this.overheadCycle = overheadCycle;
+    }
+
+    private class Composition
+    {
+        public Integer getId()
+        {
+            return id;
+        }
+
+        public String getName()
+        {
+            return name;
+        }
+
+        public boolean isInteractible()
+        {
+            return true;
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.singlehandedmode;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+import net.runelite.client.ui.overlay.Overlay;
+import net.runelite.client.ui.overlay.OverlayManager;
+
+/**
+ * Keeps the overlays added, without drawing them. Adding an overlay twice is ignored, as in the client.
+ */
+public class FakeOverlayManager
+{
+    private final OverlayManager overlayManager;
+    private final List<Overlay> overlays = new ArrayList<>();
+
+    public FakeOverlayManager()
+    {
+        this.overlayManager = Fakes.of(OverlayManager.class, this);
+    }
+
+    public OverlayManager overlayManager()
+    {
+        return overlayManager;
+    }
+
+    // --- OverlayManager ---
+
+    public List<Overlay> getOverlays()
+    {
+        return overlays;
+    }
+
+    public boolean add(Overlay overlay)
+    {
+        if (overlays.contains(overlay)) return false;
+        return overlays.add(overlay);
+    }
+
+    public boolean remove(Overlay overlay)
+    {
+        return overlays.remove(overlay);
+    }
+
+    public boolean removeIf(Predicate<Overlay> filter)
+    {
+        return overlays.removeIf(filter);
+    }
+}
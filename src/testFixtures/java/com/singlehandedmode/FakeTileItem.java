@@ -0,0 +1,60 @@
+package com.singlehandedmode;
+
+import net.runelite.api.Tile;
+import net.runelite.api.TileItem;
+import net.runelite.api.coords.WorldPoint;
+import net.runelite.api.events.ItemDespawned;
+
+/**
+ * An item lying on a tile, for building {@link ItemDespawned} events.
+ */
+public class FakeTileItem
+{
+    private final int id;
+    private final int quantity;
+    private final Tile tile;
+    private final TileItem item;
+
+    public FakeTileItem(int id, int quantity, WorldPoint location)
+    {
+        this.id = id;
+        this.quantity = quantity;
+        this.tile = Fakes.of(Tile.class, new FakeTile(location));
+        this.item = Fakes.of(TileItem.class, this);
+    }
+
+    /**
+     * Returns a new event for this item leaving its tile.
+     */
+    public ItemDespawned despawned()
+    {
+        return new ItemDespawned(tile, item);
+    }
+
+    // --- TileItem ---
+
+    public int getId()
+    {
+        return id;
+    }
+
+    public int getQuantity()
+    {
+        return quantity;
+    }
+
+    private static final class FakeTile
+    {
+        private final WorldPoint location;
+
+        FakeTile(WorldPoint location)
+        {
+            this.location = location;
+        }
+
+        public WorldPoint getWorldLocation()
+        {
+            return location;
+        }
+    }
+}
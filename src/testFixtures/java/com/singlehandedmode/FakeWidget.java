@@ -0,0 +1,160 @@
+package com.singlehandedmode;
+
+import java.util.ArrayList;
+import java.util.List;
+import net.runelite.api.FontTypeFace;
+import net.runelite.api.widgets.JavaScriptCallback;
+import net.runelite.api.widgets.Widget;
+
+/**
+ * A widget that keeps the dynamic children created on it, their text, visibility and op listeners.
+ * Children are given their parent's font, so text can be measured. Layout and models are accepted and
+ * ignored.
+ */
+public class FakeWidget
+{
+    private final int id;
+    private final int type;
+    private final Widget widget;
+    private final List<FakeWidget> children = new ArrayList<>();
+
+    private String text = "";
+    private boolean hidden;
+    private Object[] onOpListener;
+    private FontTypeFace font;
+
+    public FakeWidget(int id, int type)
+    {
+        this.id = id;
+        this.type = type;
+        this.widget = Fakes.of(Widget.class, this);
+    }
+
+    public Widget widget()
+    {
+        return widget;
+    }
+
+    public List<FakeWidget> children()
+    {
+        return children;
+    }
+
+    /**
+     * Op listeners on this widget and its children, each one a callback the client keeps alive.
+     */
+    public int getListenerCount()
+    {
+        int count = onOpListener != null ? 1 : 0;
+        for (FakeWidget child : children)
+        {
+            count += child.getListenerCount();
+        }
+        return count;
+    }
+
+    /**
+     * Clicks the first shown child with an op listener, as the player would. Returns false if there isn't one.
+     */
+    public boolean clickListener()
+    {
+        for (FakeWidget child : children)
+        {
+            if (!child.hidden && child.click()) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Runs this widget's op listener, as if clicked. Returns false if it has none.
+     */
+    public boolean click()
+    {
+        if (onOpListener == null || onOpListener.length == 0 || !(onOpListener[0] instanceof JavaScriptCallback))
+        {
+            return false;
+        }
+        ((JavaScriptCallback) onOpListener[0]).run(null);
+        return true;
+    }
+
+    /**
+     * Sets the font this widget and children created after it measure text with.
+     */
+    public void setFont(FontTypeFace font)
+    {
+        this.font = font;
+    }
+
+    // --- Widget ---
+
+    public int getId()
+    {
+        return id;
+    }
+
+    public int getType()
+    {
+        return type;
+    }
+
+    public boolean isHidden()
+    {
+        return hidden;
+    }
+
+    public void setHidden(boolean hidden)
+    {
+        this.hidden = hidden;
+    }
+
+    public String getText()
+    {
+        return text;
+    }
+
+    public Widget setText(String text)
+    {
+        this.text = text;
+        return widget;
+    }
+
+    public FontTypeFace getFont()
+    {
+        return font;
+    }
+
+    public Widget createChild(int index, int type)
+    {
+        FakeWidget child = new FakeWidget(id, type);
+        child.font = font;
+        if (index < 0 || index >= children.size()) children.add(child);
+        else children.set(index, child);
+        return child.widget;
+    }
+
+    public Widget[] getDynamicChildren()
+    {
+        Widget[] widgets = new Widget[children.size()];
+        for (int i = 0; i < widgets.length; ++i)
+        {
+            widgets[i] = children.get(i).widget;
+        }
+        return widgets;
+    }
+
+    public void deleteAllChildren()
+    {
+        children.clear();
+    }
+
+    public Object[] getOnOpListener()
+    {
+        return onOpListener;
+    }
+
+    public void setOnOpListener(Object... args)
+    {
+        onOpListener = args;
+    }
+}
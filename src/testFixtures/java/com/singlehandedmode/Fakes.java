@@ -0,0 +1,134 @@
+package com.singlehandedmode;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.withSettings;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Turns a plain object into a fake of a RuneLite type.
+ *
+ * RuneLite's interfaces have hundreds of methods, of which the plugin uses a handful. A fake only declares
+ * the methods it supports, with the same names and parameter types. Other default methods of RuneLite
+ * interfaces run as normal, and calls to anything else return zero, false or null.
+ *
+ * Interfaces are faked with a JDK proxy, classes with a stub-only Mockito mock, which never runs the
+ * real constructor.
+ *
+ * Both hand every return value back as an object, so a fake method returning an int would box it on
+ * every call. Fakes read on hot paths declare those methods with the boxed type instead and keep the
+ * value boxed, only boxing when it changes. Methods are matched by name and parameter types alone, and
+ * the proxy unboxes the value for the caller. Likewise a setter may take the boxed type, to keep the box
+ * the proxy already made for the argument.
+ */
+public final class Fakes
+{
+    private static final Object NONE = new Object();
+
+    // Resolved targets for each (fake class, faked method)
+    private static final Map<Class<?>, Map<Method, Object>> TARGETS = new ConcurrentHashMap<>();
+
+    private Fakes()
+    {
+    }
+
+    public static <T> T of(Class<T> type, Object fake)
+    {
+        if (type.isInterface())
+        {
+            Object proxy = Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type},
+                    (self, method, args) -> dispatch(fake, self, method, args));
+            return type.cast(proxy);
+        }
+
+        Object[] self = new Object[1];
+        T stub = mock(type, withSettings().stubOnly().defaultAnswer(invocation ->
+                dispatch(fake, self[0], invocation.getMethod(), invocation.getArguments())));
+        self[0] = stub;
+        return stub;
+    }
+
+    private static Object dispatch(Object fake, Object self, Method method, Object[] args) throws Throwable
+    {
+        Object target = TARGETS.computeIfAbsent(fake.getClass(), k -> new ConcurrentHashMap<>())
+                .computeIfAbsent(method, m -> resolve(fake.getClass(), m));
+
+        if (target != NONE)
+        {
+            try
+            {
+                return ((Method) target).invoke(fake, args);
+            }
+            catch (InvocationTargetException e)
+            {
+                throw e.getCause();
+            }
+        }
+
+        if (method.isDefault() && !method.getDeclaringClass().getName().startsWith("java."))
+        {
+            Class<?> declaring = method.getDeclaringClass();
+            return MethodHandles.privateLookupIn(declaring, MethodHandles.lookup())
+                    .unreflectSpecial(method, declaring)
+                    .bindTo(self)
+                    .invokeWithArguments(args);
+        }
+
+        switch (method.getName())
+        {
+            case "equals":
+                return args.length == 1 && self == args[0];
+            case "hashCode":
+                return System.identityHashCode(self);
+            case "toString":
+                return fake.toString();
+        }
+        return defaultValue(method.getReturnType());
+    }
+
+    private static Object resolve(Class<?> fakeClass, Method method)
+    {
+        Class<?>[] boxed = method.getParameterTypes().clone();
+        for (int i = 0; i < boxed.length; ++i)
+        {
+            boxed[i] = MethodType.methodType(boxed[i]).wrap().returnType();
+        }
+
+        for (Class<?> c = fakeClass; c != null && c != Object.class; c = c.getSuperclass())
+        {
+            for (Class<?>[] parameterTypes : new Class<?>[][]{method.getParameterTypes(), boxed})
+            {
+                try
+                {
+                    Method target = c.getDeclaredMethod(method.getName(), parameterTypes);
+                    target.setAccessible(true);
+                    return target;
+                }
+                catch (NoSuchMethodException ignored)
+                {
+                    // Try the boxed parameters, then the superclass
+                }
+            }
+        }
+        return NONE;
+    }
+
+    private static Object defaultValue(Class<?> type)
+    {
+        if (!type.isPrimitive() || type == void.class) return null;
+        if (type == boolean.class) return false;
+        if (type == char.class) return '\0';
+        if (type == byte.class) return (byte) 0;
+        if (type == short.class) return (short) 0;
+        if (type == int.class) return 0;
+        if (type == long.class) return 0L;
+        if (type == float.class) return 0f;
+        return 0d;
+    }
+}
@@ -0,0 +1,102 @@
+package com.singlehandedmode;
+
+import com.google.inject.AbstractModule;
+import com.google.inject.Provides;
+import com.google.inject.name.Names;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import javax.inject.Singleton;
+import net.runelite.api.Client;
+import net.runelite.api.Constants;
+import net.runelite.client.callback.ClientThread;
+import net.runelite.client.config.ConfigManager;
+import net.runelite.client.eventbus.EventBus;
+import net.runelite.client.game.ItemManager;
+import net.runelite.client.ui.overlay.OverlayManager;
+import net.runelite.client.ui.overlay.infobox.InfoBoxManager;
+
+/**
+ * Binds the fakes in place of the client services, so the real managers can be built by Guice without
+ * the game. Overlays and info boxes are kept and never drawn, and client thread tasks wait for
+ * {@link FakeClientThread#drain()}. The background lane runs its work inline, so runs are repeatable, and
+ * its results wait for the drain too. The frame governor keeps time by the fake client's tick count, so a
+ * replay running flat out doesn't look like a struggling client. Everything else is created just-in-time
+ * as in the client.
+ *
+ * <pre>
+ *   Injector injector = Guice.createInjector(new HeadlessModule());
+ *   EquipmentRestrictionManager equipment = injector.getInstance(EquipmentRestrictionManager.class);
+ * </pre>
+ *
+ * Files the managers write go under RuneLite.RUNELITE_DIR, so the Gradle test tasks point user.home at
+ * the build directory.
+ */
+public class HeadlessModule extends AbstractModule
+{
+    private final EventBus eventBus = new EventBus();
+    private final FakeItemManager itemManager = new FakeItemManager();
+    private final FakeClient client = new FakeClient(itemManager);
+    private final FakeConfigManager configManager = new FakeConfigManager(eventBus);
+    private final FakeClientThread clientThread = new FakeClientThread();
+    private final FakeOverlayManager overlayManager = new FakeOverlayManager();
+    private final FakeInfoBoxManager infoBoxManager = new FakeInfoBoxManager();
+
+    @Override
+    protected void configure()
+    {
+        bind(EventBus.class).toInstance(eventBus);
+
+        bind(FakeClient.class).toInstance(client);
+        bind(Client.class).toInstance(client.client());
+
+        bind(FakeItemManager.class).toInstance(itemManager);
+        bind(ItemManager.class).toInstance(itemManager.itemManager());
+
+        bind(FakeConfigManager.class).toInstance(configManager);
+        bind(ConfigManager.class).toInstance(configManager.configManager());
+
+        bind(FakeClientThread.class).toInstance(clientThread);
+        bind(ClientThread.class).toInstance(clientThread.clientThread());
+
+        bind(FakeOverlayManager.class).toInstance(overlayManager);
+        bind(OverlayManager.class).toInstance(overlayManager.overlayManager());
+
+        bind(FakeInfoBoxManager.class).toInstance(infoBoxManager);
+        bind(InfoBoxManager.class).toInstance(infoBoxManager.infoBoxManager());
+
+        bindConstant().annotatedWith(Names.named("developerMode")).to(false);
+    }
+
+    @Provides
+    @Singleton
+    SingleHandedModeConfig provideConfig(ConfigManager configManager)
+    {
+        return configManager.getConfig(SingleHandedModeConfig.class);
+    }
+
+    @Provides
+    @Singleton
+    BackgroundLane provideBackgroundLane(ClientThread clientThread, TickScheduler tickScheduler)
+    {
+        return new BackgroundLane(clientThread, tickScheduler, Runnable::run);
+    }
+
+    @Provides
+    @Singleton
+    FrameGovernor provideFrameGovernor(ConfigManager configManager)
+    {
+        return new FrameGovernor(configManager, () -> client.getTickCount() * Constants.GAME_TICK_LENGTH * 1_000_000L);
+    }
+
+    @Provides
+    @Singleton
+    ScheduledExecutorService provideExecutor()
+    {
+        return Executors.newSingleThreadScheduledExecutor(r ->
+        {
+            Thread thread = new Thread(r, "headless-executor");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+}
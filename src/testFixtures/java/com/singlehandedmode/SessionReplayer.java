@@ -0,0 +1,241 @@
+package com.singlehandedmode;
+
+import com.google.inject.Guice;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import javax.inject.Inject;
+import net.runelite.api.GameState;
+import net.runelite.api.MenuAction;
+import net.runelite.api.coords.WorldPoint;
+import net.runelite.api.events.ClientTick;
+import net.runelite.api.events.GameStateChanged;
+import net.runelite.api.events.GameTick;
+import net.runelite.api.events.ItemContainerChanged;
+import net.runelite.api.events.MenuEntryAdded;
+import net.runelite.client.eventbus.EventBus;
+
+/**
+ * Feeds a session recorded by {@link SessionRecorder} back through the plugin as fast as it will go.
+ *
+ * The plugin is started against the {@link HeadlessModule} fakes and every event is posted to the event bus,
+ * so all subscribers see them in the same order as in the recorded session. Scene records reset the fake
+ * client's collision maps and NPCs.
+ *
+ * <pre>
+ *   java ... com.singlehandedmode.SessionReplayer session-123.shmrec [repeats]
+ * </pre>
+ */
+public class SessionReplayer
+{
+    private final FakeClient client;
+    private final FakeClientThread clientThread;
+    private final EventBus eventBus;
+    private final SingleHandedModePlugin plugin;
+
+    private final GameTick gameTick = new GameTick();
+    private final ClientTick clientTick = new ClientTick();
+
+    @Inject
+    public SessionReplayer(FakeClient client, FakeClientThread clientThread, EventBus eventBus,
+                           SingleHandedModePlugin plugin)
+    {
+        this.client = client;
+        this.clientThread = clientThread;
+        this.eventBus = eventBus;
+        this.plugin = plugin;
+    }
+
+    public static void main(String[] args) throws Exception
+    {
+        if (args.length < 1)
+        {
+            System.err.println("Usage: SessionReplayer <session" + SessionFormat.EXTENSION + "> [repeats]");
+            System.exit(1);
+        }
+
+        byte[] data = Files.readAllBytes(Paths.get(args[0]));
+        int repeats = args.length > 1 ? Integer.parseInt(args[1]) : 1;
+
+        for (int i = 0; i < repeats; ++i)
+        {
+            SessionReplayer replayer = Guice.createInjector(new HeadlessModule()).getInstance(SessionReplayer.class);
+            Result result = replayer.replay(data);
+            System.out.printf("Run %d: %d events over %d ticks in %.1f ms, %.0f events/s%n", i + 1,
+                    result.events, result.gameTicks, result.nanos / 1e6, result.events * 1e9 / result.nanos);
+        }
+    }
+
+    /**
+     * Starts the plugin, replays the whole session and shuts the plugin down again.
+     */
+    public Result replay(byte[] data) throws Exception
+    {
+        SessionFormat.Reader reader = new SessionFormat.Reader(data);
+        Result result = new Result();
+
+        eventBus.register(plugin);
+        plugin.startUp();
+        try
+        {
+            long start = System.nanoTime();
+            replay(reader, result);
+            result.nanos = System.nanoTime() - start;
+        }
+        finally
+        {
+            plugin.shutDown();
+            eventBus.unregister(plugin);
+        }
+        return result;
+    }
+
+    private void replay(SessionFormat.Reader reader, Result result)
+    {
+        int tick = 0;
+        int playerX = 0;
+        int playerY = 0;
+        int playerPlane = 0;
+
+        while (reader.hasRemaining())
+        {
+            int type = reader.readVarInt();
+            tick += reader.readVarInt();
+            client.setTickCount(tick);
+
+            switch (type)
+            {
+                case SessionFormat.GAME_TICK:
+                {
+                    int clientTicks = reader.readVarInt();
+                    for (int i = 0; i < clientTicks; ++i)
+                    {
+                        eventBus.post(clientTick);
+                        clientThread.drain();
+                    }
+                    result.events += clientTicks;
+
+                    playerX += reader.readSignedVarInt();
+                    playerY += reader.readSignedVarInt();
+                    playerPlane += reader.readSignedVarInt();
+                    client.setLocalPlayerLocation(new WorldPoint(playerX, playerY, playerPlane));
+
+                    eventBus.post(gameTick);
+                    ++result.gameTicks;
+                    break;
+                }
+                case SessionFormat.MENU_OPTION_CLICKED:
+                    eventBus.post(readMenuEntry(reader).click());
+                    break;
+                case SessionFormat.MENU_ENTRY_ADDED:
+                    eventBus.post(new MenuEntryAdded(readMenuEntry(reader).entry()));
+                    break;
+                case SessionFormat.ITEM_CONTAINER_CHANGED:
+                {
+                    int id = reader.readSignedVarInt();
+                    int size = reader.readVarInt();
+                    FakeItemContainer container = client.container(id, size);
+                    for (int slot = 0; slot < size; ++slot)
+                    {
+                        int itemId = reader.readSignedVarInt();
+                        container.set(slot, itemId, itemId >= 0 ? reader.readVarInt() : 0);
+                    }
+                    eventBus.post(new ItemContainerChanged(id, container.container()));
+                    break;
+                }
+                case SessionFormat.ITEM_DESPAWNED:
+                {
+                    int itemId = reader.readSignedVarInt();
+                    int quantity = reader.readVarInt();
+                    WorldPoint location = new WorldPoint(reader.readSignedVarInt(), reader.readSignedVarInt(), reader.readVarInt());
+                    eventBus.post(new FakeTileItem(itemId, quantity, location).despawned());
+                    break;
+                }
+                case SessionFormat.GAME_STATE_CHANGED:
+                {
+                    GameState state = GameState.of(reader.readSignedVarInt());
+                    client.setGameState(state);
+                    GameStateChanged event = new GameStateChanged();
+                    event.setGameState(state);
+                    eventBus.post(event);
+                    break;
+                }
+                case SessionFormat.SCENE:
+                    readScene(reader);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown record type " + type + " at tick " + tick);
+            }
+            ++result.events;
+        }
+    }
+
+    private static FakeMenuEntry readMenuEntry(SessionFormat.Reader reader)
+    {
+        String option = reader.readString();
+        String target = reader.readString();
+        MenuAction type = MenuAction.of(reader.readVarInt());
+        int identifier = reader.readSignedVarInt();
+        int itemId = reader.readSignedVarInt();
+        int param0 = reader.readSignedVarInt();
+        int param1 = reader.readSignedVarInt();
+        return new FakeMenuEntry(option, target, type, identifier, itemId, param0, param1);
+    }
+
+    private void readScene(SessionFormat.Reader reader)
+    {
+        client.setScene(reader.readSignedVarInt(), reader.readSignedVarInt(), reader.readVarInt());
+
+        // 1. Collision flags, as (run length, flags) pairs in x-major order
+        for (int plane = 0; plane < SessionFormat.PLANES; ++plane)
+        {
+            int cell = 0;
+            int cells = SessionFormat.SCENE_SIZE * SessionFormat.SCENE_SIZE;
+            while (cell < cells)
+            {
+                int run = reader.readVarInt();
+                int flags = reader.readVarInt();
+                for (int end = Math.min(cell + run, cells); cell < end; ++cell)
+                {
+                    client.setCollisionFlags(plane, cell / SessionFormat.SCENE_SIZE, cell % SessionFormat.SCENE_SIZE, flags);
+                }
+            }
+        }
+
+        // 2. NPCs
+        client.clearNpcs();
+        int count = reader.readVarInt();
+        for (int i = 0; i < count; ++i)
+        {
+            reader.readVarInt(); // Index, reassigned in order
+            int id = reader.readVarInt();
+            String name = reader.readString();
+            WorldPoint location = new WorldPoint(reader.readSignedVarInt(), reader.readSignedVarInt(), reader.readVarInt());
+            client.addNpc(id, name, location);
+        }
+    }
+
+    /**
+     * What a replay covered and how long it took.
+     */
+    public static final class Result
+    {
+        private int events;
+        private int gameTicks;
+        private long nanos;
+
+        public int getEvents()
+        {
+            return events;
+        }
+
+        public int getGameTicks()
+        {
+            return gameTicks;
+        }
+
+        public long getNanos()
+        {
+            return nanos;
+        }
+    }
+}
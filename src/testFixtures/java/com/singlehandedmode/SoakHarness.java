@@ -0,0 +1,641 @@
+package com.singlehandedmode;
+
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.function.ToDoubleFunction;
+import net.runelite.api.EquipmentInventorySlot;
+import net.runelite.api.GameState;
+import net.runelite.api.InventoryID;
+import net.runelite.api.MenuAction;
+import net.runelite.api.coords.WorldPoint;
+import net.runelite.api.events.ClientTick;
+import net.runelite.api.events.GameStateChanged;
+import net.runelite.api.events.GameTick;
+import net.runelite.api.events.ItemContainerChanged;
+import net.runelite.api.events.MenuEntryAdded;
+import net.runelite.api.gameval.ItemID;
+import net.runelite.client.eventbus.EventBus;
+
+/**
+ * Plays weeks of simulated sessions through the plugin in a few minutes, looking for leaks and for
+ * handlers slowing down over time.
+ *
+ * Each simulated day has a few logged in sessions. While logged in the player walks about, clicks
+ * restricted actions, teleports between regions (one of them underwater), takes the hook off and on,
+ * and goes through the broken hook cycle: the agent spawns and follows, the debt is paid by dropping
+ * coins, and the doctor repairs the hook with a dialogue. The plugin is restarted once a week.
+ *
+ * Every simulated hour of play the harness collects garbage and samples the heap, info boxes, overlays,
+ * active RuneLiteObjects, chatbox listeners and client thread tasks, along with the handler latency
+ * percentiles for the hour. After warm-up, the run fails if any of them trend upwards: a count that
+ * keeps growing, a heap whose floor keeps rising, or percentiles that double.
+ *
+ * <pre>
+ *   ./gradlew soak -Pweeks=4
+ *   java ... com.singlehandedmode.SoakHarness [weeks] [seed] [samples.csv]
+ * </pre>
+ */
+public class SoakHarness
+{
+    private static final int TICKS_PER_HOUR = 6000;
+    private static final int CLIENT_TICKS_PER_TICK = 3;
+    private static final int WEEKS = 4;
+
+    // Short enough for several break and repair cycles per session
+    private static final int HOOK_DURABILITY_TICKS = 2500;
+    private static final int REPAIR_COST = 5000;
+    private static final int COINS = 1_000_000;
+
+    // Samples before this fraction of the run are warm-up, and left out of the trends
+    private static final double WARMUP_FRACTION = 0.1;
+    // A latency percentile must at least double, and by this much, to count as drift
+    private static final long LATENCY_DRIFT_FLOOR_NANOS = 20_000;
+    private static final long HEAP_GROWTH_FLOOR_BYTES = 4L << 20;
+
+    private static final int DOCTOR_ID = 3343;
+    private static final WorldPoint[] LOCATIONS = {
+            new WorldPoint(3222, 3218, 0), // Lumbridge
+            new WorldPoint(3213, 3424, 0), // Varrock
+            new WorldPoint(3744, 10272, 0), // Fossil Island Underwater (North)
+    };
+
+    private static final FakeMenuEntry[] CLICKS = {
+            FakeMenuEntry.object("Mine", "Iron rocks", 11365),
+            FakeMenuEntry.object("Climb-up", "Staircase", 16671),
+            FakeMenuEntry.item("Eat", "Shark", 385),
+            FakeMenuEntry.item("Wield", "Armadyl godsword", 11802),
+            FakeMenuEntry.item("Wield", "Magic shortbow", 861),
+    };
+
+    private final Random random;
+    private final FakeClient client;
+    private final FakeClientThread clientThread;
+    private final FakeOverlayManager overlayManager;
+    private final FakeInfoBoxManager infoBoxManager;
+    private final EventBus eventBus;
+    private final SingleHandedModePlugin plugin;
+    private final DurabilityManager durabilityManager;
+    private final FakeDialogueManager dialogueManager;
+    private final PluginProfiler profiler;
+    private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+
+    private final GameTick gameTick = new GameTick();
+    private final ClientTick clientTick = new ClientTick();
+    private final List<Sample> samples = new ArrayList<>();
+
+    // Where the player is and what they're doing
+    private WorldPoint home = LOCATIONS[0];
+    private WorldPoint position = home;
+    private long ticksPlayed;
+    private long hookOffUntil = -1;
+    private long coinsDespawnAt = -1;
+    private WorldPoint coinsLocation;
+    private long dialogueContinueAt = -1;
+
+    // What the run covered
+    private int logins;
+    private int teleports;
+    private int breaks;
+    private int payments;
+    private int repairs;
+    private int dialogues;
+    private int restarts;
+
+    public SoakHarness(Injector injector, long seed)
+    {
+        this.random = new Random(seed);
+        this.client = injector.getInstance(FakeClient.class);
+        this.clientThread = injector.getInstance(FakeClientThread.class);
+        this.overlayManager = injector.getInstance(FakeOverlayManager.class);
+        this.infoBoxManager = injector.getInstance(FakeInfoBoxManager.class);
+        this.eventBus = injector.getInstance(EventBus.class);
+        this.plugin = injector.getInstance(SingleHandedModePlugin.class);
+        this.durabilityManager = injector.getInstance(DurabilityManager.class);
+        this.dialogueManager = injector.getInstance(FakeDialogueManager.class);
+        this.profiler = injector.getInstance(PluginProfiler.class);
+
+        FakeConfigManager configManager = injector.getInstance(FakeConfigManager.class);
+        configManager.setConfiguration(SingleHandedModeConfig.GROUP, "hookDurabilityTicks", HOOK_DURABILITY_TICKS);
+        configManager.setConfiguration(SingleHandedModeConfig.GROUP, "repairCost", REPAIR_COST);
+        configManager.setConfiguration(SingleHandedModeConfig.GROUP, "penaltyPerSecond", 1);
+        configManager.setConfiguration(SingleHandedModeConfig.GROUP, "activityWeightedWear", false);
+        configManager.setConfiguration(SingleHandedModeConfig.GROUP, "showProfiler", true);
+    }
+
+    public static void main(String[] args) throws Exception
+    {
+        int weeks = args.length > 0 ? Integer.parseInt(args[0]) : WEEKS;
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : 1;
+        Path csv = args.length > 2 ? Paths.get(args[2]) : null;
+
+        SoakHarness harness = new SoakHarness(Guice.createInjector(new HeadlessModule()), seed);
+        long start = System.nanoTime();
+        harness.run(weeks * 7);
+        System.out.printf("Simulated %d weeks, %d hours of play in %.1f s%n", weeks, harness.samples.size(),
+                (System.nanoTime() - start) / 1e9);
+        System.out.printf("%d logins, %d teleports, %d breaks, %d payments, %d repairs, %d dialogues, %d restarts%n",
+                harness.logins, harness.teleports, harness.breaks, harness.payments, harness.repairs,
+                harness.dialogues, harness.restarts);
+
+        if (csv != null) harness.writeSamples(csv);
+
+        List<String> failures = harness.analyze();
+        for (String failure : failures)
+        {
+            System.out.println("FAIL " + failure);
+        }
+        if (!failures.isEmpty()) System.exit(1);
+        System.out.println("No upward trends");
+    }
+
+    /**
+     * Plays the given number of days, sampling every hour of play.
+     */
+    public void run(int days) throws Exception
+    {
+        eventBus.register(plugin);
+        plugin.startUp();
+        try
+        {
+            for (int day = 0; day < days; ++day)
+            {
+                if (day % 7 == 6) restartPlugin();
+
+                int sessions = 1 + random.nextInt(3);
+                for (int session = 0; session < sessions; ++session)
+                {
+                    login();
+                    play(TICKS_PER_HOUR * (1 + random.nextInt(2)));
+                    logout();
+                }
+            }
+        }
+        finally
+        {
+            plugin.shutDown();
+            eventBus.unregister(plugin);
+        }
+    }
+
+    public List<Sample> getSamples()
+    {
+        return samples;
+    }
+
+    // --- Play ---
+
+    private void login()
+    {
+        ++logins;
+        setGameState(GameState.LOGGING_IN);
+        moveScene(home);
+
+        client.container(InventoryID.INVENTORY, 28).clear().set(0, ItemID.COINS, COINS);
+        postContainer(InventoryID.INVENTORY);
+        equipHook(true);
+    }
+
+    private void logout()
+    {
+        setGameState(GameState.LOGIN_SCREEN);
+        clientThread.drain();
+    }
+
+    private void restartPlugin() throws Exception
+    {
+        ++restarts;
+        plugin.shutDown();
+        eventBus.unregister(plugin);
+        clientThread.drain();
+
+        eventBus.register(plugin);
+        plugin.startUp();
+    }
+
+    private void play(int ticks)
+    {
+        for (int i = 0; i < ticks; ++i)
+        {
+            act();
+            tick();
+        }
+    }
+
+    private void tick()
+    {
+        client.tick();
+        boolean wasBroken = durabilityManager.isHookBroken();
+        eventBus.post(gameTick);
+        if (!wasBroken && durabilityManager.isHookBroken()) ++breaks;
+
+        for (int i = 0; i < CLIENT_TICKS_PER_TICK; ++i)
+        {
+            eventBus.post(clientTick);
+            clientThread.drain();
+        }
+
+        if (++ticksPlayed % TICKS_PER_HOUR == 0) sample();
+    }
+
+    /**
+     * Does at most a couple of things a tick, like a player would.
+     */
+    private void act()
+    {
+        // Walk about near home
+        if (random.nextInt(3) == 0)
+        {
+            int dx = random.nextInt(3) - 1;
+            int dy = random.nextInt(3) - 1;
+            if (Math.abs(position.getX() + dx - home.getX()) <= 8 && Math.abs(position.getY() + dy - home.getY()) <= 8)
+            {
+                position = position.dx(dx).dy(dy);
+                client.setLocalPlayerLocation(position);
+            }
+        }
+
+        if (random.nextInt(20) == 0)
+        {
+            eventBus.post(CLICKS[random.nextInt(CLICKS.length)].click());
+        }
+
+        if (ticksPlayed == hookOffUntil) equipHook(true);
+        if (ticksPlayed == coinsDespawnAt) despawnCoins();
+        if (ticksPlayed == dialogueContinueAt && client.chatbox().clickListener()) ++dialogues;
+
+        if (durabilityManager.isHookBroken())
+        {
+            if (durabilityManager.hasUnpaidDebt())
+            {
+                // Pay once the agent has turned up
+                if (coinsLocation == null && client.getActiveRuneLiteObjects() > 0 && random.nextInt(50) == 0) dropCoins();
+            }
+            else if (random.nextInt(20) == 0)
+            {
+                repair();
+            }
+        }
+        else if (hookOffUntil < ticksPlayed && random.nextInt(2000) == 0)
+        {
+            equipHook(false);
+            hookOffUntil = ticksPlayed + 20 + random.nextInt(100);
+        }
+        else if (random.nextInt(3000) == 0)
+        {
+            teleport();
+        }
+    }
+
+    private void equipHook(boolean equipped)
+    {
+        FakeItemContainer equipment = client.container(InventoryID.EQUIPMENT, 14).clear();
+        if (equipped) equipment.set(EquipmentInventorySlot.GLOVES.getSlotIdx(), HookStateManager.PIRATE_HOOK_ID, 1);
+        postContainer(InventoryID.EQUIPMENT);
+    }
+
+    private void teleport()
+    {
+        ++teleports;
+        WorldPoint destination = home;
+        while (destination == home)
+        {
+            destination = LOCATIONS[random.nextInt(LOCATIONS.length)];
+        }
+        home = destination;
+        moveScene(home);
+    }
+
+    /**
+     * Loads the scene around the location and puts the player there, with a few people about.
+     */
+    private void moveScene(WorldPoint location)
+    {
+        setGameState(GameState.LOADING);
+
+        position = location;
+        client.setScene(location.getX() - FakeClient.SCENE_SIZE / 2, location.getY() - FakeClient.SCENE_SIZE / 2,
+                location.getPlane());
+        client.setLocalPlayerLocation(location);
+        client.clearNpcs();
+        client.addNpc(3106, "Man", location.dx(3).dy(2));
+        client.addNpc(3107, "Woman", location.dx(-2).dy(4));
+        client.addNpc(3029, "Goblin", location.dx(5).dy(-3));
+
+        setGameState(GameState.LOGGED_IN);
+    }
+
+    private void dropCoins()
+    {
+        eventBus.post(new FakeMenuEntry("Drop", "<col=ff9040>Coins", MenuAction.CC_OP, 7, ItemID.COINS, 0, 0).click());
+        coinsLocation = position;
+
+        // The pile is on the floor now, and despawns a little later
+        client.container(InventoryID.INVENTORY, 28).set(0, -1, 0);
+        postContainer(InventoryID.INVENTORY);
+        coinsDespawnAt = ticksPlayed + 10;
+    }
+
+    private void despawnCoins()
+    {
+        if (coinsLocation == null) return;
+
+        eventBus.post(new FakeTileItem(ItemID.COINS, COINS, coinsLocation).despawned());
+        coinsLocation = null;
+        if (!durabilityManager.hasUnpaidDebt()) ++payments;
+
+        client.container(InventoryID.INVENTORY, 28).set(0, ItemID.COINS, COINS);
+        postContainer(InventoryID.INVENTORY);
+    }
+
+    private void repair()
+    {
+        String doctor = "<col=ffff00>Surgeon General Tafani";
+        eventBus.post(new MenuEntryAdded(new FakeMenuEntry("Talk-to", doctor, MenuAction.NPC_FIRST_OPTION, 0, -1).entry()));
+        eventBus.post(new FakeMenuEntry("Fit-Prosthetic", doctor, MenuAction.NPC_FIRST_OPTION, 0, -1).click());
+        if (!durabilityManager.isHookBroken()) ++repairs;
+
+        dialogueManager.openNpcDialogue(DOCTOR_ID, "Surgeon General Tafani",
+                "I've reattached the hook. Try not to break it again, okay?", null);
+        dialogueContinueAt = ticksPlayed + 3;
+    }
+
+    private void setGameState(GameState state)
+    {
+        client.setGameState(state);
+        GameStateChanged event = new GameStateChanged();
+        event.setGameState(state);
+        eventBus.post(event);
+    }
+
+    private void postContainer(InventoryID id)
+    {
+        eventBus.post(new ItemContainerChanged(id.getId(), client.getItemContainer(id)));
+    }
+
+    // --- Sampling ---
+
+    private void sample()
+    {
+        System.gc();
+        System.gc();
+
+        Sample sample = new Sample();
+        sample.hour = samples.size() + 1;
+        sample.heapBytes = memory.getHeapMemoryUsage().getUsed();
+        sample.infoBoxes = infoBoxManager.getInfoBoxes().size();
+        sample.overlays = overlayManager.getOverlays().size();
+        sample.runeLiteObjects = client.getActiveRuneLiteObjects();
+        sample.callbacks = client.chatbox().getListenerCount() + clientThread.getPendingCount();
+        sample.gameTickP50 = percentile(PluginProfiler.Section.GAME_TICK, 50);
+        sample.gameTickP99 = percentile(PluginProfiler.Section.GAME_TICK, 99);
+        sample.clientTickP99 = percentile(PluginProfiler.Section.CLIENT_TICK, 99);
+        sample.clickP99 = percentile(PluginProfiler.Section.MENU_OPTION_CLICKED, 99);
+        samples.add(sample);
+
+        // Percentiles are per hour
+        for (PluginProfiler.Section section : PluginProfiler.Section.values())
+        {
+            profiler.getHistogram(section).reset();
+        }
+    }
+
+    private long percentile(PluginProfiler.Section section, double percentile)
+    {
+        LatencyHistogram histogram = profiler.getHistogram(section);
+        return histogram.getCount() > 0 ? histogram.getValueAtPercentile(percentile) : 0;
+    }
+
+    private void writeSamples(Path csv) throws IOException
+    {
+        if (csv.getParent() != null) Files.createDirectories(csv.getParent());
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(csv)))
+        {
+            out.println("hour,heapBytes,infoBoxes,overlays,runeLiteObjects,callbacks,gameTickP50,gameTickP99,clientTickP99,clickP99");
+            for (Sample s : samples)
+            {
+                out.printf("%d,%d,%d,%d,%d,%d,%d,%d,%d,%d%n", s.hour, s.heapBytes, s.infoBoxes, s.overlays,
+                        s.runeLiteObjects, s.callbacks, s.gameTickP50, s.gameTickP99, s.clientTickP99, s.clickP99);
+            }
+        }
+    }
+
+    // --- Analysis ---
+
+    /**
+     * Returns what trended upwards after warm-up, or why the run can't be trusted. Empty if all is well.
+     */
+    public List<String> analyze()
+    {
+        List<String> failures = new ArrayList<>();
+
+        // A run that never went through the cycle proves nothing
+        if (breaks == 0 || payments == 0 || repairs == 0 || dialogues == 0)
+        {
+            failures.add("The soak didn't cover a full break, payment and repair cycle");
+        }
+
+        int from = (int) (samples.size() * WARMUP_FRACTION);
+        if (samples.size() - from < 8)
+        {
+            failures.add("Too few samples for trends: " + samples.size());
+            return failures;
+        }
+
+        checkBounded(failures, "InfoBoxes", from, s -> s.infoBoxes);
+        checkBounded(failures, "Overlays", from, s -> s.overlays);
+        checkBounded(failures, "Active RuneLiteObjects", from, s -> s.runeLiteObjects);
+        checkBounded(failures, "Dialogue callbacks", from, s -> s.callbacks);
+        checkHeap(failures, from);
+        checkLatency(failures, "onGameTick p50", from, s -> s.gameTickP50);
+        checkLatency(failures, "onGameTick p99", from, s -> s.gameTickP99);
+        checkLatency(failures, "onClientTick p99", from, s -> s.clientTickP99);
+        checkLatency(failures, "onMenuOptionClicked p99", from, s -> s.clickP99);
+        return failures;
+    }
+
+    /**
+     * Counts of live objects go up and down with what the player is doing, but must not grow over the run.
+     */
+    private void checkBounded(List<String> failures, String name, int from, ToDoubleFunction<Sample> metric)
+    {
+        double[] values = values(from, metric);
+        int quarter = values.length / 4;
+        double growth = growth(values);
+        double firstMax = max(values, 0, quarter);
+        double lastMax = max(values, values.length - quarter, values.length);
+        if (growth >= 1 && lastMax > firstMax)
+        {
+            failures.add(String.format("%s grew by %.1f, peak %.0f in the first quarter and %.0f in the last",
+                    name, growth, firstMax, lastMax));
+        }
+    }
+
+    /**
+     * The heap after a full GC must not keep rising. Its lowest point late in the run has to stay at or
+     * below its highest early on.
+     */
+    private void checkHeap(List<String> failures, int from)
+    {
+        double[] values = values(from, s -> s.heapBytes);
+        int quarter = values.length / 4;
+        double growth = growth(values);
+        double firstMax = max(values, 0, quarter);
+        double lastMin = min(values, values.length - quarter, values.length);
+        double allowed = Math.max(HEAP_GROWTH_FLOOR_BYTES, 0.25 * median(values, 0, quarter));
+        if (growth >= allowed && lastMin > firstMax)
+        {
+            failures.add(String.format("Heap after GC grew by %.1f MiB, from at most %.1f MiB to at least %.1f MiB",
+                    growth / (1 << 20), firstMax / (1 << 20), lastMin / (1 << 20)));
+        }
+    }
+
+    private void checkLatency(List<String> failures, String name, int from, ToDoubleFunction<Sample> metric)
+    {
+        double[] values = values(from, metric);
+        int quarter = values.length / 4;
+        double first = median(values, 0, quarter);
+        double last = median(values, values.length - quarter, values.length);
+        if (last > 2 * first && last - first > LATENCY_DRIFT_FLOOR_NANOS)
+        {
+            failures.add(String.format("%s drifted from %.1f us to %.1f us", name, first / 1000, last / 1000));
+        }
+    }
+
+    private double[] values(int from, ToDoubleFunction<Sample> metric)
+    {
+        double[] values = new double[samples.size() - from];
+        for (int i = 0; i < values.length; ++i)
+        {
+            values[i] = metric.applyAsDouble(samples.get(from + i));
+        }
+        return values;
+    }
+
+    /**
+     * Rise of the least squares line through the values, from the first to the last.
+     */
+    private static double growth(double[] values)
+    {
+        int n = values.length;
+        double meanX = (n - 1) / 2.0;
+        double meanY = 0;
+        for (double value : values)
+        {
+            meanY += value / n;
+        }
+
+        double covariance = 0;
+        double variance = 0;
+        for (int i = 0; i < n; ++i)
+        {
+            covariance += (i - meanX) * (values[i] - meanY);
+            variance += (i - meanX) * (i - meanX);
+        }
+        return variance > 0 ? covariance / variance * (n - 1) : 0;
+    }
+
+    private static double max(double[] values, int from, int to)
+    {
+        double max = Double.NEGATIVE_INFINITY;
+        for (int i = from; i < to; ++i)
+        {
+            max = Math.max(max, values[i]);
+        }
+        return max;
+    }
+
+    private static double min(double[] values, int from, int to)
+    {
+        double min = Double.POSITIVE_INFINITY;
+        for (int i = from; i < to; ++i)
+        {
+            min = Math.min(min, values[i]);
+        }
+        return min;
+    }
+
+    private static double median(double[] values, int from, int to)
+    {
+        double[] sorted = Arrays.copyOfRange(values, from, to);
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+
+    /**
+     * What was live and how fast the handlers were, for one hour of play.
+     */
+    public static final class Sample
+    {
+        private int hour;
+        private long heapBytes;
+        private int infoBoxes;
+        private int overlays;
+        private int runeLiteObjects;
+        private int callbacks;
+        private long gameTickP50;
+        private long gameTickP99;
+        private long clientTickP99;
+        private long clickP99;
+
+        public int getHour()
+        {
+            return hour;
+        }
+
+        public long getHeapBytes()
+        {
+            return heapBytes;
+        }
+
+        public int getInfoBoxes()
+        {
+            return infoBoxes;
+        }
+
+        public int getOverlays()
+        {
+            return overlays;
+        }
+
+        public int getRuneLiteObjects()
+        {
+            return runeLiteObjects;
+        }
+
+        public int getCallbacks()
+        {
+            return callbacks;
+        }
+
+        public long getGameTickP50()
+        {
+            return gameTickP50;
+        }
+
+        public long getGameTickP99()
+        {
+            return gameTickP99;
+        }
+
+        public long getClientTickP99()
+        {
+            return clientTickP99;
+        }
+
+        public long getClickP99()
+        {
+            return clickP99;
+        }
+    }
+}